@@ -11,6 +11,7 @@ module com.example.trafficlight {
     requires eu.hansolo.tilesfx;
     requires com.almasb.fxgl.all;
     requires java.logging;
+    requires jdk.jfr;
 
     exports org.example.traf;
 
@@ -0,0 +1,236 @@
+package org.example.traf.controller;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import org.example.traf.model.EngineSnapshot;
+import org.example.traf.model.EventLog;
+import org.example.traf.model.SignalControlMode;
+import org.example.traf.model.SimulationEngine;
+import org.example.traf.model.SnapshotBuffer;
+import org.example.traf.model.TrajectoryRecorder;
+import org.example.traf.util.Constants;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * {@link SimulationEngine}'i ayrı bir iş parçacığında gerçek zamanda ilerleten kontrolcü. Motor her
+ * adımdan sonra durumunu {@link SnapshotBuffer} ile yayınlar; JavaFX darbesindeki zamanlayıcı yalnızca
+ * en yeni kopyayı alıp çizdirir. İki taraf birbirini beklemez.
+ *
+ * <p>Motor verilen tohumla kurulur; günlük dosyası verilirse girdiler ve sinyal kararları
+ * {@link EventLog} ile kaydedilir ve çalıştırma sonradan gerçek zamandan hızlı oynatılabilir.</p>
+ */
+public class EngineController implements SimulationSession {
+    private static final double MAX_FRAME_SECONDS = 0.25;
+    private static final long STEP_NANOS = (long) (Constants.SIMULATION_STEP * 1_000_000_000L);
+
+    private final Map<String, Integer> greenDurations;
+    private final Map<String, Integer> vehicleCounts;
+    private final SignalControlMode controlMode;
+    private final long seed;
+    private final Path eventLogFile;
+    private final Path trajectoryFile;
+    private final Consumer<EngineSnapshot> renderer;
+    private final Runnable onClear;
+    private SnapshotBuffer snapshots;
+    private Thread engineThread;
+    private boolean running;
+    private volatile boolean paused;
+    private volatile boolean stopRequested;
+    // Motor iş parçacığı yazar, tanılama katmanı FX iş parçacığından okur
+    private volatile long lastStepNanos;
+    private int lastVehicleCount;
+
+    private final AnimationTimer frameTimer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            EngineSnapshot snapshot = snapshots.acquireLatest();
+            lastVehicleCount = snapshot.getVehicleCount();
+            renderer.accept(snapshot);
+            if (snapshot.isFinished()) {
+                endSimulation();
+            }
+        }
+    };
+
+    /**
+     * @param eventLogFile   kararların yazılacağı günlük; {@code null} ise kayıt yapılmaz
+     * @param trajectoryFile adım başına araç kayıtlarının yazılacağı dosya; {@code null} olabilir
+     */
+    public EngineController(Map<String, Integer> greenDurations, Map<String, Integer> vehicleCounts,
+                            SignalControlMode controlMode, long seed, Path eventLogFile, Path trajectoryFile,
+                            Consumer<EngineSnapshot> renderer, Runnable onClear) {
+        this.greenDurations = greenDurations;
+        this.vehicleCounts = vehicleCounts;
+        this.controlMode = controlMode;
+        this.seed = seed;
+        this.eventLogFile = eventLogFile;
+        this.trajectoryFile = trajectoryFile;
+        this.renderer = renderer;
+        this.onClear = onClear;
+    }
+
+    @Override
+    public void startSimulation() {
+        Platform.runLater(() -> {
+            if (running) {
+                if (paused) {
+                    resumeSimulation();
+                }
+                return;
+            }
+            EventLog.RunHeader run = new EventLog.RunHeader(seed, controlMode, greenDurations, vehicleCounts);
+            SimulationEngine engine = run.createEngine();
+            EventLog.Recorder recorder = openRecorder(run, engine);
+            TrajectoryRecorder trajectory = openTrajectory(engine);
+            snapshots = new SnapshotBuffer();
+            // İlk durum iş parçacığı başlamadan yayınlanır; start() sonrası motor yalnızca ona aittir
+            snapshots.publish(engine);
+            running = true;
+            paused = false;
+            stopRequested = false;
+            renderer.accept(snapshots.acquireLatest());
+
+            SnapshotBuffer buffer = snapshots;
+            engineThread = new Thread(() -> runEngine(engine, buffer, recorder, trajectory), "traf-engine");
+            engineThread.setDaemon(true);
+            engineThread.start();
+            frameTimer.start();
+        });
+    }
+
+    private EventLog.Recorder openRecorder(EventLog.RunHeader run, SimulationEngine engine) {
+        if (eventLogFile == null) return null;
+        try {
+            EventLog.Recorder recorder = EventLog.Recorder.create(eventLogFile, run);
+            recorder.attach(engine);
+            return recorder;
+        } catch (IOException e) {
+            System.err.println("Event log could not be opened: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private TrajectoryRecorder openTrajectory(SimulationEngine engine) {
+        if (trajectoryFile == null) return null;
+        try {
+            TrajectoryRecorder trajectory = new TrajectoryRecorder(trajectoryFile);
+            engine.setTrajectoryRecorder(trajectory);
+            return trajectory;
+        } catch (IOException e) {
+            System.err.println("Trajectory file could not be opened: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Motor iş parçacığının döngüsü: geçen gerçek zamanı motora verir, durumu yayınlar ve bir
+     * sonraki adıma kadar uyur. Duraklatılınca park edilir; kaldığı andan gerçek zamana yeniden bağlanır.
+     * Döngü bitince olay günlüğü ve yörünge dosyası motorun son durumuyla kapatılır.
+     */
+    private void runEngine(SimulationEngine engine, SnapshotBuffer buffer, EventLog.Recorder recorder,
+                           TrajectoryRecorder trajectory) {
+        try {
+            long lastNanos = System.nanoTime();
+            while (!stopRequested && !engine.isFinished()) {
+                if (paused) {
+                    LockSupport.park(this);
+                    lastNanos = System.nanoTime();
+                    continue;
+                }
+                long now = System.nanoTime();
+                engine.advance(Math.min(MAX_FRAME_SECONDS, (now - lastNanos) / 1_000_000_000.0));
+                lastStepNanos = System.nanoTime() - now;
+                lastNanos = now;
+                buffer.publish(engine);
+                LockSupport.parkNanos(this, STEP_NANOS);
+            }
+        } finally {
+            if (recorder != null) {
+                try {
+                    recorder.finish(engine);
+                } catch (IOException e) {
+                    System.err.println("Event log could not be written: " + e.getMessage());
+                }
+            }
+            if (trajectory != null) {
+                try {
+                    trajectory.close();
+                } catch (IOException e) {
+                    System.err.println("Trajectory file could not be written: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void endSimulation() {
+        frameTimer.stop();
+        stopRequested = true;
+        if (engineThread != null) {
+            LockSupport.unpark(engineThread);
+            engineThread = null;
+        }
+        running = false;
+        paused = false;
+    }
+
+    @Override
+    public void pauseSimulation() {
+        if (!running || paused) return;
+        paused = true;
+        frameTimer.stop();
+    }
+
+    @Override
+    public void resumeSimulation() {
+        if (!running || !paused) return;
+        paused = false;
+        LockSupport.unpark(engineThread);
+        frameTimer.start();
+    }
+
+    @Override
+    public void stopSimulationCompletely() {
+        endSimulation();
+        Platform.runLater(onClear);
+    }
+
+    @Override
+    public boolean isSimulationRunning() {
+        return running;
+    }
+
+    @Override
+    public boolean isSimulationPaused() {
+        return paused;
+    }
+
+    @Override
+    public String getSimulationStatus() {
+        if (!running) return "DURDURULDU";
+        if (paused) return "DURAKLATILDI";
+        return "ÇALIŞIYOR";
+    }
+
+    @Override
+    public int getVehicleCount() {
+        return lastVehicleCount;
+    }
+
+    /**
+     * Motor modunda araçlar animasyonla değil, her karede anlık görüntüden çizilir.
+     */
+    @Override
+    public int getRunningAnimationCount() {
+        return 0;
+    }
+
+    @Override
+    public long getLastStepNanos() {
+        return lastStepNanos;
+    }
+}
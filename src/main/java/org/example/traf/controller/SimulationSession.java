@@ -0,0 +1,37 @@
+package org.example.traf.controller;
+
+/**
+ * Tek bir simülasyon çalıştırmasının yaşam döngüsü. Zaman çizelgesi tabanlı {@link TrafficController}
+ * ve motor tabanlı {@link EngineController} bu arayüzü uygular.
+ */
+public interface SimulationSession {
+
+    void startSimulation();
+
+    void pauseSimulation();
+
+    void resumeSimulation();
+
+    void stopSimulationCompletely();
+
+    boolean isSimulationRunning();
+
+    boolean isSimulationPaused();
+
+    String getSimulationStatus();
+
+    /**
+     * Sahnede ya da motorda o an bulunan araç sayısı; tanılama katmanı içindir.
+     */
+    int getVehicleCount();
+
+    /**
+     * Oturumun başlattığı ve o an çalışan JavaFX animasyonlarının sayısı.
+     */
+    int getRunningAnimationCount();
+
+    /**
+     * Son simülasyon ilerletmesinin (zamanlayıcı olayları ya da motor adımı) süresi, nanosaniye.
+     */
+    long getLastStepNanos();
+}
@@ -1,48 +1,72 @@
 package org.example.traf.controller;
 
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
+import javafx.animation.AnimationTimer;
 import javafx.application.Platform;
 import javafx.scene.control.Label;
-import javafx.util.Duration;
+import org.example.traf.model.EventScheduler;
+import org.example.traf.model.SignalControlStrategy;
+import org.example.traf.model.SimulationEvents;
 import org.example.traf.model.TrafficLightSystem;
 import org.example.traf.model.VehicleManager;
 import org.example.traf.util.Constants;
 
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.Map;
-import java.util.Queue;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
-public class TrafficController {
+public class TrafficController implements SimulationSession {
     private final TrafficLightSystem trafficLightSystem;
     private final VehicleManager vehicleManager;
-    private final Map<String, Integer> greenDurations;
+    private final SignalControlStrategy controlStrategy;
     private final Label totalCountdownLabel;
     private final Map<String, Integer> vehicleCounts;
-    private Timeline totalSimulationTimeline;
+    private final EventScheduler scheduler;
+    private long totalCountdownEvent = EventScheduler.INVALID_HANDLE;
+    private long lastClockNanos;
+    private long lastStepNanos;
+    private long clockTicks;
     private final AtomicBoolean isSimulationRunning = new AtomicBoolean(false);
     private final AtomicBoolean isSimulationPaused = new AtomicBoolean(false);
     private final AtomicBoolean isPhaseTransitioning = new AtomicBoolean(false);
     private final AtomicBoolean isSimulationInitialized = new AtomicBoolean(false);
     private AtomicInteger totalTimeRemaining;
-    private Queue<String> directionQueue;
     private String currentDirection = "";
-    private Timeline pauseCheckTimeline;
+    private Runnable pendingResumeAction;
 
-    public TrafficController(TrafficLightSystem trafficLightSystem, VehicleManager vehicleManager,
-                             Label totalCountdownLabel, Map<String, Integer> greenDurations, Map<String, Integer> vehicleCounts) {
+    // Tüm zamanlanmış olayları (kalkış, kuyruk çıkışı, faz sonu, geri sayım) süren tek saat
+    private final AnimationTimer schedulerClock = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            if (lastClockNanos != 0) {
+                SimulationEvents.SimulationStep event = new SimulationEvents.SimulationStep();
+                event.begin();
+                long stepStart = System.nanoTime();
+                scheduler.advanceBy(Math.min(0.25, (now - lastClockNanos) / 1_000_000_000.0));
+                lastStepNanos = System.nanoTime() - stepStart;
+                clockTicks++;
+                if (event.shouldCommit()) {
+                    event.tick = clockTicks;
+                    event.activeVehicles = vehicleManager.getVehicleCount();
+                    event.simulationTime = scheduler.getNow();
+                    event.commit();
+                }
+            }
+            lastClockNanos = now;
+        }
+    };
+
+    public TrafficController(TrafficLightSystem trafficLightSystem, VehicleManager vehicleManager, EventScheduler scheduler,
+                             Label totalCountdownLabel, SignalControlStrategy controlStrategy, Map<String, Integer> vehicleCounts) {
         this.trafficLightSystem = trafficLightSystem;
         this.vehicleManager = vehicleManager;
+        this.scheduler = scheduler;
         this.totalCountdownLabel = totalCountdownLabel;
-        this.greenDurations = greenDurations;
+        this.controlStrategy = controlStrategy;
+        trafficLightSystem.setControlStrategy(controlStrategy);
         this.vehicleCounts = vehicleCounts;
     }
 
+    @Override
     public void startSimulation() {
         Platform.runLater(() -> {
             try {
@@ -68,33 +92,28 @@ public class TrafficController {
         isSimulationPaused.set(false);
         isSimulationInitialized.set(true);
         totalTimeRemaining = new AtomicInteger(Constants.TOTAL_SIMULATION_TIME);
+        lastClockNanos = 0;
+        schedulerClock.start();
         startTotalCountdownTimer();
-        initializeDirectionQueue();
         startVehicleAnimations();
         startTrafficLightCycle();
     }
 
     private void startTotalCountdownTimer() {
-        if (totalSimulationTimeline != null) {
-            totalSimulationTimeline.stop();
-        }
+        scheduler.cancel(totalCountdownEvent);
         totalCountdownLabel.setText(String.valueOf(totalTimeRemaining.get()));
-        totalSimulationTimeline = new Timeline(new KeyFrame(Duration.seconds(1), e -> {
-            if (isSimulationPaused.get()) return;
-            int remaining = totalTimeRemaining.decrementAndGet();
-            Platform.runLater(() -> totalCountdownLabel.setText(String.valueOf(remaining)));
-            if (remaining <= 0) {
-                Platform.runLater(this::endSimulation);
-            }
-        }));
-        totalSimulationTimeline.setCycleCount(Timeline.INDEFINITE);
-        totalSimulationTimeline.play();
+        totalCountdownEvent = scheduler.schedule(1, this::totalCountdownTick);
     }
 
-    private void initializeDirectionQueue() {
-        List<String> shuffledDirections = Arrays.asList(Constants.DIRECTIONS_TURKISH);
-        Collections.shuffle(shuffledDirections);
-        directionQueue = new LinkedList<>(shuffledDirections);
+    private void totalCountdownTick() {
+        int remaining = totalTimeRemaining.decrementAndGet();
+        Platform.runLater(() -> totalCountdownLabel.setText(String.valueOf(remaining)));
+        if (remaining <= 0) {
+            totalCountdownEvent = EventScheduler.INVALID_HANDLE;
+            Platform.runLater(this::endSimulation);
+        } else {
+            totalCountdownEvent = scheduler.schedule(1, this::totalCountdownTick);
+        }
     }
 
     private void startVehicleAnimations() {
@@ -109,7 +128,7 @@ public class TrafficController {
     }
 
     private synchronized void processNextDirection(boolean isFirstPhase) {
-        if (!isSimulationRunning.get() || directionQueue.isEmpty() || totalTimeRemaining.get() <= 0) return;
+        if (!isSimulationRunning.get() || totalTimeRemaining.get() <= 0) return;
         if (isSimulationPaused.get()) {
             waitForResume(() -> processNextDirection(isFirstPhase));
             return;
@@ -117,9 +136,11 @@ public class TrafficController {
         if (isPhaseTransitioning.get()) return;
         isPhaseTransitioning.set(true);
 
-        String nextDirection = directionQueue.poll();
-        directionQueue.offer(nextDirection);
-        currentDirection = nextDirection;
+        // Sıradaki yönü strateji seçer; yeşilin ne zaman biteceğine de ışık sistemi üzerinden o karar verir
+        int nextApproach = isFirstPhase
+                ? controlStrategy.firstApproach()
+                : controlStrategy.nextApproach(scheduler.getNow());
+        currentDirection = Constants.DIRECTIONS_TURKISH[nextApproach];
 
         Runnable onPhaseComplete = () -> {
             isPhaseTransitioning.set(false);
@@ -142,21 +163,7 @@ public class TrafficController {
     }
 
     private void waitForResume(Runnable actionAfterResume) {
-        if (pauseCheckTimeline != null) {
-            pauseCheckTimeline.stop();
-        }
-        pauseCheckTimeline = new Timeline(new KeyFrame(Duration.millis(100), e -> {
-            if (!isSimulationPaused.get() && isSimulationRunning.get()) {
-                pauseCheckTimeline.stop();
-                pauseCheckTimeline = null;
-                Platform.runLater(actionAfterResume);
-            } else if (!isSimulationRunning.get()) {
-                pauseCheckTimeline.stop();
-                pauseCheckTimeline = null;
-            }
-        }));
-        pauseCheckTimeline.setCycleCount(Timeline.INDEFINITE);
-        pauseCheckTimeline.play();
+        pendingResumeAction = actionAfterResume;
     }
 
     private void continueToNextPhase() {
@@ -179,41 +186,41 @@ public class TrafficController {
     }
 
     private void cleanupResources() {
-        if (totalSimulationTimeline != null) {
-            totalSimulationTimeline.stop();
-            totalSimulationTimeline = null;
-        }
-        if (pauseCheckTimeline != null) {
-            pauseCheckTimeline.stop();
-            pauseCheckTimeline = null;
-        }
-        trafficLightSystem.stopCurrentPhaseTimeline();
+        schedulerClock.stop();
+        scheduler.clear();
+        totalCountdownEvent = EventScheduler.INVALID_HANDLE;
+        pendingResumeAction = null;
+        trafficLightSystem.stopCurrentPhase();
         vehicleManager.stopAllVehicles();
         isPhaseTransitioning.set(false);
     }
 
+    @Override
     public void pauseSimulation() {
         if (!isSimulationRunning.get() || isSimulationPaused.get()) return;
         isSimulationPaused.set(true);
-        if (totalSimulationTimeline != null && totalSimulationTimeline.getStatus() == Timeline.Status.RUNNING) {
-            totalSimulationTimeline.pause();
-        }
-        trafficLightSystem.pauseCurrentPhaseTimeline();
+        schedulerClock.stop();
         vehicleManager.pauseAllVehiclesControlled();
         vehicleManager.pauseAllBackgroundProcesses();
     }
 
+    @Override
     public void resumeSimulation() {
         if (!isSimulationRunning.get() || !isSimulationPaused.get()) return;
         isSimulationPaused.set(false);
-        if (totalSimulationTimeline != null && totalSimulationTimeline.getStatus() == Timeline.Status.PAUSED) {
-            totalSimulationTimeline.play();
-        }
-        trafficLightSystem.resumeCurrentPhaseTimeline();
+        lastClockNanos = 0;
+        schedulerClock.start();
         vehicleManager.resumeAllBackgroundProcesses();
         vehicleManager.resumeAllVehiclesControlled();
+
+        Runnable resumeAction = pendingResumeAction;
+        pendingResumeAction = null;
+        if (resumeAction != null) {
+            Platform.runLater(resumeAction);
+        }
     }
 
+    @Override
     public void stopSimulationCompletely() {
         endSimulation();
         Platform.runLater(() -> vehicleManager.clearAllVehiclesFromScreen());
@@ -232,17 +239,35 @@ public class TrafficController {
         return isSimulationRunning.get();
     }
 
+    @Override
     public boolean isSimulationRunning() {
         return isSimulationRunning.get();
     }
 
+    @Override
     public boolean isSimulationPaused() {
         return isSimulationPaused.get();
     }
 
+    @Override
     public String getSimulationStatus() {
         if (!isSimulationRunning.get()) return "DURDURULDU";
         if (isSimulationPaused.get()) return "DURAKLATILDI";
         return "ÇALIŞIYOR";
     }
+
+    @Override
+    public int getVehicleCount() {
+        return vehicleManager.getVehicleCount();
+    }
+
+    @Override
+    public int getRunningAnimationCount() {
+        return vehicleManager.getRunningAnimationCount();
+    }
+
+    @Override
+    public long getLastStepNanos() {
+        return lastStepNanos;
+    }
 }
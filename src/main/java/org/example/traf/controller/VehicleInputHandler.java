@@ -1,5 +1,6 @@
 package org.example.traf.controller;
 
+import javafx.application.Platform;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
@@ -11,14 +12,22 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
+import org.example.traf.model.GreenSplitOptimizer;
+import org.example.traf.model.SignalControlMode;
 import org.example.traf.util.Constants;
 
 public class VehicleInputHandler {
 
+    // Değerlendirilmiş planların önbelleği diyaloglar arasında korunur
+    private final GreenSplitOptimizer optimizer;
+
     private final Stage primaryStage;
     private final Consumer<InputResult> onInputProcessed;
+    // Oturumun RandomStreams.Subsystem.INPUT akışı; rastgele sayılar da tohumla tekrarlanır
+    private final Random random;
 
     public static class InputResult {
         public final Map<String, Integer> greenDurations;
@@ -30,9 +39,15 @@ public class VehicleInputHandler {
         }
     }
 
-    public VehicleInputHandler(Stage primaryStage, Consumer<InputResult> onInputProcessed) {
+    /**
+     * @param controlMode plan aramasında adayların çalıştırılacağı sinyal kontrol modu
+     */
+    public VehicleInputHandler(Stage primaryStage, Consumer<InputResult> onInputProcessed, Random random,
+                               SignalControlMode controlMode) {
         this.primaryStage = primaryStage;
         this.onInputProcessed = onInputProcessed;
+        this.random = random;
+        this.optimizer = new GreenSplitOptimizer(controlMode);
     }
 
     public void showVehicleCountDialog() {
@@ -102,7 +117,6 @@ public class VehicleInputHandler {
         randomButton.setPrefWidth(buttonWidth);
         randomButton.setStyle("-fx-font-weight: bold; -fx-background-color: #2196F3; -fx-text-fill: white; -fx-background-radius: 5px;");
         randomButton.setOnAction(e -> {
-            Random random = new Random();
             for (TextField textField : inputs.values()) {
                 textField.setText(String.valueOf(random.nextInt(30) + 5));
             }
@@ -114,6 +128,9 @@ public class VehicleInputHandler {
         startSimulationButton.setPrefWidth(buttonWidth);
         startSimulationButton.setStyle("-fx-font-weight: bold; -fx-background-color: #4CAF50; -fx-text-fill: white; -fx-background-radius: 5px;");
         startSimulationButton.setOnAction(e -> {
+            startSimulationButton.setDisable(true);
+            randomButton.setDisable(true);
+            startSimulationButton.setText("Optimize ediliyor...");
             processAndReturnResults(inputs, dialogStage);
         });
 
@@ -122,9 +139,7 @@ public class VehicleInputHandler {
     }
 
     private void processAndReturnResults(Map<String, TextField> inputs, Stage dialogStage) {
-        Map<String, Integer> greenDurations = new LinkedHashMap<>();
         Map<String, Integer> vehicleCounts = new HashMap<>();
-        int totalVehicles = 0;
 
         for (String direction : Constants.DIRECTIONS_TURKISH) {
             TextField textField = inputs.get(direction);
@@ -138,25 +153,18 @@ public class VehicleInputHandler {
                 count = 10;
             }
             vehicleCounts.put(direction, count);
-            totalVehicles += count;
-        }
-
-        if (totalVehicles == 0) totalVehicles = 40;
-
-        int totalYellowTime = (Constants.DIRECTIONS_TURKISH.length - 1) * Constants.YELLOW_DURATION;
-        int availableGreenTime = Constants.TOTAL_SIMULATION_TIME - totalYellowTime;
-
-        for (String direction : Constants.DIRECTIONS_TURKISH) {
-            int vehicleCount = vehicleCounts.get(direction);
-            double ratio = (double) vehicleCount / totalVehicles;
-            int greenTime = (int) Math.round(ratio * availableGreenTime);
-            greenTime = Math.max(Constants.MIN_GREEN_DURATION, Math.min(Constants.MAX_GREEN_DURATION, greenTime));
-            greenDurations.put(direction, greenTime);
         }
 
-        InputResult result = new InputResult(greenDurations, vehicleCounts);
-        dialogStage.close();
-        onInputProcessed.accept(result);
+        // Plan araması saniyeler sürebilir; arayüz iş parçacığı bloklanmaz
+        CompletableFuture.supplyAsync(() -> optimizer.optimize(vehicleCounts))
+                .whenComplete((plan, error) -> Platform.runLater(() -> {
+                    Map<String, Integer> greenDurations = error == null
+                            ? plan.greenDurations
+                            : GreenSplitOptimizer.proportionalSplit(vehicleCounts);
+                    InputResult result = new InputResult(greenDurations, vehicleCounts);
+                    dialogStage.close();
+                    onInputProcessed.accept(result);
+                }));
     }
 
     public InputResult getDefaultValues() {
@@ -0,0 +1,162 @@
+package org.example.traf.model;
+
+import org.example.traf.util.Constants;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Döngü dedektörleriyle çalışan araç uyarmalı faz kontrolü. Yeşil en az
+ * {@link Constants#MIN_GREEN_DURATION} sürer; ardından dedektör {@link Constants#PASSAGE_TIME}
+ * boyunca boş kalırsa (gap-out) ya da plandaki yeşil süre dolarsa (max-out) sona erer. Başka bir
+ * yaklaşımda çağrı yoksa yeşil kesilmez ve mevcut yaklaşımda kalır.
+ *
+ * <p>Çağrılar kilitlidir: kırmızıdaki bir yaklaşımın dedektörü bir kez uyarılınca çağrı, o
+ * yaklaşım yeşile dönene kadar korunur. Sıradaki faz seçilirken çağrısı olmayan yaklaşımlar atlanır.</p>
+ */
+public class ActuatedSignalControl implements SignalControlStrategy, DetectorListener {
+    private static final int NO_GREEN = -1;
+
+    private final LoopDetector[] detectors;
+    private final int[] phaseOrder;
+    private final int[] maxGreens;
+    private final boolean[] calls;
+    private int phaseIndex;
+    private int greenApproach = NO_GREEN;
+    private double greenStartTime;
+
+    /**
+     * @param maxGreens yaklaşım başına max-out süresi; minimum yeşilden kısa olanlar minimuma çekilir
+     */
+    public ActuatedSignalControl(LoopDetector[] detectors, int[] phaseOrder, int[] maxGreens) {
+        if (detectors.length != maxGreens.length) {
+            throw new IllegalArgumentException("Detector and max green counts differ: "
+                    + detectors.length + " != " + maxGreens.length);
+        }
+        this.detectors = detectors;
+        this.phaseOrder = phaseOrder.clone();
+        this.maxGreens = new int[maxGreens.length];
+        this.calls = new boolean[detectors.length];
+        for (int approach = 0; approach < detectors.length; approach++) {
+            this.maxGreens[approach] = Math.max(Constants.MIN_GREEN_DURATION, maxGreens[approach]);
+            detectors[approach].addListener(this);
+        }
+    }
+
+    @Override
+    public void onPresenceChanged(LoopDetector detector, boolean occupied, double time) {
+        if (occupied && detector.getApproach() != greenApproach) {
+            calls[detector.getApproach()] = true;
+        }
+    }
+
+    @Override
+    public int firstApproach() {
+        phaseIndex = 0;
+        return phaseOrder[0];
+    }
+
+    @Override
+    public void greenStarted(int approach, double time) {
+        greenApproach = approach;
+        greenStartTime = time;
+        calls[approach] = false;
+    }
+
+    @Override
+    public boolean shouldEndGreen(double now) {
+        if (greenApproach == NO_GREEN) return false;
+        double elapsed = now - greenStartTime;
+        if (elapsed < Constants.MIN_GREEN_DURATION || !hasConflictingCall(greenApproach)) {
+            return false;
+        }
+        return elapsed >= maxGreens[greenApproach] || getGapTime(now) >= Constants.PASSAGE_TIME;
+    }
+
+    /**
+     * Sırada mevcut fazdan sonraki, çağrısı olan ilk yaklaşım. Hiçbir yaklaşımda çağrı yoksa
+     * sıradaki yaklaşım döner.
+     */
+    @Override
+    public int nextApproach(double now) {
+        if (greenApproach != NO_GREEN && detectors[greenApproach].isOccupied()) {
+            // Yeşilde temizlenemeyen araçlar bir sonraki döngü için çağrı bırakır
+            calls[greenApproach] = true;
+        }
+        greenApproach = NO_GREEN;
+
+        for (int offset = 1; offset <= phaseOrder.length; offset++) {
+            int index = (phaseIndex + offset) % phaseOrder.length;
+            if (hasCall(phaseOrder[index])) {
+                phaseIndex = index;
+                return phaseOrder[index];
+            }
+        }
+        phaseIndex = (phaseIndex + 1) % phaseOrder.length;
+        return phaseOrder[phaseIndex];
+    }
+
+    @Override
+    public double getGreenLimit(int approach) {
+        return maxGreens[approach];
+    }
+
+    /**
+     * Yeşil başladıktan ya da son araç alandan çıktıktan bu yana geçen boşluk süresi.
+     */
+    private double getGapTime(double now) {
+        LoopDetector detector = detectors[greenApproach];
+        if (detector.isOccupied()) return 0;
+        return now - Math.max(greenStartTime, detector.getLastVacatedTime());
+    }
+
+    public boolean hasCall(int approach) {
+        return calls[approach] || (approach != greenApproach && detectors[approach].isOccupied());
+    }
+
+    private boolean hasConflictingCall(int approach) {
+        for (int other = 0; other < calls.length; other++) {
+            if (other != approach && hasCall(other)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Dedektörlerin durumu motorla birlikte ayrıca yazılır.
+     */
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        SimulationCheckpoint.writeInts(out, phaseOrder);
+        for (boolean call : calls) {
+            out.writeBoolean(call);
+        }
+        out.writeInt(phaseIndex);
+        out.writeInt(greenApproach);
+        out.writeDouble(greenStartTime);
+    }
+
+    @Override
+    public void readState(DataInput in) throws IOException {
+        SimulationCheckpoint.readInts(in, phaseOrder);
+        for (int approach = 0; approach < calls.length; approach++) {
+            calls[approach] = in.readBoolean();
+        }
+        phaseIndex = in.readInt();
+        greenApproach = in.readInt();
+        greenStartTime = in.readDouble();
+    }
+
+    /**
+     * Çağrıları ve yeşil durumunu temizler; dedektörlerin sahibi onları ayrıca sıfırlar.
+     */
+    @Override
+    public void reset() {
+        Arrays.fill(calls, false);
+        greenApproach = NO_GREEN;
+        phaseIndex = 0;
+    }
+}
@@ -0,0 +1,18 @@
+package org.example.traf.model;
+
+/**
+ * Kavşak yaklaşımlarının artımlı tutulan araç sayaçları. Okumalar sabit zamanlıdır; uyarlamalı
+ * stratejiler karar anında araçları dolaşmadan bu sayaçları kullanır.
+ */
+public interface ApproachCounters {
+
+    /**
+     * Yaklaşımın ışığa giden rotasındaki (kuyrukta bekleyenler dahil) araç sayısı.
+     */
+    int getUpstreamCount(int approach);
+
+    /**
+     * Yaklaşımdan ışığı geçip çıkış rotalarında ilerleyen araç sayısı.
+     */
+    int getDownstreamCount(int approach);
+}
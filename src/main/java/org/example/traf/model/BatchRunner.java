@@ -0,0 +1,252 @@
+package org.example.traf.model;
+
+import org.example.traf.util.Constants;
+
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Aynı senaryonun (yeşil süreleri ve araç sayıları) çok sayıda bağımsız tekrarını ekransız
+ * {@link SimulationEngine} ile fork-join havuzunda paralel çalıştırır ve sonuçları güven
+ * aralıklarıyla özetler.
+ *
+ * <p>Araç sayıları beklenen talep olarak alınır ({@link DemandProfile#forVehicleCounts}); her tekrar
+ * faz sırasını ve geliş zamanlarını kendi tohumundan çeker. Tohum yalnızca ana tohum ve tekrar
+ * indeksinden türetilir; sonuçlar indeks sırasıyla toplandığından çıktı iş parçacığı sayısından ve
+ * iş bölüşümünden bağımsızdır.</p>
+ */
+public final class BatchRunner {
+
+    // Yaprak görev başına en az bu kadar tekrar; daha küçük bölüşüm görev maliyetini artırır
+    private static final int LEAF_REPLICATIONS = 4;
+    private static final double Z_95 = 1.959963984540054;
+    // 1..30 serbestlik derecesi için t(0.975)
+    private static final double[] T95_TABLE = {
+            12.706204736, 4.302652730, 3.182446305, 2.776445105, 2.570581836,
+            2.446911851, 2.364624252, 2.306004135, 2.262157163, 2.228138852,
+            2.200985160, 2.178812830, 2.160368656, 2.144786688, 2.131449546,
+            2.119905299, 2.109815578, 2.100922040, 2.093024054, 2.085963447,
+            2.079613845, 2.073873068, 2.068657610, 2.063898562, 2.059538553,
+            2.055529439, 2.051830516, 2.048407142, 2.045229642, 2.042272456
+    };
+
+    public static class ReplicationResult {
+        public final long seed;
+        public final int throughput;
+        public final double averageDelay;
+        public final double averageQueueLength;
+        public final TrafficMetrics metrics;
+
+        public ReplicationResult(long seed, int throughput, double averageDelay, double averageQueueLength,
+                                 TrafficMetrics metrics) {
+            this.seed = seed;
+            this.throughput = throughput;
+            this.averageDelay = averageDelay;
+            this.averageQueueLength = averageQueueLength;
+            this.metrics = metrics;
+        }
+    }
+
+    /**
+     * Örnek ortalaması ve %95 güven aralığının yarı genişliği.
+     */
+    public static class Estimate {
+        public final double mean;
+        public final double standardDeviation;
+        public final double halfWidth;
+        public final int sampleCount;
+
+        public Estimate(double mean, double standardDeviation, double halfWidth, int sampleCount) {
+            this.mean = mean;
+            this.standardDeviation = standardDeviation;
+            this.halfWidth = halfWidth;
+            this.sampleCount = sampleCount;
+        }
+
+        public double lower() {
+            return mean - halfWidth;
+        }
+
+        public double upper() {
+            return mean + halfWidth;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.3f ± %.3f", mean, halfWidth);
+        }
+    }
+
+    public static class BatchResult {
+        public final int replications;
+        public final Estimate throughput;
+        public final Estimate averageDelay;
+        public final Estimate averageQueueLength;
+        /**
+         * Tüm tekrarların birleştirilmiş yaklaşım ölçütleri; yüzdelikler bütün araçlar üzerindendir.
+         */
+        public final TrafficMetrics metrics;
+
+        public BatchResult(int replications, Estimate throughput, Estimate averageDelay, Estimate averageQueueLength,
+                           TrafficMetrics metrics) {
+            this.replications = replications;
+            this.throughput = throughput;
+            this.averageDelay = averageDelay;
+            this.averageQueueLength = averageQueueLength;
+            this.metrics = metrics;
+        }
+    }
+
+    private final ForkJoinPool pool;
+    private final SignalControlMode controlMode;
+
+    public BatchRunner() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public BatchRunner(ForkJoinPool pool) {
+        this(pool, SignalControlMode.FIXED_TIME);
+    }
+
+    public BatchRunner(ForkJoinPool pool, SignalControlMode controlMode) {
+        this.pool = pool;
+        this.controlMode = controlMode;
+    }
+
+    public BatchResult run(Map<String, Integer> greenDurations, Map<String, Integer> vehicleCounts,
+                           int replications, long seed) {
+        if (replications < 1) {
+            throw new IllegalArgumentException("Replication count must be positive: " + replications);
+        }
+
+        int[] throughputs = new int[replications];
+        double[] delays = new double[replications];
+        double[] queueLengths = new double[replications];
+        ReplicationTask task = new ReplicationTask(greenDurations, vehicleCounts, controlMode, seed, 0, replications,
+                throughputs, delays, queueLengths);
+        pool.invoke(task);
+
+        double[] throughputSamples = new double[replications];
+        for (int i = 0; i < replications; i++) {
+            throughputSamples[i] = throughputs[i];
+        }
+        return new BatchResult(replications, estimate(throughputSamples), estimate(delays), estimate(queueLengths),
+                task.metrics);
+    }
+
+    /**
+     * Tek bir tekrarı çağıran iş parçacığında çalıştırır.
+     */
+    public static ReplicationResult runReplication(Map<String, Integer> greenDurations,
+                                                   Map<String, Integer> vehicleCounts, long seed) {
+        return runReplication(greenDurations, vehicleCounts, SignalControlMode.FIXED_TIME, seed);
+    }
+
+    public static ReplicationResult runReplication(Map<String, Integer> greenDurations, Map<String, Integer> vehicleCounts,
+                                                   SignalControlMode controlMode, long seed) {
+        DemandProfile demand = DemandProfile.forVehicleCounts(vehicleCounts, Constants.TOTAL_SIMULATION_TIME);
+        SimulationEngine engine = new SimulationEngine(greenDurations, demand, new RandomStreams(seed), controlMode);
+        engine.runToCompletion();
+        return new ReplicationResult(seed, engine.getCompletedCount(), engine.getAverageDelay(),
+                engine.getAverageQueueLength(), engine.getMetrics());
+    }
+
+    /**
+     * Tekrar indeksine karşılık gelen tohum; ardışık indeksler SplitMix64 ile birbirinden ayrıştırılır.
+     */
+    public static long replicationSeed(long seed, int replication) {
+        return RandomStreams.split(seed, replication);
+    }
+
+    static Estimate estimate(double[] samples) {
+        int n = samples.length;
+        double mean = 0;
+        double m2 = 0;
+        for (int i = 0; i < n; i++) {
+            // Welford: tek geçişte sayısal olarak kararlı varyans
+            double delta = samples[i] - mean;
+            mean += delta / (i + 1);
+            m2 += delta * (samples[i] - mean);
+        }
+        if (n < 2) {
+            return new Estimate(mean, 0, Double.NaN, n);
+        }
+        double standardDeviation = Math.sqrt(m2 / (n - 1));
+        double halfWidth = studentT95(n - 1) * standardDeviation / Math.sqrt(n);
+        return new Estimate(mean, standardDeviation, halfWidth, n);
+    }
+
+    /**
+     * İki taraflı %95 Student-t kritik değeri. 30 serbestlik derecesine kadar tablodaki kesin
+     * değerler kullanılır; üstünde normal kantilin Cornish-Fisher açılımı milyonda birden iyidir.
+     * Açılım küçük derecelerde kritik değeri küçük tahmin eder (2'de %3) ve aralığı daraltır.
+     */
+    private static double studentT95(int degreesOfFreedom) {
+        if (degreesOfFreedom <= T95_TABLE.length) {
+            return T95_TABLE[degreesOfFreedom - 1];
+        }
+        double z = Z_95;
+        double z3 = z * z * z;
+        double z5 = z3 * z * z;
+        double z7 = z5 * z * z;
+        double v = degreesOfFreedom;
+        return z
+                + (z3 + z) / (4 * v)
+                + (5 * z5 + 16 * z3 + 3 * z) / (96 * v * v)
+                + (3 * z7 + 19 * z5 + 17 * z3 - 15 * z) / (384 * v * v * v);
+    }
+
+    private static final class ReplicationTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Map<String, Integer> greenDurations;
+        private final transient Map<String, Integer> vehicleCounts;
+        private final SignalControlMode controlMode;
+        private final long seed;
+        private final int from;
+        private final int to;
+        private final int[] throughputs;
+        private final double[] delays;
+        private final double[] queueLengths;
+        // Görevin aralığındaki tekrarların ölçütleri; bölüşüm ağacı sabit olduğundan birleştirme sırası da sabittir
+        private transient TrafficMetrics metrics;
+
+        ReplicationTask(Map<String, Integer> greenDurations, Map<String, Integer> vehicleCounts,
+                        SignalControlMode controlMode, long seed, int from, int to,
+                        int[] throughputs, double[] delays, double[] queueLengths) {
+            this.greenDurations = greenDurations;
+            this.vehicleCounts = vehicleCounts;
+            this.controlMode = controlMode;
+            this.seed = seed;
+            this.from = from;
+            this.to = to;
+            this.throughputs = throughputs;
+            this.delays = delays;
+            this.queueLengths = queueLengths;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_REPLICATIONS) {
+                metrics = new TrafficMetrics();
+                for (int i = from; i < to; i++) {
+                    ReplicationResult result = runReplication(greenDurations, vehicleCounts, controlMode, replicationSeed(seed, i));
+                    throughputs[i] = result.throughput;
+                    delays[i] = result.averageDelay;
+                    queueLengths[i] = result.averageQueueLength;
+                    metrics.add(result.metrics);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            ReplicationTask left = new ReplicationTask(greenDurations, vehicleCounts, controlMode, seed, from, middle,
+                    throughputs, delays, queueLengths);
+            ReplicationTask right = new ReplicationTask(greenDurations, vehicleCounts, controlMode, seed, middle, to,
+                    throughputs, delays, queueLengths);
+            invokeAll(left, right);
+            metrics = left.metrics;
+            metrics.add(right.metrics);
+        }
+    }
+}
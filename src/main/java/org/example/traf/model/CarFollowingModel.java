@@ -0,0 +1,98 @@
+package org.example.traf.model;
+
+import org.example.traf.util.Constants;
+
+/**
+ * Intelligent Driver Model (IDM) tabanlı araç takip modeli. Bir aracın ivmesini kendi hızından,
+ * aynı şeritteki öndeki araca (ya da kırmızı ışıkta durma çizgisine) olan boşluktan ve iki aracın
+ * hız farkından hesaplar. Durumsuzdur; şerit döngüsü tüm araçlar için aynı örneği kullanır.
+ *
+ * <p>Boşluk tampondan tampona ölçülür. Duran araçlar arasındaki en küçük boşluk
+ * {@link Constants#SAFETY_BUFFER}, istenen hızda izlenen boşluk ise {@link Constants#SAFE_DISTANCE}
+ * olacak şekilde zaman aralığı bu iki sabitten türetilir.</p>
+ */
+public final class CarFollowingModel {
+
+    private static final CarFollowingModel DEFAULT = new CarFollowingModel(
+            Constants.VEHICLE_SPEED,
+            Constants.SAFETY_BUFFER,
+            (Constants.SAFE_DISTANCE - Constants.SAFETY_BUFFER) / Constants.VEHICLE_SPEED,
+            Constants.MAX_ACCELERATION,
+            Constants.COMFORTABLE_DECELERATION,
+            Constants.CAR_LENGTH);
+
+    private final double desiredSpeed;
+    private final double minimumGap;
+    private final double timeHeadway;
+    private final double maxAcceleration;
+    private final double comfortableDeceleration;
+    private final double vehicleLength;
+    private final double brakingTerm;
+
+    public CarFollowingModel(double desiredSpeed, double minimumGap, double timeHeadway,
+                             double maxAcceleration, double comfortableDeceleration, double vehicleLength) {
+        if (desiredSpeed <= 0 || maxAcceleration <= 0 || comfortableDeceleration <= 0) {
+            throw new IllegalArgumentException("Speed and acceleration parameters must be positive");
+        }
+        this.desiredSpeed = desiredSpeed;
+        this.minimumGap = minimumGap;
+        this.timeHeadway = timeHeadway;
+        this.maxAcceleration = maxAcceleration;
+        this.comfortableDeceleration = comfortableDeceleration;
+        this.vehicleLength = vehicleLength;
+        this.brakingTerm = 2 * Math.sqrt(maxAcceleration * comfortableDeceleration);
+    }
+
+    public static CarFollowingModel defaults() {
+        return DEFAULT;
+    }
+
+    /**
+     * Öndeki araca göre ivme (piksel/saniye²).
+     *
+     * @param speed       aracın hızı
+     * @param gap         tampondan tampona boşluk
+     * @param leaderSpeed öndeki aracın hızı (durma çizgisi için 0)
+     */
+    public double acceleration(double speed, double gap, double leaderSpeed) {
+        double desiredGap = minimumGap + Math.max(0, speed * timeHeadway + speed * (speed - leaderSpeed) / brakingTerm);
+        double interaction = desiredGap / Math.max(gap, 1e-3);
+        return freeRoadAcceleration(speed) - maxAcceleration * interaction * interaction;
+    }
+
+    /**
+     * Önünde engel olmayan aracın ivmesi.
+     */
+    public double freeRoadAcceleration(double speed) {
+        double ratio = speed / desiredSpeed;
+        double ratio2 = ratio * ratio;
+        return maxAcceleration * (1 - ratio2 * ratio2);
+    }
+
+    /**
+     * Konforlu frenlemeyle {@code gap} içinde durulabiliyor mu; sarı ışıkta geçme kararı için.
+     */
+    public boolean canStopWithin(double speed, double gap) {
+        return speed * speed <= 2 * comfortableDeceleration * Math.max(0, gap);
+    }
+
+    /**
+     * Şeride giren aracın öndeki araca çarpmadan sahip olabileceği en yüksek hız.
+     */
+    public double safeEntrySpeed(double gap, double leaderSpeed) {
+        double margin = Math.max(0, gap - minimumGap);
+        return Math.min(desiredSpeed, leaderSpeed + Math.sqrt(2 * comfortableDeceleration * margin));
+    }
+
+    public double getDesiredSpeed() {
+        return desiredSpeed;
+    }
+
+    public double getMinimumGap() {
+        return minimumGap;
+    }
+
+    public double getVehicleLength() {
+        return vehicleLength;
+    }
+}
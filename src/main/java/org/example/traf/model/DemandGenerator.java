@@ -0,0 +1,204 @@
+package org.example.traf.model;
+
+import org.example.traf.util.Constants;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * {@link DemandProfile}'den yaklaşım ve hareket başına gelişleri tembel üreten akışlar. Her akışın
+ * yalnızca sıradaki gelişi zamanlanır; ara süreler kaydırılmış üsteldir (en kısa ara süre artı
+ * üstel kalan), ortalaması dilimin hızının tersidir.
+ *
+ * <p>Ara süre dilim sınırını aşarsa üstel kısım belleksiz olduğundan yeni dilimin hızıyla sınırdan
+ * yeniden çekilir. En kısa ara sürenin sınıra kadar dolmayan kısmı ise yeni dilime taşınır ve
+ * yeniden eklenmez; böylece sınırı aşan ara süreler uzamaz.</p>
+ *
+ * <p>Her akışın kendi SplitMix64 durumu vardır: bir akışın hızını değiştirmek diğerlerinin
+ * gelişlerini değiştirmez, durum tek {@code long} olduğundan kontrol noktasına yazılabilir. Giriş
+ * noktasında yer bulamayan gelişler yaklaşım başına sırayla bekletilir.</p>
+ */
+final class DemandGenerator {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final int INITIAL_WAITING_CAPACITY = 16;
+
+    private final DemandProfile profile;
+    private final long[] randomStates = new long[DemandProfile.STREAM_COUNT];
+    private final int[] arrivalCounts = new int[PathService.APPROACH_COUNT];
+
+    // Yaklaşım başına giriş bekleyen gelişler: halka tamponlarda geliş zamanı ve hareket
+    private final double[][] waitingTimes = new double[PathService.APPROACH_COUNT][];
+    private final int[][] waitingMovements = new int[PathService.APPROACH_COUNT][];
+    private final int[] waitingHeads = new int[PathService.APPROACH_COUNT];
+    private final int[] waitingSizes = new int[PathService.APPROACH_COUNT];
+
+    DemandGenerator(DemandProfile profile, long seed) {
+        this.profile = profile;
+        for (int stream = 0; stream < randomStates.length; stream++) {
+            randomStates[stream] = RandomStreams.split(seed, stream);
+        }
+        for (int approach = 0; approach < PathService.APPROACH_COUNT; approach++) {
+            waitingTimes[approach] = new double[INITIAL_WAITING_CAPACITY];
+            waitingMovements[approach] = new int[INITIAL_WAITING_CAPACITY];
+        }
+    }
+
+    static int approachOf(int stream) {
+        return stream / Constants.MOVEMENTS_PER_APPROACH;
+    }
+
+    static int movementOf(int stream) {
+        return stream % Constants.MOVEMENTS_PER_APPROACH;
+    }
+
+    /**
+     * Akışın {@code after} anından sonraki gelişi; profil bitmişse sonsuz.
+     */
+    double nextArrival(int stream, double after) {
+        double time = after;
+        // En kısa ara sürenin dolmamış kısmı; NaN ise ara süre henüz başlamadı
+        double shiftRemaining = Double.NaN;
+        for (int segment = profile.segmentAt(time); segment < profile.getSegmentCount(); segment++) {
+            double end = profile.getSegmentEnd(segment);
+            double rate = profile.getRatePerSecond(segment, stream);
+            if (rate > 0) {
+                double mean = 1 / rate;
+                // Ortalama en kısa ara süreden küçükse talep bu akış için doygundur ve ara süre sabittir
+                double shift = Math.min(profile.getMinimumHeadway(), mean);
+                double pending = Double.isNaN(shiftRemaining) ? shift : Math.min(shiftRemaining, shift);
+                double arrival = time + pending + exponential(stream, mean - shift);
+                if (arrival < end) {
+                    return arrival;
+                }
+                shiftRemaining = Math.max(0, time + pending - end);
+            } else if (!Double.isNaN(shiftRemaining)) {
+                shiftRemaining = Math.max(0, shiftRemaining - (end - time));
+            }
+            time = end;
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Ortalaması {@code mean} olan üstel süre; ortalama sıfırsa sayı çekilmez.
+     */
+    private double exponential(int stream, double mean) {
+        if (mean <= 0) {
+            return 0;
+        }
+        return -mean * Math.log(nextUniform(stream));
+    }
+
+    /**
+     * (0, 1] aralığında tekdüze sayı.
+     */
+    private double nextUniform(int stream) {
+        long z = randomStates[stream] += GOLDEN_GAMMA;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z ^= z >>> 31;
+        return ((z >>> 11) + 1) * 0x1.0p-53;
+    }
+
+    /**
+     * Gelişi yaklaşımın giriş sırasına ekler.
+     */
+    void arrive(int stream, double time) {
+        int approach = approachOf(stream);
+        int size = waitingSizes[approach];
+        if (size == waitingTimes[approach].length) {
+            growWaiting(approach);
+        }
+        int index = (waitingHeads[approach] + size) & (waitingTimes[approach].length - 1);
+        waitingTimes[approach][index] = time;
+        waitingMovements[approach][index] = movementOf(stream);
+        waitingSizes[approach]++;
+        arrivalCounts[approach]++;
+    }
+
+    int getWaitingCount(int approach) {
+        return waitingSizes[approach];
+    }
+
+    double peekWaitingTime(int approach) {
+        return waitingTimes[approach][waitingHeads[approach]];
+    }
+
+    int peekWaitingMovement(int approach) {
+        return waitingMovements[approach][waitingHeads[approach]];
+    }
+
+    /**
+     * Sıranın başındaki gelişi çıkarır ve yaklaşımdaki geliş sırasını döner.
+     */
+    int removeWaiting(int approach) {
+        int ordinal = arrivalCounts[approach] - waitingSizes[approach];
+        waitingHeads[approach] = (waitingHeads[approach] + 1) & (waitingTimes[approach].length - 1);
+        waitingSizes[approach]--;
+        return ordinal;
+    }
+
+    private void growWaiting(int approach) {
+        double[] times = waitingTimes[approach];
+        int[] movements = waitingMovements[approach];
+        int head = waitingHeads[approach];
+        int size = waitingSizes[approach];
+        double[] grownTimes = new double[times.length * 2];
+        int[] grownMovements = new int[times.length * 2];
+        for (int i = 0; i < size; i++) {
+            int index = (head + i) & (times.length - 1);
+            grownTimes[i] = times[index];
+            grownMovements[i] = movements[index];
+        }
+        waitingTimes[approach] = grownTimes;
+        waitingMovements[approach] = grownMovements;
+        waitingHeads[approach] = 0;
+    }
+
+    int getArrivalCount(int approach) {
+        return arrivalCounts[approach];
+    }
+
+    DemandProfile getProfile() {
+        return profile;
+    }
+
+    void writeState(DataOutput out) throws IOException {
+        profile.writeTo(out);
+        for (long state : randomStates) {
+            out.writeLong(state);
+        }
+        for (int approach = 0; approach < PathService.APPROACH_COUNT; approach++) {
+            out.writeInt(arrivalCounts[approach]);
+            int size = waitingSizes[approach];
+            out.writeInt(size);
+            for (int i = 0; i < size; i++) {
+                int index = (waitingHeads[approach] + i) & (waitingTimes[approach].length - 1);
+                out.writeDouble(waitingTimes[approach][index]);
+                out.writeByte(waitingMovements[approach][index]);
+            }
+        }
+    }
+
+    static DemandGenerator readState(DataInput in) throws IOException {
+        DemandGenerator generator = new DemandGenerator(DemandProfile.readFrom(in), 0);
+        for (int stream = 0; stream < generator.randomStates.length; stream++) {
+            generator.randomStates[stream] = in.readLong();
+        }
+        for (int approach = 0; approach < PathService.APPROACH_COUNT; approach++) {
+            generator.arrivalCounts[approach] = in.readInt();
+            int size = in.readInt();
+            int capacity = Math.max(INITIAL_WAITING_CAPACITY, Integer.highestOneBit(Math.max(1, size)) << 1);
+            generator.waitingTimes[approach] = new double[capacity];
+            generator.waitingMovements[approach] = new int[capacity];
+            for (int i = 0; i < size; i++) {
+                generator.waitingTimes[approach][i] = in.readDouble();
+                generator.waitingMovements[approach][i] = in.readUnsignedByte();
+            }
+            generator.waitingSizes[approach] = size;
+        }
+        return generator;
+    }
+}
@@ -0,0 +1,293 @@
+package org.example.traf.model;
+
+import org.example.traf.util.Constants;
+
+import java.io.BufferedReader;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Günün saatine göre parçalı sabit talep: her zaman diliminde yaklaşım ve hareket başına saatlik
+ * araç sayısı. {@link SimulationEngine} gelişleri bu hızlarla akış akış, yalnızca zamanı gelince
+ * üretir; böylece bellek toplam talebe değil ağdaki araç sayısına bağlı kalır.
+ *
+ * <p>Dilimler {@code 0}'dan başlar ve profil {@link #getEndTime()} anında biter. Örnek değişmezdir
+ * ve motorlar arasında paylaşılabilir.</p>
+ */
+public final class DemandProfile {
+
+    public static final double DAY_SECONDS = 24 * 3600;
+    public static final int STREAM_COUNT = PathService.APPROACH_COUNT * Constants.MOVEMENTS_PER_APPROACH;
+
+    private static final double SECONDS_PER_HOUR = 3600.0;
+
+    private final double[] segmentStarts;
+    private final double[][] vehiclesPerHour;
+    private final double endTime;
+    private final double minimumHeadway;
+
+    /**
+     * @param segmentStarts   dilimlerin başlangıçları (saniye); {@code 0} ile başlar ve artan sıradadır
+     * @param vehiclesPerHour dilim başına, {@code approach * MOVEMENTS_PER_APPROACH + movement}
+     *                        indeksli saatlik araç sayıları
+     * @param endTime         profilin bittiği an (saniye); son dilim burada biter
+     * @param minimumHeadway  aynı akımdaki iki gelişin en kısa arası (saniye)
+     */
+    public DemandProfile(double[] segmentStarts, double[][] vehiclesPerHour, double endTime, double minimumHeadway) {
+        if (segmentStarts.length == 0 || segmentStarts[0] != 0) {
+            throw new IllegalArgumentException("Demand profile must start at time 0");
+        }
+        if (segmentStarts.length != vehiclesPerHour.length) {
+            throw new IllegalArgumentException("Segment and rate counts differ: "
+                    + segmentStarts.length + " != " + vehiclesPerHour.length);
+        }
+        for (int segment = 0; segment < segmentStarts.length; segment++) {
+            double end = segment + 1 < segmentStarts.length ? segmentStarts[segment + 1] : endTime;
+            if (end <= segmentStarts[segment]) {
+                throw new IllegalArgumentException("Demand segments must be increasing: " + segmentStarts[segment]
+                        + " >= " + end);
+            }
+            if (vehiclesPerHour[segment].length != STREAM_COUNT) {
+                throw new IllegalArgumentException("Expected " + STREAM_COUNT + " rates per segment, found "
+                        + vehiclesPerHour[segment].length);
+            }
+            for (double rate : vehiclesPerHour[segment]) {
+                if (!(rate >= 0) || Double.isInfinite(rate)) {
+                    throw new IllegalArgumentException("Demand rates must be finite and non-negative: " + rate);
+                }
+            }
+        }
+        if (minimumHeadway < 0) {
+            throw new IllegalArgumentException("Minimum headway must be non-negative: " + minimumHeadway);
+        }
+        this.segmentStarts = segmentStarts.clone();
+        this.vehiclesPerHour = new double[vehiclesPerHour.length][];
+        for (int segment = 0; segment < vehiclesPerHour.length; segment++) {
+            this.vehiclesPerHour[segment] = vehiclesPerHour[segment].clone();
+        }
+        this.endTime = endTime;
+        this.minimumHeadway = minimumHeadway;
+    }
+
+    /**
+     * {@code duration} boyunca sabit talep; yaklaşımın saatlik araç sayısı hareketlere eşit bölünür.
+     */
+    public static DemandProfile constant(Map<String, Integer> vehiclesPerHour, double duration) {
+        double[] rates = new double[STREAM_COUNT];
+        for (int approach = 0; approach < PathService.APPROACH_COUNT; approach++) {
+            double perMovement = vehiclesPerHour.getOrDefault(Constants.DIRECTIONS_TURKISH[approach], 0)
+                    / (double) Constants.MOVEMENTS_PER_APPROACH;
+            Arrays.fill(rates, approach * Constants.MOVEMENTS_PER_APPROACH,
+                    (approach + 1) * Constants.MOVEMENTS_PER_APPROACH, perMovement);
+        }
+        return new DemandProfile(new double[]{0}, new double[][]{rates}, duration, Constants.MIN_HEADWAY);
+    }
+
+    /**
+     * Sabit sayılı girişlerin beklenen talebi: her yaklaşım {@link Constants#CAR_SPAWN_DELAY}
+     * ortalama arayla, beklenen sayısı {@code vehicleCounts} olana kadar araç alır; sayı verilmeyen
+     * yaklaşım 10 araç alır. Gelişler {@code endTime} anında kesilir.
+     */
+    public static DemandProfile forVehicleCounts(Map<String, Integer> vehicleCounts, double endTime) {
+        double[] windowEnds = new double[PathService.APPROACH_COUNT];
+        TreeSet<Double> boundaries = new TreeSet<>();
+        boundaries.add(0.0);
+        for (int approach = 0; approach < PathService.APPROACH_COUNT; approach++) {
+            windowEnds[approach] = vehicleCounts.getOrDefault(Constants.DIRECTIONS_TURKISH[approach], 10)
+                    * Constants.CAR_SPAWN_DELAY;
+            if (windowEnds[approach] > 0 && windowEnds[approach] < endTime) {
+                boundaries.add(windowEnds[approach]);
+            }
+        }
+
+        double perMovement = SECONDS_PER_HOUR / Constants.CAR_SPAWN_DELAY / Constants.MOVEMENTS_PER_APPROACH;
+        double[] segmentStarts = new double[boundaries.size()];
+        double[][] rates = new double[boundaries.size()][STREAM_COUNT];
+        int segment = 0;
+        for (double start : boundaries) {
+            segmentStarts[segment] = start;
+            for (int approach = 0; approach < PathService.APPROACH_COUNT; approach++) {
+                if (start < windowEnds[approach]) {
+                    Arrays.fill(rates[segment], approach * Constants.MOVEMENTS_PER_APPROACH,
+                            (approach + 1) * Constants.MOVEMENTS_PER_APPROACH, perMovement);
+                }
+            }
+            segment++;
+        }
+        return new DemandProfile(segmentStarts, rates, endTime, Constants.MIN_HEADWAY);
+    }
+
+    /**
+     * Profili CSV dosyasından okur. Her satır {@code başlangıç,yaklaşım,hareket0,hareket1,hareket2}
+     * biçimindedir; başlangıç {@code SS:DD} ya da saniye, hızlar saatlik araç sayısıdır. Bir
+     * yaklaşımın hızları o yaklaşımın bir sonraki satırına kadar geçerlidir. {@code end,SS:DD} satırı
+     * profilin bitişini verir (varsayılan 24:00). Boş ve {@code #} ile başlayan satırlar atlanır.
+     */
+    public static DemandProfile parse(Path file) throws IOException {
+        TreeMap<Double, double[]> changes = new TreeMap<>();
+        double end = DAY_SECONDS;
+        int lineNumber = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                String[] fields = line.split("\\s*,\\s*");
+                try {
+                    if (fields[0].equalsIgnoreCase("end")) {
+                        end = parseTime(fields[1]);
+                        continue;
+                    }
+                    if (fields.length != 2 + Constants.MOVEMENTS_PER_APPROACH) {
+                        throw new IllegalArgumentException("expected " + (2 + Constants.MOVEMENTS_PER_APPROACH)
+                                + " fields");
+                    }
+                    int approach = SimulationEngine.approachIndex(fields[1]);
+                    double[] row = changes.computeIfAbsent(parseTime(fields[0]), key -> unset());
+                    for (int movement = 0; movement < Constants.MOVEMENTS_PER_APPROACH; movement++) {
+                        row[approach * Constants.MOVEMENTS_PER_APPROACH + movement] = Double.parseDouble(fields[2 + movement]);
+                    }
+                } catch (RuntimeException e) {
+                    throw new IOException(file + ":" + lineNumber + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        changes.putIfAbsent(0.0, unset());
+
+        // Dilimde satırı olmayan yaklaşım önceki dilimin hızını sürdürür; ilk dilimden önce talep sıfırdır
+        List<Double> starts = new ArrayList<>();
+        List<double[]> rates = new ArrayList<>();
+        double[] previous = new double[STREAM_COUNT];
+        for (Map.Entry<Double, double[]> change : changes.headMap(end, false).entrySet()) {
+            double[] row = change.getValue();
+            for (int stream = 0; stream < STREAM_COUNT; stream++) {
+                if (Double.isNaN(row[stream])) {
+                    row[stream] = previous[stream];
+                }
+            }
+            starts.add(change.getKey());
+            rates.add(row);
+            previous = row;
+        }
+        double[] segmentStarts = new double[starts.size()];
+        for (int i = 0; i < segmentStarts.length; i++) {
+            segmentStarts[i] = starts.get(i);
+        }
+        try {
+            return new DemandProfile(segmentStarts, rates.toArray(new double[0][]), end, Constants.MIN_HEADWAY);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(file + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static double[] unset() {
+        double[] row = new double[STREAM_COUNT];
+        Arrays.fill(row, Double.NaN);
+        return row;
+    }
+
+    private static double parseTime(String text) {
+        int colon = text.indexOf(':');
+        if (colon < 0) {
+            return Double.parseDouble(text);
+        }
+        return Integer.parseInt(text.substring(0, colon)) * SECONDS_PER_HOUR
+                + Integer.parseInt(text.substring(colon + 1)) * 60.0;
+    }
+
+    public int getSegmentCount() {
+        return segmentStarts.length;
+    }
+
+    /**
+     * {@code time} anını içeren dilim; profil bittiyse {@link #getSegmentCount()}.
+     */
+    public int segmentAt(double time) {
+        if (time >= endTime) return segmentStarts.length;
+        int index = Arrays.binarySearch(segmentStarts, time);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    public double getSegmentStart(int segment) {
+        return segmentStarts[segment];
+    }
+
+    public double getSegmentEnd(int segment) {
+        return segment + 1 < segmentStarts.length ? segmentStarts[segment + 1] : endTime;
+    }
+
+    public double getVehiclesPerHour(int segment, int approach, int movement) {
+        return vehiclesPerHour[segment][approach * Constants.MOVEMENTS_PER_APPROACH + movement];
+    }
+
+    double getRatePerSecond(int segment, int stream) {
+        return vehiclesPerHour[segment][stream] / SECONDS_PER_HOUR;
+    }
+
+    public double getEndTime() {
+        return endTime;
+    }
+
+    public double getMinimumHeadway() {
+        return minimumHeadway;
+    }
+
+    /**
+     * Profilin tamamında yaklaşımdan beklenen araç sayısı.
+     */
+    public double getExpectedVehicles(int approach) {
+        double total = 0;
+        for (int segment = 0; segment < segmentStarts.length; segment++) {
+            double hours = (getSegmentEnd(segment) - segmentStarts[segment]) / SECONDS_PER_HOUR;
+            for (int movement = 0; movement < Constants.MOVEMENTS_PER_APPROACH; movement++) {
+                total += getVehiclesPerHour(segment, approach, movement) * hours;
+            }
+        }
+        return total;
+    }
+
+    public double getExpectedVehicles() {
+        double total = 0;
+        for (int approach = 0; approach < PathService.APPROACH_COUNT; approach++) {
+            total += getExpectedVehicles(approach);
+        }
+        return total;
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        out.writeInt(segmentStarts.length);
+        out.writeDouble(endTime);
+        out.writeDouble(minimumHeadway);
+        for (int segment = 0; segment < segmentStarts.length; segment++) {
+            out.writeDouble(segmentStarts[segment]);
+            for (double rate : vehiclesPerHour[segment]) {
+                out.writeDouble(rate);
+            }
+        }
+    }
+
+    static DemandProfile readFrom(DataInput in) throws IOException {
+        int segmentCount = in.readInt();
+        double endTime = in.readDouble();
+        double minimumHeadway = in.readDouble();
+        double[] segmentStarts = new double[segmentCount];
+        double[][] rates = new double[segmentCount][STREAM_COUNT];
+        for (int segment = 0; segment < segmentCount; segment++) {
+            segmentStarts[segment] = in.readDouble();
+            for (int stream = 0; stream < STREAM_COUNT; stream++) {
+                rates[segment][stream] = in.readDouble();
+            }
+        }
+        return new DemandProfile(segmentStarts, rates, endTime, minimumHeadway);
+    }
+}
@@ -0,0 +1,13 @@
+package org.example.traf.model;
+
+/**
+ * Sanal döngü dedektörünün olaylarını alır. Doluluk değişimi alanın boş/dolu geçişlerinde,
+ * algılama ise alana giren her araç için bildirilir; zaman simülasyon saatindendir (saniye).
+ */
+public interface DetectorListener {
+
+    void onPresenceChanged(LoopDetector detector, boolean occupied, double time);
+
+    default void onVehicleDetected(LoopDetector detector, double time) {
+    }
+}
@@ -0,0 +1,120 @@
+package org.example.traf.model;
+
+import org.example.traf.util.Constants;
+
+import java.util.Arrays;
+
+/**
+ * {@link SimulationEngine} durumunun bir andaki kopyası: araç konumları, ışık durumları ve
+ * sayaçlar. Motor iş parçacığı doldurur ve {@link SnapshotBuffer} ile yayınlar; yayınlanan kopya
+ * okuyucu bırakana kadar değiştirilmez, bu yüzden görünüm kilitsiz okur.
+ */
+public final class EngineSnapshot {
+
+    private final int approachCount = Constants.DIRECTIONS_TURKISH.length;
+    private final SignalState[] signalStates = new SignalState[approachCount];
+    private final int[] waitingCounts = new int[approachCount];
+    private final SimulationEngine.VehicleVisitor recorder = this::record;
+
+    private int[] vehicleIds = new int[64];
+    private double[] xs = new double[64];
+    private double[] ys = new double[64];
+    private double[] headings = new double[64];
+    private int vehicleCount;
+
+    private long sequence;
+    private long tickCount;
+    private double simulationTime;
+    private double timeRemaining = Constants.TOTAL_SIMULATION_TIME;
+    private double phaseRemaining;
+    private int currentApproach;
+    private boolean finished;
+
+    public EngineSnapshot() {
+        Arrays.fill(signalStates, SignalState.RED);
+    }
+
+    /**
+     * Motorun güncel durumunu bu kopyaya yazar; diziler yalnızca araç sayısı aşılınca büyür.
+     */
+    void capture(SimulationEngine engine, long sequence) {
+        this.sequence = sequence;
+        vehicleCount = 0;
+        engine.forEachVehicle(recorder);
+
+        for (int approach = 0; approach < approachCount; approach++) {
+            signalStates[approach] = engine.getSignalState(approach);
+            waitingCounts[approach] = engine.getWaitingCount(approach);
+        }
+        tickCount = engine.getTickCount();
+        simulationTime = engine.getSimulationTime();
+        timeRemaining = engine.getTimeRemaining();
+        phaseRemaining = engine.getPhaseRemaining();
+        currentApproach = engine.getCurrentApproach();
+        finished = engine.isFinished();
+    }
+
+    private void record(int vehicleId, double x, double y, double heading) {
+        if (vehicleCount == vehicleIds.length) {
+            int capacity = vehicleIds.length * 2;
+            vehicleIds = Arrays.copyOf(vehicleIds, capacity);
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            headings = Arrays.copyOf(headings, capacity);
+        }
+        vehicleIds[vehicleCount] = vehicleId;
+        xs[vehicleCount] = x;
+        ys[vehicleCount] = y;
+        headings[vehicleCount] = heading;
+        vehicleCount++;
+    }
+
+    public void forEachVehicle(SimulationEngine.VehicleVisitor visitor) {
+        for (int i = 0; i < vehicleCount; i++) {
+            visitor.visit(vehicleIds[i], xs[i], ys[i], headings[i]);
+        }
+    }
+
+    public int getVehicleCount() {
+        return vehicleCount;
+    }
+
+    /**
+     * Yayın sırası; daha büyük değer daha yeni durumdur.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    public SignalState getSignalState(int approach) {
+        return signalStates[approach];
+    }
+
+    public int getWaitingCount(int approach) {
+        return waitingCounts[approach];
+    }
+
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    public double getSimulationTime() {
+        return simulationTime;
+    }
+
+    public double getTimeRemaining() {
+        return timeRemaining;
+    }
+
+    public double getPhaseRemaining() {
+        return phaseRemaining;
+    }
+
+    public int getCurrentApproach() {
+        return currentApproach;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+}
@@ -0,0 +1,349 @@
+package org.example.traf.model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Motor tabanlı bir çalıştırmanın yalnızca sona eklenen ikili olay günlüğü. Günlük çalıştırmanın
+ * girdilerini (tohum, kontrol modu, yeşil süreler, araç sayıları), motorun sinyal kararlarını adım
+ * numarasıyla ve bitişteki sonuç özetini tutar.
+ *
+ * <p>Motor sabit adımlı ve tek tohumludur; gerçek zamanın adımlara nasıl bölündüğü sonucu
+ * değiştirmez. Bu yüzden {@link #replay(Path)} aynı girdilerle yeni bir motoru gerçek zamandan
+ * bağımsız, olabildiğince hızlı çalıştırır ve her kararı günlükle karşılaştırır; ilk sapma adım
+ * numarasıyla bildirilir.</p>
+ *
+ * <p>Biçim (büyük endian): {@code int} sihirli sayı, {@code short} sürüm, ardından kayıtlar. Her
+ * kayıt bir tür baytıyla başlar. Yarım kalmış günlük (bitiş kaydı yoksa) son karara kadar oynatılır.</p>
+ */
+public final class EventLog {
+
+    // "TRFL"
+    private static final int MAGIC = 0x5452464C;
+    private static final short VERSION = 1;
+
+    private static final byte RECORD_RUN = 1;
+    private static final byte RECORD_PHASE = 2;
+    private static final byte RECORD_END = 3;
+
+    private static final SignalState[] STATES = SignalState.values();
+
+    private EventLog() {
+    }
+
+    /**
+     * Günlüğün başındaki çalıştırma girdileri.
+     */
+    public static class RunHeader {
+        public final long seed;
+        public final SignalControlMode controlMode;
+        public final Map<String, Integer> greenDurations;
+        public final Map<String, Integer> vehicleCounts;
+
+        public RunHeader(long seed, SignalControlMode controlMode, Map<String, Integer> greenDurations,
+                         Map<String, Integer> vehicleCounts) {
+            this.seed = seed;
+            this.controlMode = controlMode;
+            this.greenDurations = greenDurations;
+            this.vehicleCounts = vehicleCounts;
+        }
+
+        /**
+         * Günlüğe yazılan çalıştırmayla aynı motoru kurar.
+         */
+        public SimulationEngine createEngine() {
+            return new SimulationEngine(greenDurations, vehicleCounts, new RandomStreams(seed), controlMode);
+        }
+    }
+
+    public static class ReplayResult {
+        public final RunHeader header;
+        public final long ticks;
+        public final int decisions;
+        public final boolean identical;
+        // Sapma yoksa -1
+        public final long divergenceTick;
+        public final String divergence;
+        public final int completedCount;
+        public final double averageDelay;
+        public final long elapsedNanos;
+
+        public ReplayResult(RunHeader header, long ticks, int decisions, boolean identical, long divergenceTick,
+                            String divergence, int completedCount, double averageDelay, long elapsedNanos) {
+            this.header = header;
+            this.ticks = ticks;
+            this.decisions = decisions;
+            this.identical = identical;
+            this.divergenceTick = divergenceTick;
+            this.divergence = divergence;
+            this.completedCount = completedCount;
+            this.averageDelay = averageDelay;
+            this.elapsedNanos = elapsedNanos;
+        }
+    }
+
+    /**
+     * Bir motorun kararlarını günlüğe yazar. Motorun iş parçacığından kullanılır; yazma hatası
+     * motoru durdurmaz, kayıt kesilir ve hata {@link #close()} ile bildirilir.
+     */
+    public static final class Recorder implements SimulationEngine.PhaseObserver, Closeable {
+        private final DataOutputStream out;
+        private IOException failure;
+        private boolean closed;
+
+        private Recorder(DataOutputStream out) {
+            this.out = out;
+        }
+
+        public static Recorder create(Path file, RunHeader header) throws IOException {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+            try {
+                out.writeInt(MAGIC);
+                out.writeShort(VERSION);
+                out.writeByte(RECORD_RUN);
+                out.writeLong(header.seed);
+                out.writeUTF(header.controlMode.name());
+                writeMap(out, header.greenDurations);
+                writeMap(out, header.vehicleCounts);
+                out.flush();
+            } catch (IOException e) {
+                out.close();
+                throw e;
+            }
+            return new Recorder(out);
+        }
+
+        /**
+         * Kurulumda başlamış ilk fazı yazar ve motorun sonraki kararlarını dinler.
+         */
+        public void attach(SimulationEngine engine) {
+            int approach = engine.getCurrentApproach();
+            phaseStarted(engine.getTickCount(), approach, engine.getSignalState(approach));
+            engine.setPhaseObserver(this);
+        }
+
+        @Override
+        public void phaseStarted(long tick, int approach, SignalState state) {
+            if (closed || failure != null) return;
+            try {
+                out.writeByte(RECORD_PHASE);
+                out.writeLong(tick);
+                out.writeByte(approach);
+                out.writeByte(state.ordinal());
+                // Kararlar seyrektir; çökme halinde günlük son karara kadar okunabilir kalır
+                out.flush();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+
+        /**
+         * Bitiş kaydını yazar ve günlüğü kapatır; tekrar oynatma sonucu bu özetle de karşılaştırılır.
+         */
+        public void finish(SimulationEngine engine) throws IOException {
+            if (!closed && failure == null) {
+                try {
+                    out.writeByte(RECORD_END);
+                    out.writeLong(engine.getTickCount());
+                    out.writeInt(engine.getCompletedCount());
+                    out.writeLong(Double.doubleToLongBits(engine.getTotalDelay()));
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+            close();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                try {
+                    out.close();
+                } catch (IOException e) {
+                    if (failure == null) {
+                        failure = e;
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    public static RunHeader readHeader(Path file) throws IOException {
+        try (DataInputStream in = open(file)) {
+            return readRun(in);
+        }
+    }
+
+    /**
+     * Günlükteki çalıştırmayı baştan oynatır ve her sinyal kararını günlükle karşılaştırır.
+     */
+    public static ReplayResult replay(Path file) throws IOException {
+        RunHeader header;
+        long[] ticks = new long[64];
+        int[] approaches = new int[64];
+        int[] states = new int[64];
+        int decisionCount = 0;
+        long endTick = -1;
+        int endCompleted = 0;
+        long endDelayBits = 0;
+
+        try (DataInputStream in = open(file)) {
+            header = readRun(in);
+            try {
+                while (true) {
+                    byte type = in.readByte();
+                    if (type == RECORD_PHASE) {
+                        if (decisionCount == ticks.length) {
+                            ticks = Arrays.copyOf(ticks, decisionCount * 2);
+                            approaches = Arrays.copyOf(approaches, decisionCount * 2);
+                            states = Arrays.copyOf(states, decisionCount * 2);
+                        }
+                        ticks[decisionCount] = in.readLong();
+                        approaches[decisionCount] = in.readUnsignedByte();
+                        states[decisionCount] = in.readUnsignedByte();
+                        decisionCount++;
+                    } else if (type == RECORD_END) {
+                        endTick = in.readLong();
+                        endCompleted = in.readInt();
+                        endDelayBits = in.readLong();
+                        break;
+                    } else {
+                        throw new IOException("Unknown event log record type: " + type);
+                    }
+                }
+            } catch (EOFException truncated) {
+                // Bitiş kaydı yazılmadan kesilmiş günlük; okunabilen kararlara kadar oynatılır
+            }
+        }
+
+        long start = System.nanoTime();
+        SimulationEngine engine = header.createEngine();
+        DecisionChecker checker = new DecisionChecker(ticks, approaches, states, decisionCount);
+        checker.phaseStarted(engine.getTickCount(), engine.getCurrentApproach(),
+                engine.getSignalState(engine.getCurrentApproach()));
+        engine.setPhaseObserver(checker);
+
+        long lastTick = endTick >= 0 ? endTick : (decisionCount > 0 ? ticks[decisionCount - 1] : 0);
+        while (!engine.isFinished() && engine.getTickCount() < lastTick && checker.divergenceTick < 0) {
+            engine.step();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        long divergenceTick = checker.divergenceTick;
+        String divergence = checker.divergence;
+        if (divergenceTick < 0 && checker.matched < decisionCount) {
+            divergenceTick = engine.getTickCount();
+            divergence = "Replay ended before decision " + checker.matched + " at tick " + ticks[checker.matched];
+        }
+        if (divergenceTick < 0 && endTick >= 0) {
+            if (engine.getTickCount() != endTick) {
+                divergenceTick = engine.getTickCount();
+                divergence = "Run ended at tick " + engine.getTickCount() + ", log ends at " + endTick;
+            } else if (engine.getCompletedCount() != endCompleted
+                    || Double.doubleToLongBits(engine.getTotalDelay()) != endDelayBits) {
+                divergenceTick = endTick;
+                divergence = "Final results differ: " + engine.getCompletedCount() + " vehicles, "
+                        + engine.getTotalDelay() + " s delay vs " + endCompleted + " vehicles, "
+                        + Double.longBitsToDouble(endDelayBits) + " s delay";
+            }
+        }
+        return new ReplayResult(header, engine.getTickCount(), checker.matched, divergenceTick < 0, divergenceTick,
+                divergence, engine.getCompletedCount(), engine.getAverageDelay(), elapsed);
+    }
+
+    /**
+     * Oynatılan motorun kararlarını günlüktekilerle sırayla karşılaştırır; ilk sapmada durur.
+     */
+    private static final class DecisionChecker implements SimulationEngine.PhaseObserver {
+        private final long[] ticks;
+        private final int[] approaches;
+        private final int[] states;
+        private final int count;
+        private int matched;
+        private long divergenceTick = -1;
+        private String divergence;
+
+        DecisionChecker(long[] ticks, int[] approaches, int[] states, int count) {
+            this.ticks = ticks;
+            this.approaches = approaches;
+            this.states = states;
+            this.count = count;
+        }
+
+        @Override
+        public void phaseStarted(long tick, int approach, SignalState state) {
+            if (divergenceTick >= 0) return;
+            if (matched == count) {
+                // Günlük yarım kalmış; kayıtlı kararların ötesi karşılaştırılamaz
+                return;
+            }
+            if (ticks[matched] != tick || approaches[matched] != approach || states[matched] != state.ordinal()) {
+                divergenceTick = tick;
+                divergence = "Decision " + matched + ": expected approach " + approaches[matched] + " "
+                        + STATES[states[matched]] + " at tick " + ticks[matched] + ", got approach " + approach
+                        + " " + state + " at tick " + tick;
+                return;
+            }
+            matched++;
+        }
+    }
+
+    private static DataInputStream open(Path file) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)));
+        try {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a simulation event log: " + file);
+            }
+            short version = in.readShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported event log version " + version + ": " + file);
+            }
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+        return in;
+    }
+
+    private static RunHeader readRun(DataInputStream in) throws IOException {
+        if (in.readByte() != RECORD_RUN) {
+            throw new IOException("Event log does not start with a run record");
+        }
+        long seed = in.readLong();
+        SignalControlMode controlMode = SignalControlMode.valueOf(in.readUTF());
+        Map<String, Integer> greenDurations = readMap(in);
+        Map<String, Integer> vehicleCounts = readMap(in);
+        return new RunHeader(seed, controlMode, greenDurations, vehicleCounts);
+    }
+
+    private static void writeMap(DataOutputStream out, Map<String, Integer> values) throws IOException {
+        out.writeInt(values.size());
+        for (Map.Entry<String, Integer> entry : values.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeInt(entry.getValue());
+        }
+    }
+
+    private static Map<String, Integer> readMap(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        Map<String, Integer> values = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            values.put(in.readUTF(), in.readInt());
+        }
+        return values;
+    }
+}
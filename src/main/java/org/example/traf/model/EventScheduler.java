@@ -0,0 +1,328 @@
+package org.example.traf.model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Simülasyon zamanına göre sıralı, ikili yığın tabanlı olay zamanlayıcısı. Olaylar
+ * {@link #advanceTo(double)} çağrıldığında zaman sırasıyla (eşit zamanlarda ekleme sırasıyla)
+ * çalıştırılır; saat ilerletilmediği sürece hiçbir olay tetiklenmez, bu yüzden duraklatma tek
+ * bir saati dondurmaktan ibarettir.
+ *
+ * <p>Olaylar ya bir {@link Runnable} ya da tür ve iki tamsayı argümanla {@link EventHandler}'a
+ * iletilen nesnesiz kayıtlardır. Zamanlama sonucu dönen tanıtıcı ile olay iptal edilebilir.</p>
+ */
+public final class EventScheduler {
+
+    public interface EventHandler {
+        void handleEvent(int type, int arg0, int arg1);
+    }
+
+    public static final long INVALID_HANDLE = -1L;
+
+    private static final int DEFAULT_CAPACITY = 64;
+    private static final int NOT_SCHEDULED = -1;
+
+    private final EventHandler handler;
+
+    // Olay kayıtları (slot başına)
+    private double[] times;
+    private long[] sequences;
+    private int[] types;
+    private int[] args0;
+    private int[] args1;
+    private Runnable[] actions;
+    private int[] generations;
+    private int[] heapIndexes;
+
+    private int[] freeSlots;
+    private int freeCount;
+    private int slotHighWater;
+
+    // Min-yığın: slot indeksleri
+    private int[] heap;
+    private int heapSize;
+
+    private long nextSequence;
+    private double now;
+
+    public EventScheduler() {
+        this(null);
+    }
+
+    public EventScheduler(EventHandler handler) {
+        this.handler = handler;
+        times = new double[DEFAULT_CAPACITY];
+        sequences = new long[DEFAULT_CAPACITY];
+        types = new int[DEFAULT_CAPACITY];
+        args0 = new int[DEFAULT_CAPACITY];
+        args1 = new int[DEFAULT_CAPACITY];
+        actions = new Runnable[DEFAULT_CAPACITY];
+        generations = new int[DEFAULT_CAPACITY];
+        heapIndexes = new int[DEFAULT_CAPACITY];
+        freeSlots = new int[DEFAULT_CAPACITY];
+        heap = new int[DEFAULT_CAPACITY];
+        Arrays.fill(heapIndexes, NOT_SCHEDULED);
+    }
+
+    public long schedule(double delay, Runnable action) {
+        return scheduleAt(now + Math.max(0, delay), action);
+    }
+
+    public long scheduleAt(double time, Runnable action) {
+        int slot = allocateSlot(time);
+        actions[slot] = action;
+        return push(slot);
+    }
+
+    public long schedule(double delay, int type, int arg0, int arg1) {
+        return scheduleAt(now + Math.max(0, delay), type, arg0, arg1);
+    }
+
+    public long scheduleAt(double time, int type, int arg0, int arg1) {
+        if (handler == null) {
+            throw new IllegalStateException("No event handler registered for typed events");
+        }
+        int slot = allocateSlot(time);
+        types[slot] = type;
+        args0[slot] = arg0;
+        args1[slot] = arg1;
+        return push(slot);
+    }
+
+    public boolean cancel(long handle) {
+        int slot = slotOf(handle);
+        if (!isLive(handle, slot)) return false;
+        removeAt(heapIndexes[slot]);
+        freeSlot(slot);
+        return true;
+    }
+
+    public boolean isScheduled(long handle) {
+        return isLive(handle, slotOf(handle));
+    }
+
+    /**
+     * Zamanı ilerletir ve {@code time} anına kadar (dahil) zamanı gelen tüm olayları çalıştırır.
+     * Olayların içinden zamanlanan yeni olaylar da aynı çağrıda zamanı gelmişse çalışır.
+     */
+    public int advanceTo(double time) {
+        int fired = 0;
+        while (heapSize > 0 && times[heap[0]] <= time) {
+            int slot = heap[0];
+            removeAt(0);
+            now = times[slot];
+
+            Runnable action = actions[slot];
+            int type = types[slot];
+            int arg0 = args0[slot];
+            int arg1 = args1[slot];
+            freeSlot(slot);
+
+            if (action != null) {
+                action.run();
+            } else {
+                handler.handleEvent(type, arg0, arg1);
+            }
+            fired++;
+        }
+        if (time > now) {
+            now = time;
+        }
+        return fired;
+    }
+
+    public int advanceBy(double seconds) {
+        return advanceTo(now + seconds);
+    }
+
+    public double getNow() {
+        return now;
+    }
+
+    public double getNextEventTime() {
+        return heapSize > 0 ? times[heap[0]] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Tanıtıcının zamanlandığı an; olay artık bekliyor değilse {@code NaN}.
+     */
+    public double getEventTime(long handle) {
+        int slot = slotOf(handle);
+        return isLive(handle, slot) ? times[slot] : Double.NaN;
+    }
+
+    public int size() {
+        return heapSize;
+    }
+
+    public void clear() {
+        for (int i = 0; i < heapSize; i++) {
+            freeSlot(heap[i]);
+        }
+        heapSize = 0;
+    }
+
+    public void reset() {
+        clear();
+        now = 0;
+        nextSequence = 0;
+    }
+
+    /**
+     * Saati ve bekleyen türlü olayları yazar; {@link Runnable} olaylar yazılamaz. Tanıtıcılar
+     * durumun parçası değildir, geri yüklenen olaylar yeni tanıtıcılar alır.
+     */
+    void writeState(DataOutput out) throws IOException {
+        for (int i = 0; i < heapSize; i++) {
+            if (actions[heap[i]] != null) {
+                throw new IllegalStateException("Events with Runnable actions cannot be saved");
+            }
+        }
+        out.writeDouble(now);
+        out.writeLong(nextSequence);
+        out.writeInt(heapSize);
+        for (int i = 0; i < heapSize; i++) {
+            int slot = heap[i];
+            out.writeDouble(times[slot]);
+            out.writeLong(sequences[slot]);
+            out.writeInt(types[slot]);
+            out.writeInt(args0[slot]);
+            out.writeInt(args1[slot]);
+        }
+    }
+
+    /**
+     * Bekleyen olayları silip {@link #writeState} ile yazılanları yükler. Ekleme sıraları korunur;
+     * eşit zamanlı olaylar kaydedildikleri sırayla çalışır.
+     */
+    void readState(DataInput in) throws IOException {
+        clear();
+        now = in.readDouble();
+        long savedSequence = in.readLong();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            int slot = allocateSlot(in.readDouble());
+            sequences[slot] = in.readLong();
+            types[slot] = in.readInt();
+            args0[slot] = in.readInt();
+            args1[slot] = in.readInt();
+            push(slot);
+        }
+        nextSequence = savedSequence;
+    }
+
+    // --- Slot yönetimi ---
+
+    private int allocateSlot(double time) {
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (slotHighWater == times.length) {
+                growSlots(times.length * 2);
+            }
+            slot = slotHighWater++;
+        }
+        times[slot] = time;
+        sequences[slot] = nextSequence++;
+        actions[slot] = null;
+        return slot;
+    }
+
+    private void freeSlot(int slot) {
+        actions[slot] = null;
+        heapIndexes[slot] = NOT_SCHEDULED;
+        generations[slot]++;
+        freeSlots[freeCount++] = slot;
+    }
+
+    private void growSlots(int capacity) {
+        int oldCapacity = times.length;
+        times = Arrays.copyOf(times, capacity);
+        sequences = Arrays.copyOf(sequences, capacity);
+        types = Arrays.copyOf(types, capacity);
+        args0 = Arrays.copyOf(args0, capacity);
+        args1 = Arrays.copyOf(args1, capacity);
+        actions = Arrays.copyOf(actions, capacity);
+        generations = Arrays.copyOf(generations, capacity);
+        heapIndexes = Arrays.copyOf(heapIndexes, capacity);
+        Arrays.fill(heapIndexes, oldCapacity, capacity, NOT_SCHEDULED);
+        freeSlots = Arrays.copyOf(freeSlots, capacity);
+        heap = Arrays.copyOf(heap, capacity);
+    }
+
+    private static int slotOf(long handle) {
+        return (int) handle;
+    }
+
+    private boolean isLive(long handle, int slot) {
+        return handle >= 0 && slot < slotHighWater
+                && heapIndexes[slot] != NOT_SCHEDULED
+                && generations[slot] == (int) (handle >>> 32);
+    }
+
+    // --- Yığın işlemleri ---
+
+    private long push(int slot) {
+        int index = heapSize++;
+        heap[index] = slot;
+        heapIndexes[slot] = index;
+        siftUp(index);
+        return ((long) generations[slot] << 32) | slot;
+    }
+
+    private void removeAt(int index) {
+        int last = --heapSize;
+        if (index != last) {
+            int moved = heap[last];
+            heap[index] = moved;
+            heapIndexes[moved] = index;
+            siftDown(index);
+            siftUp(heapIndexes[moved]);
+        }
+    }
+
+    private boolean less(int slotA, int slotB) {
+        if (times[slotA] != times[slotB]) {
+            return times[slotA] < times[slotB];
+        }
+        return sequences[slotA] < sequences[slotB];
+    }
+
+    private void siftUp(int index) {
+        int slot = heap[index];
+        while (index > 0) {
+            int parentIndex = (index - 1) >>> 1;
+            int parent = heap[parentIndex];
+            if (!less(slot, parent)) break;
+            heap[index] = parent;
+            heapIndexes[parent] = index;
+            index = parentIndex;
+        }
+        heap[index] = slot;
+        heapIndexes[slot] = index;
+    }
+
+    private void siftDown(int index) {
+        int slot = heap[index];
+        int half = heapSize >>> 1;
+        while (index < half) {
+            int childIndex = 2 * index + 1;
+            int child = heap[childIndex];
+            int rightIndex = childIndex + 1;
+            if (rightIndex < heapSize && less(heap[rightIndex], child)) {
+                childIndex = rightIndex;
+                child = heap[childIndex];
+            }
+            if (!less(child, slot)) break;
+            heap[index] = child;
+            heapIndexes[child] = index;
+            index = childIndex;
+        }
+        heap[index] = slot;
+        heapIndexes[slot] = index;
+    }
+}
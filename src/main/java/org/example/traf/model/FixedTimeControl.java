@@ -0,0 +1,64 @@
+package org.example.traf.model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Sabit süreli kontrol: yaklaşımlar verilen sırada döner ve her yeşil plandaki süre kadar sürer.
+ */
+public class FixedTimeControl implements SignalControlStrategy {
+    // Adım zamanları kayan nokta çarpımıyla hesaplandığından tam saniyedeki bitiş kaçmasın
+    private static final double TIME_EPSILON = 1e-9;
+
+    private final int[] phaseOrder;
+    private final int[] greenDurations;
+    private int phaseIndex;
+    private double greenStartTime;
+
+    public FixedTimeControl(int[] phaseOrder, int[] greenDurations) {
+        this.phaseOrder = phaseOrder.clone();
+        this.greenDurations = greenDurations.clone();
+    }
+
+    @Override
+    public int firstApproach() {
+        phaseIndex = 0;
+        return phaseOrder[0];
+    }
+
+    @Override
+    public void greenStarted(int approach, double time) {
+        greenStartTime = time;
+    }
+
+    @Override
+    public boolean shouldEndGreen(double now) {
+        return now - greenStartTime >= greenDurations[phaseOrder[phaseIndex]] - TIME_EPSILON;
+    }
+
+    @Override
+    public int nextApproach(double now) {
+        phaseIndex = (phaseIndex + 1) % phaseOrder.length;
+        return phaseOrder[phaseIndex];
+    }
+
+    @Override
+    public double getGreenLimit(int approach) {
+        return greenDurations[approach];
+    }
+
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        SimulationCheckpoint.writeInts(out, phaseOrder);
+        out.writeInt(phaseIndex);
+        out.writeDouble(greenStartTime);
+    }
+
+    @Override
+    public void readState(DataInput in) throws IOException {
+        SimulationCheckpoint.readInts(in, phaseOrder);
+        phaseIndex = in.readInt();
+        greenStartTime = in.readDouble();
+    }
+}
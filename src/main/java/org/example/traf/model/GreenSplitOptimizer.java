@@ -0,0 +1,261 @@
+package org.example.traf.model;
+
+import org.example.traf.util.Constants;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Verilen araç sayıları için toplam gecikmeyi en aza indiren yeşil süre planını arar. Aday planlar
+ * ekransız {@link SimulationEngine} tekrarlarıyla paralel değerlendirilir; arama, oransal dağılımdan
+ * başlayan ve adım boyunu yarılayan koordinat inişidir. Her yaklaşımın yeşil süresi ayrı ayrı
+ * değiştiğinden döngü uzunluğu da aramanın parçasıdır.
+ *
+ * <p>Araç sayıları beklenen talep olarak alınır ({@link DemandProfile#forVehicleCounts}). Tüm adaylar
+ * aynı tekrar tohumlarıyla (ortak rastgele sayılar) değerlendirilir: bir tekrarın faz sırası ve geliş
+ * zamanları her planda aynıdır, böylece planlar arasındaki fark geliş gürültüsünden değil plandan
+ * gelir. Adaylar optimize edicinin kontrol moduyla çalıştırılır. Değerlendirilen planlar örnek ömrü
+ * boyunca önbellekte tutulur.</p>
+ */
+public final class GreenSplitOptimizer {
+
+    private static final int[] STEP_SIZES = {8, 4, 2, 1};
+    private static final int MAX_SWEEPS_PER_STEP = 20;
+    private static final double MIN_IMPROVEMENT = 1e-6;
+
+    public static class Plan {
+        public final Map<String, Integer> greenDurations;
+        public final double totalDelay;
+        public final int evaluations;
+
+        public Plan(Map<String, Integer> greenDurations, double totalDelay, int evaluations) {
+            this.greenDurations = greenDurations;
+            this.totalDelay = totalDelay;
+            this.evaluations = evaluations;
+        }
+
+        /**
+         * Yeşil süreleri ve yaklaşımlar arası sarı geçişlerin toplamı (saniye).
+         */
+        public int getCycleLength() {
+            int cycle = greenDurations.size() * Constants.YELLOW_DURATION;
+            for (int green : greenDurations.values()) {
+                cycle += green;
+            }
+            return cycle;
+        }
+    }
+
+    private final ForkJoinPool pool;
+    private final int replications;
+    private final long seed;
+    private final SignalControlMode controlMode;
+    private final Map<List<Integer>, Double> cache = new ConcurrentHashMap<>();
+
+    public GreenSplitOptimizer() {
+        this(SignalControlMode.FIXED_TIME);
+    }
+
+    public GreenSplitOptimizer(SignalControlMode controlMode) {
+        this(ForkJoinPool.commonPool(), 8, 1L, controlMode);
+    }
+
+    public GreenSplitOptimizer(ForkJoinPool pool, int replications, long seed) {
+        this(pool, replications, seed, SignalControlMode.FIXED_TIME);
+    }
+
+    public GreenSplitOptimizer(ForkJoinPool pool, int replications, long seed, SignalControlMode controlMode) {
+        if (replications < 1) {
+            throw new IllegalArgumentException("Replication count must be positive: " + replications);
+        }
+        this.pool = pool;
+        this.replications = replications;
+        this.seed = seed;
+        this.controlMode = controlMode;
+    }
+
+    /**
+     * Yeşil süreyi araç sayısı oranında dağıtır ve sınırlara kırpar; aramanın başlangıç noktasıdır.
+     */
+    public static Map<String, Integer> proportionalSplit(Map<String, Integer> vehicleCounts) {
+        int totalVehicles = 0;
+        for (String direction : Constants.DIRECTIONS_TURKISH) {
+            totalVehicles += vehicleCounts.getOrDefault(direction, 0);
+        }
+        if (totalVehicles == 0) totalVehicles = 40;
+
+        int totalYellowTime = (Constants.DIRECTIONS_TURKISH.length - 1) * Constants.YELLOW_DURATION;
+        int availableGreenTime = Constants.TOTAL_SIMULATION_TIME - totalYellowTime;
+
+        Map<String, Integer> greenDurations = new LinkedHashMap<>();
+        for (String direction : Constants.DIRECTIONS_TURKISH) {
+            double ratio = (double) vehicleCounts.getOrDefault(direction, 0) / totalVehicles;
+            int greenTime = (int) Math.round(ratio * availableGreenTime);
+            greenTime = Math.max(Constants.MIN_GREEN_DURATION, Math.min(Constants.MAX_GREEN_DURATION, greenTime));
+            greenDurations.put(direction, greenTime);
+        }
+        return greenDurations;
+    }
+
+    public Plan optimize(Map<String, Integer> vehicleCounts) {
+        int approachCount = Constants.DIRECTIONS_TURKISH.length;
+        int[] counts = new int[approachCount];
+        int[] current = new int[approachCount];
+        Map<String, Integer> initial = proportionalSplit(vehicleCounts);
+        for (int approach = 0; approach < approachCount; approach++) {
+            String direction = Constants.DIRECTIONS_TURKISH[approach];
+            counts[approach] = vehicleCounts.getOrDefault(direction, 0);
+            current[approach] = initial.get(direction);
+        }
+
+        int evaluations = 0;
+        double[] currentDelay = new double[1];
+        evaluations += evaluate(counts, List.of(current), currentDelay);
+
+        for (int step : STEP_SIZES) {
+            for (int sweep = 0; sweep < MAX_SWEEPS_PER_STEP; sweep++) {
+                List<int[]> candidates = neighbours(current, step);
+                double[] delays = new double[candidates.size()];
+                evaluations += evaluate(counts, candidates, delays);
+
+                int best = -1;
+                for (int i = 0; i < delays.length; i++) {
+                    if (delays[i] < currentDelay[0] - MIN_IMPROVEMENT && (best < 0 || delays[i] < delays[best])) {
+                        best = i;
+                    }
+                }
+                if (best < 0) break;
+                current = candidates.get(best);
+                currentDelay[0] = delays[best];
+            }
+        }
+
+        return new Plan(toMap(current), currentDelay[0], evaluations);
+    }
+
+    /**
+     * Her yaklaşımın yeşil süresini {@code step} kadar artıran ve azaltan, sınırlar içindeki planlar.
+     */
+    private static List<int[]> neighbours(int[] plan, int step) {
+        List<int[]> candidates = new ArrayList<>(plan.length * 2);
+        for (int approach = 0; approach < plan.length; approach++) {
+            for (int direction = -1; direction <= 1; direction += 2) {
+                int green = plan[approach] + direction * step;
+                if (green < Constants.MIN_GREEN_DURATION || green > Constants.MAX_GREEN_DURATION) continue;
+                int[] candidate = plan.clone();
+                candidate[approach] = green;
+                candidates.add(candidate);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Önbellekte olmayan planları tüm tekrarlarıyla paralel çalıştırır ve ortalama toplam gecikmeleri
+     * {@code delays} dizisine yazar. Yeni yapılan değerlendirme sayısını döndürür.
+     */
+    private int evaluate(int[] counts, List<int[]> plans, double[] delays) {
+        List<List<Integer>> keys = new ArrayList<>(plans.size());
+        List<Integer> pending = new ArrayList<>();
+        for (int i = 0; i < plans.size(); i++) {
+            List<Integer> key = cacheKey(counts, plans.get(i));
+            keys.add(key);
+            Double cached = cache.get(key);
+            if (cached != null) {
+                delays[i] = cached;
+            } else {
+                pending.add(i);
+            }
+        }
+        if (pending.isEmpty()) return 0;
+
+        double[] samples = new double[pending.size() * replications];
+        int[][] pendingPlans = new int[pending.size()][];
+        for (int i = 0; i < pendingPlans.length; i++) {
+            pendingPlans[i] = plans.get(pending.get(i));
+        }
+        DemandProfile demand = DemandProfile.forVehicleCounts(toMap(counts), Constants.TOTAL_SIMULATION_TIME);
+        pool.invoke(new EvaluationTask(demand, pendingPlans, samples, 0, samples.length));
+
+        for (int i = 0; i < pendingPlans.length; i++) {
+            double sum = 0;
+            for (int r = 0; r < replications; r++) {
+                sum += samples[i * replications + r];
+            }
+            int index = pending.get(i);
+            delays[index] = sum / replications;
+            cache.put(keys.get(index), delays[index]);
+        }
+        return pendingPlans.length;
+    }
+
+    private static List<Integer> cacheKey(int[] counts, int[] plan) {
+        List<Integer> key = new ArrayList<>(counts.length + plan.length);
+        for (int count : counts) key.add(count);
+        for (int green : plan) key.add(green);
+        return List.copyOf(key);
+    }
+
+    private static Map<String, Integer> toMap(int[] values) {
+        Map<String, Integer> map = new LinkedHashMap<>();
+        for (int approach = 0; approach < values.length; approach++) {
+            map.put(Constants.DIRECTIONS_TURKISH[approach], values[approach]);
+        }
+        return map;
+    }
+
+    public SignalControlMode getControlMode() {
+        return controlMode;
+    }
+
+    public int getCacheSize() {
+        return cache.size();
+    }
+
+    /**
+     * Düzleştirilmiş (plan x tekrar) aralığını bölerek çalıştırır; örnek {@code i}, plan
+     * {@code i / replications} ve tekrar {@code i % replications} demektir.
+     */
+    private final class EvaluationTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient DemandProfile demand;
+        private final int[][] plans;
+        private final double[] samples;
+        private final int from;
+        private final int to;
+
+        EvaluationTask(DemandProfile demand, int[][] plans, double[] samples, int from, int to) {
+            this.demand = demand;
+            this.plans = plans;
+            this.samples = samples;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 2) {
+                for (int i = from; i < to; i++) {
+                    samples[i] = simulate(plans[i / replications], BatchRunner.replicationSeed(seed, i % replications));
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new EvaluationTask(demand, plans, samples, from, middle),
+                    new EvaluationTask(demand, plans, samples, middle, to));
+        }
+
+        private double simulate(int[] plan, long replicationSeed) {
+            SimulationEngine engine = new SimulationEngine(toMap(plan), demand, new RandomStreams(replicationSeed),
+                    controlMode);
+            engine.runToCompletion();
+            return engine.getCumulativeDelay();
+        }
+    }
+}
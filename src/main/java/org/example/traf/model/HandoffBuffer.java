@@ -0,0 +1,71 @@
+package org.example.traf.model;
+
+import java.util.Arrays;
+
+/**
+ * İki bölge arasındaki sınırı geçmek isteyen araçlar için tek yönlü aktarım tamponu. Kaynak bölge
+ * adımında aracı teklif eder, hedef bölge kabul ya da ret yazar, kaynak bölge sonucu uygular; bu üç
+ * aşama arasında engel (barrier) olduğundan tampon kilitsizdir.
+ *
+ * <p>Teklifler kaynak şerit indeksine göre artan sıradadır; hedef bölge birden çok tamponu bu
+ * indeksle birleştirerek bölümlemeden bağımsız bir sıra elde eder.</p>
+ */
+final class HandoffBuffer {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    final int sourceRegion;
+    final int targetRegion;
+
+    int size;
+    int[] sourceLanes = new int[DEFAULT_CAPACITY];
+    int[] sourceSlots = new int[DEFAULT_CAPACITY];
+    int[] targetLinks = new int[DEFAULT_CAPACITY];
+    int[] vehicleIds = new int[DEFAULT_CAPACITY];
+    double[] distances = new double[DEFAULT_CAPACITY];
+    double[] speeds = new double[DEFAULT_CAPACITY];
+    double[] entryTimes = new double[DEFAULT_CAPACITY];
+    double[] freeFlowTimes = new double[DEFAULT_CAPACITY];
+    boolean[] accepted = new boolean[DEFAULT_CAPACITY];
+
+    HandoffBuffer(int sourceRegion, int targetRegion) {
+        this.sourceRegion = sourceRegion;
+        this.targetRegion = targetRegion;
+    }
+
+    /**
+     * @param distance aracın hedef bağlantının başından itibaren konumu (taşma payı)
+     */
+    void offer(int sourceLane, int sourceSlot, int targetLink, int vehicleId, double distance, double speed,
+               double entryTime, double freeFlowTime) {
+        if (size == sourceLanes.length) {
+            grow(size * 2);
+        }
+        sourceLanes[size] = sourceLane;
+        sourceSlots[size] = sourceSlot;
+        targetLinks[size] = targetLink;
+        vehicleIds[size] = vehicleId;
+        distances[size] = distance;
+        speeds[size] = speed;
+        entryTimes[size] = entryTime;
+        freeFlowTimes[size] = freeFlowTime;
+        accepted[size] = false;
+        size++;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    private void grow(int capacity) {
+        sourceLanes = Arrays.copyOf(sourceLanes, capacity);
+        sourceSlots = Arrays.copyOf(sourceSlots, capacity);
+        targetLinks = Arrays.copyOf(targetLinks, capacity);
+        vehicleIds = Arrays.copyOf(vehicleIds, capacity);
+        distances = Arrays.copyOf(distances, capacity);
+        speeds = Arrays.copyOf(speeds, capacity);
+        entryTimes = Arrays.copyOf(entryTimes, capacity);
+        freeFlowTimes = Arrays.copyOf(freeFlowTimes, capacity);
+        accepted = Arrays.copyOf(accepted, capacity);
+    }
+}
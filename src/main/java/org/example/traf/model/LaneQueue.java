@@ -0,0 +1,117 @@
+package org.example.traf.model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.NoSuchElementException;
+
+/**
+ * Bir şeritteki araç slot kimlikleri için ilkel {@code int} halka tampon (FIFO). Ekleme ve
+ * baştan çıkarma O(1)'dir; kapasite ikinin kuvveti tutulur ve yalnızca dolunca iki katına çıkar.
+ *
+ * <p>{@link #get(int)} baştan itibaren sıra indeksiyle erişir; yalnızca sona ekleme yapılan bir
+ * tarama sırasında indeksler kaymaz, bu yüzden kuyruk kopyalanmadan dolaşılabilir.</p>
+ */
+public final class LaneQueue {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] elements;
+    private int mask;
+    private int head;
+    private int size;
+
+    public LaneQueue() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LaneQueue(int initialCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, initialCapacity - 1)) << 1;
+        elements = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    public void addLast(int value) {
+        if (size == elements.length) {
+            grow();
+        }
+        elements[(head + size) & mask] = value;
+        size++;
+    }
+
+    public int removeFirst() {
+        if (size == 0) {
+            throw new NoSuchElementException("Lane queue is empty");
+        }
+        int value = elements[head];
+        head = (head + 1) & mask;
+        size--;
+        return value;
+    }
+
+    public int peekFirst() {
+        if (size == 0) {
+            throw new NoSuchElementException("Lane queue is empty");
+        }
+        return elements[head];
+    }
+
+    public int peekLast() {
+        if (size == 0) {
+            throw new NoSuchElementException("Lane queue is empty");
+        }
+        return elements[(head + size - 1) & mask];
+    }
+
+    /**
+     * Baştan {@code index} sıradaki eleman; 0 kuyruğun başıdır.
+     */
+    public int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return elements[(head + index) & mask];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int capacity() {
+        return elements.length;
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    void writeState(DataOutput out) throws IOException {
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeInt(elements[(head + i) & mask]);
+        }
+    }
+
+    void readState(DataInput in) throws IOException {
+        clear();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            addLast(in.readInt());
+        }
+    }
+
+    private void grow() {
+        int[] grown = new int[elements.length * 2];
+        int firstPart = Math.min(size, elements.length - head);
+        System.arraycopy(elements, head, grown, 0, firstPart);
+        System.arraycopy(elements, 0, grown, firstPart, size - firstPart);
+        elements = grown;
+        mask = grown.length - 1;
+        head = 0;
+    }
+}
@@ -0,0 +1,180 @@
+package org.example.traf.model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Sabit bellekli, HDR tarzı logaritmik kovalı histogram. {@value #SUB_BUCKET_COUNT} değerin altı
+ * birebir sayılır; her ikinin kuvveti aralığı {@value #SUB_BUCKET_HALF} eşit alt kovaya bölünür.
+ * Böylece yüzdelik değerlerin göreli hatası %1,6'nın altında kalır ve kova sayısı yalnızca
+ * izlenebilen en büyük değere bağlıdır; kayıt sayısı ne olursa olsun bellek sabittir.
+ *
+ * <p>{@link #record(long)} yalnızca aritmetik ve dizi yazımıdır, nesne ayırmaz. Sınırı aşan
+ * değerler son kovada sayılır; en büyük değer ayrıca tam tutulur.</p>
+ */
+public final class LogHistogram {
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT >> 1;
+
+    private final long highestTrackableValue;
+    private final long[] counts;
+    private long totalCount;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    public LogHistogram(long highestTrackableValue) {
+        if (highestTrackableValue < SUB_BUCKET_COUNT) {
+            throw new IllegalArgumentException("Highest trackable value must be at least " + SUB_BUCKET_COUNT
+                    + ": " + highestTrackableValue);
+        }
+        this.highestTrackableValue = highestTrackableValue;
+        this.counts = new long[indexOf(highestTrackableValue) + 1];
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int shift = magnitude - (SUB_BUCKET_BITS - 1);
+        return SUB_BUCKET_COUNT + (magnitude - SUB_BUCKET_BITS) * SUB_BUCKET_HALF
+                + (int) (value >>> shift) - SUB_BUCKET_HALF;
+    }
+
+    static long lowestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int offset = index - SUB_BUCKET_COUNT;
+        int shift = offset / SUB_BUCKET_HALF + 1;
+        return (long) (SUB_BUCKET_HALF + offset % SUB_BUCKET_HALF) << shift;
+    }
+
+    static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF + 1;
+        return lowestEquivalentValue(index) + (1L << shift) - 1;
+    }
+
+    public void record(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Histogram values must be non-negative: " + value);
+        }
+        counts[Math.min(indexOf(value), counts.length - 1)]++;
+        totalCount++;
+        sum += value;
+        if (value < min) min = value;
+        if (value > max) max = value;
+    }
+
+    /**
+     * Kayıtların en az {@code percentile} yüzdesinin eşit ya da altında kaldığı değer; kovanın en
+     * büyük eşdeğer değeri olarak, gözlenen en küçük ve en büyük değerle sınırlı döner.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (totalCount == 0) return 0;
+        double clamped = Math.max(0, Math.min(100, percentile));
+        long target = Math.max(1, (long) Math.ceil(clamped / 100.0 * totalCount));
+        long cumulative = 0;
+        for (int index = 0; index < counts.length; index++) {
+            cumulative += counts[index];
+            if (cumulative >= target) {
+                return Math.max(min, Math.min(max, highestEquivalentValue(index)));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Aynı sınırla kurulmuş başka bir histogramın kayıtlarını ekler.
+     */
+    public void add(LogHistogram other) {
+        if (other.counts.length != counts.length) {
+            throw new IllegalArgumentException("Histograms have different ranges: "
+                    + other.highestTrackableValue + " vs " + highestTrackableValue);
+        }
+        for (int index = 0; index < counts.length; index++) {
+            counts[index] += other.counts[index];
+        }
+        totalCount += other.totalCount;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        sum = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+    }
+
+    /**
+     * Kayıtları yazar; yalnızca boş olmayan kovalar (indeks, sayı) çifti olarak yazılır.
+     */
+    void writeState(DataOutput out) throws IOException {
+        out.writeInt(counts.length);
+        out.writeLong(totalCount);
+        out.writeLong(sum);
+        out.writeLong(min);
+        out.writeLong(max);
+        int used = 0;
+        for (long count : counts) {
+            if (count != 0) used++;
+        }
+        out.writeInt(used);
+        for (int index = 0; index < counts.length; index++) {
+            if (counts[index] == 0) continue;
+            out.writeInt(index);
+            out.writeLong(counts[index]);
+        }
+    }
+
+    void readState(DataInput in) throws IOException {
+        int bucketCount = in.readInt();
+        if (bucketCount != counts.length) {
+            throw new IOException("Histogram has " + bucketCount + " buckets, expected " + counts.length);
+        }
+        Arrays.fill(counts, 0);
+        totalCount = in.readLong();
+        sum = in.readLong();
+        min = in.readLong();
+        max = in.readLong();
+        int used = in.readInt();
+        for (int i = 0; i < used; i++) {
+            counts[in.readInt()] = in.readLong();
+        }
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public double getMean() {
+        return totalCount == 0 ? 0 : (double) sum / totalCount;
+    }
+
+    public long getMin() {
+        return totalCount == 0 ? 0 : min;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public long getHighestTrackableValue() {
+        return highestTrackableValue;
+    }
+
+    public int getBucketCount() {
+        return counts.length;
+    }
+}
@@ -0,0 +1,187 @@
+package org.example.traf.model;
+
+import org.example.traf.util.Constants;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Bir yaklaşımın ışığa giden rotasına yerleştirilmiş sanal döngü dedektörü. Algılama alanı durma
+ * çizgisinin {@link Constants#DETECTOR_LENGTH} gerisinden başlar ve çizgide bekleyen ilk aracı da
+ * kapsar. Araçlar rota üzerindeki eski ve yeni konumlarını bildirir; dedektör alandaki araç sayısını,
+ * algılama sayısını ve dolu geçen süreyi tutar.
+ *
+ * <p>Bir adımda alanın tamamını atlayan araç da algılanır (giriş ve çıkış aynı anda bildirilir).
+ * Geriye doğru konum değişiklikleri yalnızca alandan çıkış olarak değerlendirilir; böylece durdurulup
+ * sıfırlanan bir animasyon sahte algılama üretmez.</p>
+ */
+public class LoopDetector {
+    private final int approach;
+    private final double zoneStart;
+    private final double zoneEnd;
+    private final List<DetectorListener> listeners = new CopyOnWriteArrayList<>();
+
+    private int occupantCount;
+    private int detectionCount;
+    private double occupiedSince;
+    private double occupiedTime;
+    private double lastVacatedTime = Double.NEGATIVE_INFINITY;
+
+    public LoopDetector(int approach, double zoneStart, double zoneEnd) {
+        if (zoneEnd <= zoneStart) {
+            throw new IllegalArgumentException("Detector zone must have positive length: " + zoneStart + ".." + zoneEnd);
+        }
+        this.approach = approach;
+        this.zoneStart = zoneStart;
+        this.zoneEnd = zoneEnd;
+    }
+
+    /**
+     * Yaklaşımın durma çizgisine göre konumlanmış dedektör.
+     */
+    public static LoopDetector forApproach(int approach) {
+        double stopLine = PathService.stopLineOf(approach);
+        return new LoopDetector(approach, Math.max(0, stopLine - Constants.DETECTOR_LENGTH),
+                stopLine + Constants.CAR_LENGTH / 2);
+    }
+
+    public static LoopDetector[] forAllApproaches() {
+        LoopDetector[] detectors = new LoopDetector[PathService.APPROACH_COUNT];
+        for (int approach = 0; approach < detectors.length; approach++) {
+            detectors[approach] = forApproach(approach);
+        }
+        return detectors;
+    }
+
+    public void addListener(DetectorListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(DetectorListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Aracın ışığa giden rotadaki uzaklığı {@code from} değerinden {@code to} değerine değişti.
+     */
+    public void vehicleMoved(double from, double to, double time) {
+        boolean wasInside = contains(from);
+        boolean isInside = contains(to);
+        if (wasInside == isInside) {
+            if (!wasInside && from < zoneStart && to >= zoneEnd) {
+                enter(time);
+                leave(time);
+            }
+            return;
+        }
+        if (isInside) {
+            if (to > from) {
+                enter(time);
+            }
+        } else {
+            leave(time);
+        }
+    }
+
+    private boolean contains(double distance) {
+        return distance >= zoneStart && distance < zoneEnd;
+    }
+
+    private void enter(double time) {
+        detectionCount++;
+        if (occupantCount++ == 0) {
+            occupiedSince = time;
+            for (DetectorListener listener : listeners) {
+                listener.onPresenceChanged(this, true, time);
+            }
+        }
+        for (DetectorListener listener : listeners) {
+            listener.onVehicleDetected(this, time);
+        }
+    }
+
+    private void leave(double time) {
+        if (occupantCount == 0) return;
+        if (--occupantCount == 0) {
+            occupiedTime += time - occupiedSince;
+            lastVacatedTime = time;
+            for (DetectorListener listener : listeners) {
+                listener.onPresenceChanged(this, false, time);
+            }
+        }
+    }
+
+    /**
+     * Alan boşken son araç çıkışından bu yana geçen süre; alan doluysa 0.
+     */
+    public double getGapTime(double now) {
+        return occupantCount > 0 ? 0 : now - lastVacatedTime;
+    }
+
+    /**
+     * {@code now} anına kadar alanın dolu geçtiği sürenin oranı (0-1).
+     */
+    public double getOccupancy(double now) {
+        if (now <= 0) return 0;
+        double occupied = occupiedTime + (occupantCount > 0 ? now - occupiedSince : 0);
+        return Math.min(1.0, occupied / now);
+    }
+
+    public void reset() {
+        occupantCount = 0;
+        detectionCount = 0;
+        occupiedSince = 0;
+        occupiedTime = 0;
+        lastVacatedTime = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Sayaçları yazar; dinleyiciler durumun parçası değildir.
+     */
+    void writeState(DataOutput out) throws IOException {
+        out.writeInt(occupantCount);
+        out.writeInt(detectionCount);
+        out.writeDouble(occupiedSince);
+        out.writeDouble(occupiedTime);
+        out.writeDouble(lastVacatedTime);
+    }
+
+    void readState(DataInput in) throws IOException {
+        occupantCount = in.readInt();
+        detectionCount = in.readInt();
+        occupiedSince = in.readDouble();
+        occupiedTime = in.readDouble();
+        lastVacatedTime = in.readDouble();
+    }
+
+    public int getApproach() {
+        return approach;
+    }
+
+    public boolean isOccupied() {
+        return occupantCount > 0;
+    }
+
+    public int getOccupantCount() {
+        return occupantCount;
+    }
+
+    public int getDetectionCount() {
+        return detectionCount;
+    }
+
+    public double getLastVacatedTime() {
+        return lastVacatedTime;
+    }
+
+    public double getZoneStart() {
+        return zoneStart;
+    }
+
+    public double getZoneEnd() {
+        return zoneEnd;
+    }
+}
@@ -0,0 +1,124 @@
+package org.example.traf.model;
+
+import org.example.traf.util.Constants;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Max-pressure kontrolü: bir fazın baskısı, yaklaşımdaki araç sayısı ile aynı yaklaşımın çıkış
+ * rotalarındaki araç sayısının farkıdır. Minimum yeşilden sonra her adımda, başka bir fazın baskısı
+ * mevcut fazınkini aşarsa yeşil biter ve en yüksek baskılı faz seçilir. Yeşil en fazla
+ * {@link Constants#MAX_GREEN_DURATION} sürer; bekleyen araç yoksa mevcut fazda kalınır.
+ *
+ * <p>Karar yalnızca {@link ApproachCounters} sayaçlarını okur; kavşak başına maliyeti faz sayısıyla
+ * sınırlıdır ve araç sayısından bağımsızdır. Eşit baskıda faz sırasında mevcut fazdan sonra gelen
+ * seçilir.</p>
+ */
+public class MaxPressureControl implements SignalControlStrategy {
+    private static final int NO_APPROACH = -1;
+
+    private final ApproachCounters counters;
+    private final int[] phaseOrder;
+    private final int[] orderIndex;
+    private int greenApproach = NO_APPROACH;
+    private int lastGreenApproach;
+    private double greenStartTime;
+
+    public MaxPressureControl(ApproachCounters counters, int[] phaseOrder) {
+        this.counters = counters;
+        this.phaseOrder = phaseOrder.clone();
+        this.orderIndex = new int[phaseOrder.length];
+        for (int i = 0; i < phaseOrder.length; i++) {
+            orderIndex[phaseOrder[i]] = i;
+        }
+        this.lastGreenApproach = phaseOrder[0];
+    }
+
+    @Override
+    public int firstApproach() {
+        return phaseOrder[0];
+    }
+
+    @Override
+    public void greenStarted(int approach, double time) {
+        greenApproach = approach;
+        lastGreenApproach = approach;
+        greenStartTime = time;
+    }
+
+    @Override
+    public boolean shouldEndGreen(double now) {
+        if (greenApproach == NO_APPROACH) return false;
+        double elapsed = now - greenStartTime;
+        if (elapsed < Constants.MIN_GREEN_DURATION) return false;
+
+        int best = strongestOther(greenApproach);
+        if (best == NO_APPROACH) return false;
+        return elapsed >= Constants.MAX_GREEN_DURATION || pressure(best) > pressure(greenApproach);
+    }
+
+    @Override
+    public int nextApproach(double now) {
+        greenApproach = NO_APPROACH;
+        int best = strongestOther(lastGreenApproach);
+        if (best != NO_APPROACH) {
+            return best;
+        }
+        return phaseOrder[(orderIndex[lastGreenApproach] + 1) % phaseOrder.length];
+    }
+
+    @Override
+    public double getGreenLimit(int approach) {
+        return Constants.MAX_GREEN_DURATION;
+    }
+
+    @Override
+    public void reset() {
+        greenApproach = NO_APPROACH;
+        lastGreenApproach = phaseOrder[0];
+    }
+
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        SimulationCheckpoint.writeInts(out, phaseOrder);
+        out.writeInt(greenApproach);
+        out.writeInt(lastGreenApproach);
+        out.writeDouble(greenStartTime);
+    }
+
+    @Override
+    public void readState(DataInput in) throws IOException {
+        SimulationCheckpoint.readInts(in, phaseOrder);
+        for (int i = 0; i < phaseOrder.length; i++) {
+            orderIndex[phaseOrder[i]] = i;
+        }
+        greenApproach = in.readInt();
+        lastGreenApproach = in.readInt();
+        greenStartTime = in.readDouble();
+    }
+
+    public int pressure(int approach) {
+        return counters.getUpstreamCount(approach) - counters.getDownstreamCount(approach);
+    }
+
+    /**
+     * {@code excluded} dışında, yaklaşımında araç olan en yüksek baskılı faz; yoksa {@code NO_APPROACH}.
+     */
+    private int strongestOther(int excluded) {
+        int best = NO_APPROACH;
+        int bestPressure = Integer.MIN_VALUE;
+        int start = orderIndex[excluded];
+        for (int offset = 1; offset < phaseOrder.length; offset++) {
+            int approach = phaseOrder[(start + offset) % phaseOrder.length];
+            if (counters.getUpstreamCount(approach) == 0) continue;
+            int candidate = pressure(approach);
+            if (candidate > bestPressure) {
+                best = approach;
+                bestPressure = candidate;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,881 @@
+package org.example.traf.model;
+
+import org.example.traf.util.Constants;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * {@link RoadNetwork} üzerinde çok kavşaklı, ekransız ve sabit adımlı simülasyon motoru. Araçlar
+ * giriş bağlantılarında doğar, her kavşakta dönüş oranlarına göre sıradaki bağlantıyı seçer ve
+ * kapıya giden bir bağlantının sonunda ağdan ayrılır.
+ *
+ * <p>Ağ {@link NetworkPartition} ile kavşak kümelerinden oluşan bölgelere ayrılır. Her bölge kendi
+ * kavşaklarının ışıklarını, gelen bağlantılarının şeritlerini ve bu şeritlerdeki araçları düz
+ * dizilerde tutar; bir adım engellerle ayrılmış üç aşamada tüm bölgelerde paralel yürür:</p>
+ * <ol>
+ *     <li>ışıklar güncellenir, şeritler adım başı arka araç özetine göre ilerletilir ve bağlantı
+ *     sonunu geçen öndeki araç hedef bölgeye giden {@link HandoffBuffer}'a teklif edilir;</li>
+ *     <li>her bölge gelen teklifleri kaynak şerit sırasıyla kabul eder ya da yer yoksa reddeder;</li>
+ *     <li>kaynak bölgeler sonucu uygular (kabul edilen araç çıkar, reddedilen kavşakta bekler), yeni
+ *     araçlar doğar ve sonraki adımın arka araç özeti alınır.</li>
+ * </ol>
+ *
+ * <p>Bir aşamada bölgeler yalnızca kendi durumlarını yazar; başka bölgelerden yalnızca önceki
+ * aşamada sabitlenmiş değerleri (arka araç özeti, bağlantı araç sayıları, teklifler) okur. Dönüş
+ * seçimi bağlantı başına rastgele akışla yapılır ve gecikme tam sayı mikrosaniyede toplanır;
+ * böylece sonuçlar iş parçacığı sayısından ve bölge sayısından bağımsızdır.</p>
+ *
+ * <p>Işık kontrolü {@link SignalControlMode} ile seçilir ve kavşak başına nesne yerine aynı
+ * dizilerle yürütülür: sabit sürede her faz {@code greenDuration} saniye sürer, uyarmalı kontrolde
+ * bu süre max-out olur, max-pressure ise bağlantı sayaçlarını kullanır.</p>
+ */
+public class NetworkEngine {
+
+    private static final double TIME_EPSILON = 1e-9;
+    private static final int NO_LINK = -1;
+    private static final double STOPPED_SPEED = 1.0;
+    private static final int DEFAULT_VEHICLE_CAPACITY = 256;
+    private static final double MICROS_PER_SECOND = 1e6;
+
+    private static final int PHASE_MOVE = 0;
+    private static final int PHASE_ACCEPT = 1;
+    private static final int PHASE_SETTLE = 2;
+
+    private final RoadNetwork network;
+    private final NetworkPartition partition;
+    private final ForkJoinPool pool;
+    private final SignalControlMode controlMode;
+    private final int greenDuration;
+    private final double entryHeadway;
+    private final CarFollowingModel carFollowing = CarFollowingModel.defaults();
+
+    // --- Kavşak durumu (düğüm indeksiyle; kapılarda kullanılmaz) ---
+    private final int[] nodePhases;
+    private final SignalState[] nodeStates;
+    private final double[] nodePhaseStart;
+
+    // --- Bağlantı durumu; her eleman bağlantının bölgesince yazılır ---
+    private final int[] linkVehicleCounts;
+    private final double[] linkLastPresence;
+    private final boolean[] linkCalls;
+    private final Random[] linkRandoms;
+
+    // --- Şerit durumu: öndeki araçtan arkadakine bölge slot kuyrukları ve adım başı arka araç özeti ---
+    private final int[] laneLinks;
+    private final LaneQueue[] lanes;
+    private final double[] laneRearDistances;
+    private final double[] laneRearSpeeds;
+
+    private final double[] nextEntryTimes;
+    private final int[] entrySequences;
+
+    private final Region[] regions;
+    private final double[] positionBuffer = new double[3];
+
+    private double simulationTime;
+    private long tickCount;
+
+    /**
+     * Tüm ağı tek bölgede, çağıran iş parçacığında çalıştırır.
+     *
+     * @param greenDuration sabit sürede yeşil süre, uyarmalı kontrolde max-out (saniye)
+     * @param entryHeadway  her giriş bağlantısında ardışık araçlar arasındaki süre (saniye)
+     */
+    public NetworkEngine(RoadNetwork network, SignalControlMode controlMode, int greenDuration,
+                         double entryHeadway, Random random) {
+        this(network, controlMode, greenDuration, entryHeadway, random, NetworkPartition.single(network), null);
+    }
+
+    /**
+     * @param partition bölgeler; sonuçları değiştirmez, yalnızca paralel iş bölüşümünü belirler
+     * @param pool      bölgelerin adımlandığı havuz; {@code null} ise çağıran iş parçacığı
+     */
+    public NetworkEngine(RoadNetwork network, SignalControlMode controlMode, int greenDuration,
+                         double entryHeadway, Random random, NetworkPartition partition, ForkJoinPool pool) {
+        if (entryHeadway <= 0) {
+            throw new IllegalArgumentException("Entry headway must be positive: " + entryHeadway);
+        }
+        this.network = network;
+        this.partition = partition;
+        this.pool = pool;
+        this.controlMode = controlMode;
+        this.greenDuration = Math.max(Constants.MIN_GREEN_DURATION, greenDuration);
+        this.entryHeadway = entryHeadway;
+
+        int nodeCount = network.getNodeCount();
+        nodePhases = new int[nodeCount];
+        nodeStates = new SignalState[nodeCount];
+        nodePhaseStart = new double[nodeCount];
+        for (int node = 0; node < nodeCount; node++) {
+            if (!network.isSignalized(node)) continue;
+            // Kavşaklar rastgele fazla başlar; aynı tohum aynı başlangıcı verir
+            nodePhases[node] = random.nextInt(network.getIncomingCount(node));
+            nodeStates[node] = SignalState.GREEN;
+        }
+
+        int linkCount = network.getLinkCount();
+        linkVehicleCounts = new int[linkCount];
+        linkLastPresence = new double[linkCount];
+        linkCalls = new boolean[linkCount];
+        linkRandoms = new Random[linkCount];
+        Arrays.fill(linkLastPresence, Double.NEGATIVE_INFINITY);
+        for (int link = 0; link < linkCount; link++) {
+            linkRandoms[link] = new Random(random.nextLong());
+        }
+
+        int laneCount = network.getLaneCount();
+        laneLinks = new int[laneCount];
+        lanes = new LaneQueue[laneCount];
+        laneRearDistances = new double[laneCount];
+        laneRearSpeeds = new double[laneCount];
+        Arrays.fill(laneRearDistances, Double.POSITIVE_INFINITY);
+        for (int link = 0; link < linkCount; link++) {
+            for (int lane = 0; lane < network.getLaneCount(link); lane++) {
+                laneLinks[network.getFirstLane(link) + lane] = link;
+            }
+        }
+        for (int lane = 0; lane < laneCount; lane++) {
+            lanes[lane] = new LaneQueue();
+        }
+
+        nextEntryTimes = new double[network.getEntryLinkCount()];
+        entrySequences = new int[nextEntryTimes.length];
+        for (int entry = 0; entry < nextEntryTimes.length; entry++) {
+            nextEntryTimes[entry] = random.nextDouble() * entryHeadway;
+        }
+
+        regions = createRegions();
+    }
+
+    private Region[] createRegions() {
+        int regionCount = partition.getRegionCount();
+        List<List<Integer>> nodes = new ArrayList<>();
+        List<List<Integer>> ownedLanes = new ArrayList<>();
+        List<List<Integer>> entries = new ArrayList<>();
+        for (int region = 0; region < regionCount; region++) {
+            nodes.add(new ArrayList<>());
+            ownedLanes.add(new ArrayList<>());
+            entries.add(new ArrayList<>());
+        }
+        for (int node = 0; node < network.getNodeCount(); node++) {
+            if (network.isSignalized(node)) {
+                nodes.get(partition.getNodeRegion(node)).add(node);
+            }
+        }
+        for (int lane = 0; lane < lanes.length; lane++) {
+            ownedLanes.get(partition.getLinkRegion(laneLinks[lane])).add(lane);
+        }
+        for (int entry = 0; entry < nextEntryTimes.length; entry++) {
+            entries.get(partition.getLinkRegion(network.getEntryLink(entry))).add(entry);
+        }
+
+        // Sınır tamponları: bir bölgenin bağlantısından başka (ya da aynı) bölgenin bağlantısına dönüş varsa
+        HandoffBuffer[][] buffers = new HandoffBuffer[regionCount][regionCount];
+        for (int link = 0; link < network.getLinkCount(); link++) {
+            int source = partition.getLinkRegion(link);
+            for (int turn = 0; turn < network.getTurnCount(link); turn++) {
+                int target = partition.getLinkRegion(network.getTurnTarget(link, turn));
+                if (buffers[source][target] == null) {
+                    buffers[source][target] = new HandoffBuffer(source, target);
+                }
+            }
+        }
+
+        Region[] result = new Region[regionCount];
+        for (int region = 0; region < regionCount; region++) {
+            List<HandoffBuffer> incoming = new ArrayList<>();
+            for (int source = 0; source < regionCount; source++) {
+                if (buffers[source][region] != null) {
+                    incoming.add(buffers[source][region]);
+                }
+            }
+            result[region] = new Region(toArray(nodes.get(region)), toArray(ownedLanes.get(region)),
+                    toArray(entries.get(region)), buffers[region], incoming.toArray(new HandoffBuffer[0]));
+        }
+        return result;
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    public void runFor(double seconds) {
+        long steps = Math.round(seconds / Constants.SIMULATION_STEP);
+        if (pool == null || regions.length == 1) {
+            for (long i = 0; i < steps; i++) {
+                step();
+            }
+        } else {
+            pool.invoke(new RunTask(steps));
+        }
+    }
+
+    public void step() {
+        if (pool == null || regions.length == 1) {
+            SimulationEvents.SimulationStep event = new SimulationEvents.SimulationStep();
+            event.begin();
+            beginTick();
+            for (int phase = PHASE_MOVE; phase <= PHASE_SETTLE; phase++) {
+                for (Region region : regions) {
+                    region.run(phase);
+                }
+            }
+            commitStepEvent(event);
+        } else {
+            pool.invoke(new RunTask(1));
+        }
+    }
+
+    private void beginTick() {
+        tickCount++;
+        simulationTime = tickCount * Constants.SIMULATION_STEP;
+    }
+
+    private void commitStepEvent(SimulationEvents.SimulationStep event) {
+        if (event.shouldCommit()) {
+            event.tick = tickCount;
+            event.activeVehicles = getActiveVehicleCount();
+            event.simulationTime = simulationTime;
+            event.commit();
+        }
+    }
+
+    /**
+     * Adımları havuz içinde sürer; her aşama tüm bölgeler bitince (fork-join birleşmesi engeldir)
+     * sona erer.
+     */
+    private final class RunTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final long steps;
+
+        RunTask(long steps) {
+            this.steps = steps;
+        }
+
+        @Override
+        protected void compute() {
+            for (long i = 0; i < steps; i++) {
+                SimulationEvents.SimulationStep event = new SimulationEvents.SimulationStep();
+                event.begin();
+                beginTick();
+                for (int phase = PHASE_MOVE; phase <= PHASE_SETTLE; phase++) {
+                    new PhaseTask(phase, 0, regions.length).invoke();
+                }
+                commitStepEvent(event);
+            }
+        }
+    }
+
+    private final class PhaseTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int phase;
+        private final int from;
+        private final int to;
+
+        PhaseTask(int phase, int from, int to) {
+            this.phase = phase;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                regions[from].run(phase);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new PhaseTask(phase, from, middle), new PhaseTask(phase, middle, to));
+        }
+    }
+
+    /**
+     * Bir bölgenin kavşakları, şeritleri, giriş kapıları ve araçları. Araç slotları bölgeye özeldir;
+     * sınırı geçen araç hedef bölgede yeni bir slota kopyalanır.
+     */
+    private final class Region {
+        private final int[] nodes;
+        private final int[] ownedLanes;
+        private final int[] entries;
+        private final HandoffBuffer[] outgoing;
+        private final HandoffBuffer[] incoming;
+        private final int[] incomingCursors;
+
+        // --- Araçlar (bölge slot indeksiyle) ---
+        private int[] vehicleIds = new int[DEFAULT_VEHICLE_CAPACITY];
+        private int[] vehicleLinks = new int[DEFAULT_VEHICLE_CAPACITY];
+        private int[] vehicleLanes = new int[DEFAULT_VEHICLE_CAPACITY];
+        private int[] vehicleNextLinks = new int[DEFAULT_VEHICLE_CAPACITY];
+        private double[] distances = new double[DEFAULT_VEHICLE_CAPACITY];
+        private double[] speeds = new double[DEFAULT_VEHICLE_CAPACITY];
+        private double[] entryTimes = new double[DEFAULT_VEHICLE_CAPACITY];
+        private double[] freeFlowTimes = new double[DEFAULT_VEHICLE_CAPACITY];
+        private boolean[] committed = new boolean[DEFAULT_VEHICLE_CAPACITY];
+        private final LaneQueue freeSlots = new LaneQueue();
+        private int highWater;
+
+        // --- Performans ölçütleri ---
+        private int activeCount;
+        private int completedCount;
+        private long delayMicros;
+        private long stoppedTicks;
+
+        Region(int[] nodes, int[] ownedLanes, int[] entries, HandoffBuffer[] outgoing, HandoffBuffer[] incoming) {
+            this.nodes = nodes;
+            this.ownedLanes = ownedLanes;
+            this.entries = entries;
+            this.outgoing = outgoing;
+            this.incoming = incoming;
+            this.incomingCursors = new int[incoming.length];
+            Arrays.fill(vehicleLinks, NO_LINK);
+        }
+
+        void run(int phase) {
+            switch (phase) {
+                case PHASE_MOVE -> {
+                    updateSignals();
+                    for (int lane : ownedLanes) {
+                        stepLane(lane, Constants.SIMULATION_STEP);
+                    }
+                }
+                case PHASE_ACCEPT -> acceptHandoffs();
+                default -> {
+                    resolveHandoffs();
+                    spawnVehicles();
+                    captureLaneRears();
+                }
+            }
+        }
+
+        // ======================== Araç üretimi ========================
+
+        private void spawnVehicles() {
+            for (int entry : entries) {
+                int link = network.getEntryLink(entry);
+                while (nextEntryTimes[entry] <= simulationTime + TIME_EPSILON) {
+                    int lane = bestLane(link);
+                    double speed = carFollowing.getDesiredSpeed();
+                    if (!lanes[lane].isEmpty()) {
+                        int rear = lanes[lane].peekLast();
+                        double gap = distances[rear] - carFollowing.getVehicleLength();
+                        if (gap < carFollowing.getMinimumGap()) {
+                            // Giriş bağlantısı doldu; araç yer açılınca girer, bekleme gecikmeye dahildir
+                            break;
+                        }
+                        speed = carFollowing.safeEntrySpeed(gap, speeds[rear]);
+                    }
+                    // Kimlik yalnızca giriş ve sıra numarasından türer; bölümlemeden bağımsızdır
+                    int slot = allocate(entrySequences[entry]++ * nextEntryTimes.length + entry);
+                    entryTimes[slot] = nextEntryTimes[entry];
+                    freeFlowTimes[slot] = 0;
+                    placeOnLink(slot, link, lane, 0, speed);
+                    nextEntryTimes[entry] += entryHeadway;
+                }
+            }
+        }
+
+        private int allocate(int vehicleId) {
+            int slot;
+            if (!freeSlots.isEmpty()) {
+                slot = freeSlots.removeFirst();
+            } else {
+                if (highWater == vehicleLinks.length) {
+                    grow(vehicleLinks.length * 2);
+                }
+                slot = highWater++;
+            }
+            vehicleIds[slot] = vehicleId;
+            activeCount++;
+            return slot;
+        }
+
+        private void release(int slot) {
+            vehicleLinks[slot] = NO_LINK;
+            freeSlots.addLast(slot);
+            activeCount--;
+        }
+
+        private void grow(int capacity) {
+            vehicleIds = Arrays.copyOf(vehicleIds, capacity);
+            int oldCapacity = vehicleLinks.length;
+            vehicleLinks = Arrays.copyOf(vehicleLinks, capacity);
+            Arrays.fill(vehicleLinks, oldCapacity, capacity, NO_LINK);
+            vehicleLanes = Arrays.copyOf(vehicleLanes, capacity);
+            vehicleNextLinks = Arrays.copyOf(vehicleNextLinks, capacity);
+            distances = Arrays.copyOf(distances, capacity);
+            speeds = Arrays.copyOf(speeds, capacity);
+            entryTimes = Arrays.copyOf(entryTimes, capacity);
+            freeFlowTimes = Arrays.copyOf(freeFlowTimes, capacity);
+            committed = Arrays.copyOf(committed, capacity);
+        }
+
+        /**
+         * Aracı bağlantının şeridinin sonuna ekler ve bağlantı sonundaki kavşakta yapacağı dönüşü seçer.
+         */
+        private void placeOnLink(int slot, int link, int lane, double distance, double speed) {
+            vehicleLinks[slot] = link;
+            vehicleLanes[slot] = lane;
+            distances[slot] = distance;
+            speeds[slot] = speed;
+            committed[slot] = false;
+            vehicleNextLinks[slot] = chooseTurn(link);
+            freeFlowTimes[slot] += network.getLength(link) / carFollowing.getDesiredSpeed();
+            lanes[lane].addLast(slot);
+            linkVehicleCounts[link]++;
+        }
+
+        /**
+         * Bağlantının en arkadaki aracı en ileride olan (boş şerit öncelikli) şeridi.
+         */
+        private int bestLane(int link) {
+            int first = network.getFirstLane(link);
+            int best = first;
+            double bestRear = Double.NEGATIVE_INFINITY;
+            for (int lane = first; lane < first + network.getLaneCount(link); lane++) {
+                double rear = lanes[lane].isEmpty() ? Double.POSITIVE_INFINITY : distances[lanes[lane].peekLast()];
+                if (rear > bestRear) {
+                    best = lane;
+                    bestRear = rear;
+                }
+            }
+            return best;
+        }
+
+        // ======================== Işıklar ========================
+
+        private void updateSignals() {
+            for (int node : nodes) {
+                double elapsed = simulationTime - nodePhaseStart[node];
+                if (nodeStates[node] == SignalState.YELLOW) {
+                    if (elapsed >= Constants.YELLOW_DURATION - TIME_EPSILON) {
+                        nodePhases[node] = nextPhase(node);
+                        nodeStates[node] = SignalState.GREEN;
+                        nodePhaseStart[node] = simulationTime;
+                        linkCalls[network.getIncomingLink(node, nodePhases[node])] = false;
+                    }
+                } else if (shouldEndGreen(node, elapsed)) {
+                    nodeStates[node] = SignalState.YELLOW;
+                    nodePhaseStart[node] = simulationTime;
+                }
+            }
+        }
+
+        // ======================== Araç hareketi ========================
+
+        private void captureLaneRears() {
+            for (int lane : ownedLanes) {
+                if (lanes[lane].isEmpty()) {
+                    laneRearDistances[lane] = Double.POSITIVE_INFINITY;
+                    laneRearSpeeds[lane] = 0;
+                } else {
+                    int rear = lanes[lane].peekLast();
+                    laneRearDistances[lane] = distances[rear];
+                    laneRearSpeeds[lane] = speeds[rear];
+                }
+            }
+        }
+
+        /**
+         * Şeridi öndeki araçtan başlayarak tek geçişte ilerletir. Öndeki aracın öncüsü, gideceği
+         * bağlantıda en çok yer olan şeridin adım başındaki arka aracıdır; böylece dolu bağlantı geri
+         * taşma olarak kavşağı tıkar.
+         */
+        private void stepLane(int lane, double dt) {
+            LaneQueue queue = lanes[lane];
+            if (queue.isEmpty()) return;
+
+            int link = laneLinks[lane];
+            double length = network.getLength(link);
+            boolean signalized = network.isSignalized(network.getTo(link));
+            SignalState signal = getSignalState(link);
+            boolean green = signal == SignalState.GREEN;
+            boolean red = signal == SignalState.RED;
+            double stopLine = network.getStopLine(link);
+            double detectorStart = stopLine - Constants.DETECTOR_LENGTH;
+            double detectorEnd = stopLine + Constants.CAR_LENGTH / 2;
+            double vehicleLength = carFollowing.getVehicleLength();
+
+            double leaderDistance = Double.POSITIVE_INFINITY;
+            double leaderSpeed = 0;
+            int nextLink = vehicleNextLinks[queue.peekFirst()];
+            if (nextLink != NO_LINK) {
+                int target = rearmostLane(nextLink);
+                leaderDistance = length + laneRearDistances[target];
+                leaderSpeed = laneRearSpeeds[target];
+            }
+
+            int count = queue.size();
+            for (int i = 0; i < count; i++) {
+                int slot = queue.get(i);
+                double distance = distances[slot];
+                double speed = speeds[slot];
+
+                double acceleration = leaderDistance == Double.POSITIVE_INFINITY
+                        ? carFollowing.freeRoadAcceleration(speed)
+                        : carFollowing.acceleration(speed, leaderDistance - distance - vehicleLength, leaderSpeed);
+                if (signalized && !green && distance < stopLine && mustStopAtLine(slot, speed, stopLine - distance, red)) {
+                    acceleration = Math.min(acceleration,
+                            carFollowing.acceleration(speed, stopLine - distance + carFollowing.getMinimumGap(), 0));
+                }
+
+                double newSpeed = speed + acceleration * dt;
+                double newDistance;
+                if (newSpeed < 0) {
+                    newDistance = distance - speed * speed / (2 * acceleration);
+                    newSpeed = 0;
+                } else {
+                    newDistance = distance + (speed + newSpeed) * 0.5 * dt;
+                }
+                newDistance = Math.max(distance, Math.min(newDistance, leaderDistance - vehicleLength));
+
+                distances[slot] = newDistance;
+                speeds[slot] = newSpeed;
+                leaderDistance = distance;
+                leaderSpeed = speed;
+
+                if (newSpeed < STOPPED_SPEED) {
+                    stoppedTicks++;
+                }
+                if (signalized && newDistance >= detectorStart && newDistance < detectorEnd) {
+                    // Sanal dedektör: uyarmalı kontrol boşluk süresini ve kırmızıdaki çağrıları buradan alır
+                    linkLastPresence[link] = simulationTime;
+                    if (!green) {
+                        linkCalls[link] = true;
+                    }
+                }
+            }
+
+            offerCrossingVehicle(lane, link, length);
+        }
+
+        private boolean mustStopAtLine(int slot, double speed, double gapToLine, boolean red) {
+            if (committed[slot]) {
+                return false;
+            }
+            if (!red && !carFollowing.canStopWithin(speed, gapToLine)) {
+                committed[slot] = true;
+                return false;
+            }
+            return true;
+        }
+
+        // ======================== Bölgeler arası aktarım ========================
+
+        /**
+         * Kapıya ulaşan araçlar hemen ayrılır; sıradaki bağlantıya geçecek öndeki araç o bağlantının
+         * bölgesine teklif edilir. Şerit başına adımda tek teklif yapılır, arkadaki araç sonucu bekler.
+         */
+        private void offerCrossingVehicle(int lane, int link, double length) {
+            LaneQueue queue = lanes[lane];
+            while (!queue.isEmpty() && distances[queue.peekFirst()] >= length) {
+                int slot = queue.peekFirst();
+                int nextLink = vehicleNextLinks[slot];
+                if (nextLink == NO_LINK) {
+                    queue.removeFirst();
+                    linkVehicleCounts[link]--;
+                    completedCount++;
+                    double delay = Math.max(0, simulationTime - entryTimes[slot] - freeFlowTimes[slot]);
+                    delayMicros += Math.round(delay * MICROS_PER_SECOND);
+                    release(slot);
+                    continue;
+                }
+                outgoing[partition.getLinkRegion(nextLink)].offer(lane, slot, nextLink, vehicleIds[slot],
+                        distances[slot] - length, speeds[slot], entryTimes[slot], freeFlowTimes[slot]);
+                return;
+            }
+        }
+
+        /**
+         * Gelen tamponlardaki teklifleri kaynak şerit indeksine göre birleştirerek işler; aynı adımda
+         * aynı şeride birden çok araç girebilir, yer kalmamışsa teklif reddedilir.
+         */
+        private void acceptHandoffs() {
+            Arrays.fill(incomingCursors, 0);
+            while (true) {
+                int next = -1;
+                for (int i = 0; i < incoming.length; i++) {
+                    HandoffBuffer buffer = incoming[i];
+                    if (incomingCursors[i] < buffer.size && (next < 0
+                            || buffer.sourceLanes[incomingCursors[i]] < incoming[next].sourceLanes[incomingCursors[next]])) {
+                        next = i;
+                    }
+                }
+                if (next < 0) return;
+
+                HandoffBuffer buffer = incoming[next];
+                int offer = incomingCursors[next]++;
+                int link = buffer.targetLinks[offer];
+                int lane = bestLane(link);
+                double distance = buffer.distances[offer];
+                if (!lanes[lane].isEmpty()) {
+                    distance = Math.min(distance, distances[lanes[lane].peekLast()] - carFollowing.getVehicleLength());
+                }
+                if (distance < 0) continue;
+
+                buffer.accepted[offer] = true;
+                int slot = allocate(buffer.vehicleIds[offer]);
+                entryTimes[slot] = buffer.entryTimes[offer];
+                freeFlowTimes[slot] = buffer.freeFlowTimes[offer];
+                placeOnLink(slot, link, lane, distance, buffer.speeds[offer]);
+            }
+        }
+
+        /**
+         * Kabul edilen araçları şeritten çıkarır; reddedilen araç kavşakta durup bir sonraki adımda
+         * yeniden dener.
+         */
+        private void resolveHandoffs() {
+            for (HandoffBuffer buffer : outgoing) {
+                if (buffer == null) continue;
+                for (int offer = 0; offer < buffer.size; offer++) {
+                    int lane = buffer.sourceLanes[offer];
+                    int slot = buffer.sourceSlots[offer];
+                    int link = laneLinks[lane];
+                    if (buffer.accepted[offer]) {
+                        lanes[lane].removeFirst();
+                        linkVehicleCounts[link]--;
+                        release(slot);
+                    } else {
+                        distances[slot] = Math.nextDown(network.getLength(link));
+                        speeds[slot] = 0;
+                    }
+                }
+                buffer.clear();
+            }
+        }
+
+        void forEachVehicle(SimulationEngine.VehicleVisitor visitor) {
+            for (int slot = 0; slot < highWater; slot++) {
+                if (vehicleLinks[slot] == NO_LINK) continue;
+                positionOf(vehicleLinks[slot], vehicleLanes[slot], distances[slot], positionBuffer);
+                visitor.visit(vehicleIds[slot], positionBuffer[0], positionBuffer[1], positionBuffer[2]);
+            }
+        }
+    }
+
+    private int chooseTurn(int link) {
+        int turnCount = network.getTurnCount(link);
+        if (turnCount == 0) return NO_LINK;
+        double draw = linkRandoms[link].nextDouble();
+        for (int turn = 0; turn < turnCount - 1; turn++) {
+            draw -= network.getTurnRatio(link, turn);
+            if (draw < 0) {
+                return network.getTurnTarget(link, turn);
+            }
+        }
+        return network.getTurnTarget(link, turnCount - 1);
+    }
+
+    private boolean shouldEndGreen(int node, double elapsed) {
+        int greenLink = network.getIncomingLink(node, nodePhases[node]);
+        switch (controlMode) {
+            case FIXED_TIME -> {
+                return elapsed >= greenDuration - TIME_EPSILON;
+            }
+            case ACTUATED -> {
+                if (elapsed < Constants.MIN_GREEN_DURATION || !hasConflictingCall(node)) return false;
+                double gap = simulationTime - Math.max(nodePhaseStart[node], linkLastPresence[greenLink]);
+                return elapsed >= greenDuration || gap >= Constants.PASSAGE_TIME;
+            }
+            default -> {
+                if (elapsed < Constants.MIN_GREEN_DURATION) return false;
+                int best = strongestOtherPhase(node);
+                if (best < 0) return false;
+                return elapsed >= Constants.MAX_GREEN_DURATION
+                        || pressure(network.getIncomingLink(node, best)) > pressure(greenLink);
+            }
+        }
+    }
+
+    private int nextPhase(int node) {
+        int phaseCount = network.getIncomingCount(node);
+        int current = nodePhases[node];
+        switch (controlMode) {
+            case ACTUATED -> {
+                for (int offset = 1; offset <= phaseCount; offset++) {
+                    int phase = (current + offset) % phaseCount;
+                    if (linkCalls[network.getIncomingLink(node, phase)]) {
+                        return phase;
+                    }
+                }
+            }
+            case MAX_PRESSURE -> {
+                int best = strongestOtherPhase(node);
+                if (best >= 0) return best;
+            }
+            default -> {
+            }
+        }
+        return (current + 1) % phaseCount;
+    }
+
+    private boolean hasConflictingCall(int node) {
+        int phaseCount = network.getIncomingCount(node);
+        for (int phase = 0; phase < phaseCount; phase++) {
+            if (phase != nodePhases[node] && linkCalls[network.getIncomingLink(node, phase)]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Bağlantının baskısı: üzerindeki araç sayısından, dönüş oranlarıyla ağırlıklı çıkış
+     * bağlantılarındaki araç sayısının çıkarılması. Çıkış bağlantıları komşu bölgede olabilir;
+     * sayaçları hareket aşamasında değişmez.
+     */
+    private double pressure(int link) {
+        double downstream = 0;
+        for (int turn = 0; turn < network.getTurnCount(link); turn++) {
+            downstream += network.getTurnRatio(link, turn) * linkVehicleCounts[network.getTurnTarget(link, turn)];
+        }
+        return linkVehicleCounts[link] - downstream;
+    }
+
+    /**
+     * Mevcut faz dışında, bağlantısında araç olan en yüksek baskılı faz; yoksa -1. Eşitlikte faz
+     * sırasında mevcut fazdan sonra gelen seçilir.
+     */
+    private int strongestOtherPhase(int node) {
+        int phaseCount = network.getIncomingCount(node);
+        int current = nodePhases[node];
+        int best = -1;
+        double bestPressure = Double.NEGATIVE_INFINITY;
+        for (int offset = 1; offset < phaseCount; offset++) {
+            int phase = (current + offset) % phaseCount;
+            int link = network.getIncomingLink(node, phase);
+            if (linkVehicleCounts[link] == 0) continue;
+            double candidate = pressure(link);
+            if (candidate > bestPressure) {
+                best = phase;
+                bestPressure = candidate;
+            }
+        }
+        return best;
+    }
+
+    public SignalState getSignalState(int link) {
+        int node = network.getTo(link);
+        if (!network.isSignalized(node)) return SignalState.GREEN;
+        return nodePhases[node] == network.getPhaseIndex(link) ? nodeStates[node] : SignalState.RED;
+    }
+
+    /**
+     * Adım başı özetine göre bağlantının en arkadaki aracı en ileride olan şeridi; aktarım
+     * sırasında hedef bölge aynı seçimi güncel durumla yapar.
+     */
+    private int rearmostLane(int link) {
+        int first = network.getFirstLane(link);
+        int best = first;
+        for (int lane = first + 1; lane < first + network.getLaneCount(link); lane++) {
+            if (laneRearDistances[lane] > laneRearDistances[best]) {
+                best = lane;
+            }
+        }
+        return best;
+    }
+
+    // ======================== Sorgular ========================
+
+    /**
+     * Araçları bölge sırasıyla dolaşır; adımlar arasında çağrılmalıdır.
+     */
+    public void forEachVehicle(SimulationEngine.VehicleVisitor visitor) {
+        for (Region region : regions) {
+            region.forEachVehicle(visitor);
+        }
+    }
+
+    /**
+     * Araç bağlantı ekseninden şeridine göre sağa kaydırılmış konumdadır; iki yönlü yollarda iki
+     * yön {@link Constants#STREET_WIDTH} genişliğinde yan yana kalır.
+     */
+    private void positionOf(int link, int lane, double distance, double[] out) {
+        int from = network.getFrom(link);
+        double heading = network.getHeading(link);
+        double radians = Math.toRadians(heading);
+        double cos = Math.cos(radians);
+        double sin = Math.sin(radians);
+        int laneCount = network.getLaneCount(link);
+        double offset = (lane - network.getFirstLane(link) + 0.5) * Constants.STREET_WIDTH / laneCount;
+        out[0] = network.getNodeX(from) + cos * distance - sin * offset;
+        out[1] = network.getNodeY(from) + sin * distance + cos * offset;
+        out[2] = heading;
+    }
+
+    public RoadNetwork getNetwork() {
+        return network;
+    }
+
+    public NetworkPartition getPartition() {
+        return partition;
+    }
+
+    public SignalControlMode getControlMode() {
+        return controlMode;
+    }
+
+    public int getCurrentPhase(int node) {
+        return nodePhases[node];
+    }
+
+    public int getLinkVehicleCount(int link) {
+        return linkVehicleCounts[link];
+    }
+
+    public double getSimulationTime() {
+        return simulationTime;
+    }
+
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    public int getActiveVehicleCount() {
+        int count = 0;
+        for (Region region : regions) {
+            count += region.activeCount;
+        }
+        return count;
+    }
+
+    public int getCompletedCount() {
+        int count = 0;
+        for (Region region : regions) {
+            count += region.completedCount;
+        }
+        return count;
+    }
+
+    public double getTotalDelay() {
+        long micros = 0;
+        for (Region region : regions) {
+            micros += region.delayMicros;
+        }
+        return micros / MICROS_PER_SECOND;
+    }
+
+    public double getAverageDelay() {
+        int completed = getCompletedCount();
+        return completed == 0 ? 0 : getTotalDelay() / completed;
+    }
+
+    /**
+     * Ağda zaman ağırlıklı ortalama duran araç sayısı.
+     */
+    public double getAverageStoppedVehicles() {
+        if (simulationTime == 0) return 0;
+        long ticks = 0;
+        for (Region region : regions) {
+            ticks += region.stoppedTicks;
+        }
+        return ticks * Constants.SIMULATION_STEP / simulationTime;
+    }
+}
@@ -0,0 +1,118 @@
+package org.example.traf.model;
+
+import java.util.Arrays;
+
+/**
+ * Ağın kavşak kümelerinden oluşan bölgelere ayrılması. Işıklı kavşaklar özyinelemeli koordinat
+ * ikiye bölmesiyle (her seferinde daha geniş yayılan eksende, bölge sayısıyla orantılı) kümelere
+ * ayrılır; böylece bölgeler dengeli ve sınırları kısa kalır.
+ *
+ * <p>Bir bağlantı, sonundaki kavşağın bölgesine aittir; kapıya giden bağlantılar başladıkları
+ * kavşağın bölgesindedir. Böylece bir kavşağın ışığı, gelen bağlantıları ve bunların şeritleri
+ * hep aynı bölgededir ve bölge sınırını yalnızca kavşaktan çıkan araçlar geçer.</p>
+ */
+public final class NetworkPartition {
+
+    private final int regionCount;
+    private final int[] nodeRegions;
+    private final int[] linkRegions;
+
+    private NetworkPartition(RoadNetwork network, int regionCount, int[] nodeRegions) {
+        this.regionCount = regionCount;
+        this.nodeRegions = nodeRegions;
+        linkRegions = new int[network.getLinkCount()];
+        for (int link = 0; link < linkRegions.length; link++) {
+            int to = network.getTo(link);
+            int from = network.getFrom(link);
+            if (network.isSignalized(to)) {
+                linkRegions[link] = nodeRegions[to];
+            } else if (network.isSignalized(from)) {
+                linkRegions[link] = nodeRegions[from];
+            }
+        }
+    }
+
+    /**
+     * Tüm ağı tek bölge sayar.
+     */
+    public static NetworkPartition single(RoadNetwork network) {
+        return new NetworkPartition(network, 1, new int[network.getNodeCount()]);
+    }
+
+    /**
+     * Işıklı kavşakları en çok {@code regionCount} bölgeye böler; kavşak sayısından fazla bölge
+     * istenirse her kavşak kendi bölgesi olur.
+     */
+    public static NetworkPartition bisect(RoadNetwork network, int regionCount) {
+        if (regionCount < 1) {
+            throw new IllegalArgumentException("Region count must be positive: " + regionCount);
+        }
+        int[] nodes = new int[network.getSignalizedCount()];
+        int index = 0;
+        for (int node = 0; node < network.getNodeCount(); node++) {
+            if (network.isSignalized(node)) {
+                nodes[index++] = node;
+            }
+        }
+        int regions = Math.max(1, Math.min(regionCount, nodes.length));
+        int[] nodeRegions = new int[network.getNodeCount()];
+        split(network, nodes, 0, nodes.length, 0, regions, nodeRegions);
+        return new NetworkPartition(network, regions, nodeRegions);
+    }
+
+    /**
+     * {@code nodes[from, to)} aralığını {@code firstRegion}'dan başlayan {@code regions} bölgeye
+     * dağıtır. Eşit koordinatlarda düğüm indeksi sırayı belirler; sonuç yalnızca ağa bağlıdır.
+     */
+    private static void split(RoadNetwork network, int[] nodes, int from, int to, int firstRegion, int regions,
+                              int[] nodeRegions) {
+        if (regions == 1) {
+            for (int i = from; i < to; i++) {
+                nodeRegions[nodes[i]] = firstRegion;
+            }
+            return;
+        }
+
+        double minX = Double.POSITIVE_INFINITY, maxX = Double.NEGATIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (int i = from; i < to; i++) {
+            minX = Math.min(minX, network.getNodeX(nodes[i]));
+            maxX = Math.max(maxX, network.getNodeX(nodes[i]));
+            minY = Math.min(minY, network.getNodeY(nodes[i]));
+            maxY = Math.max(maxY, network.getNodeY(nodes[i]));
+        }
+        boolean alongX = maxX - minX >= maxY - minY;
+        Integer[] range = new Integer[to - from];
+        for (int i = 0; i < range.length; i++) {
+            range[i] = nodes[from + i];
+        }
+        Arrays.sort(range, (a, b) -> {
+            double ka = alongX ? network.getNodeX(a) : network.getNodeY(a);
+            double kb = alongX ? network.getNodeX(b) : network.getNodeY(b);
+            return ka != kb ? Double.compare(ka, kb) : Integer.compare(a, b);
+        });
+        for (int i = 0; i < range.length; i++) {
+            nodes[from + i] = range[i];
+        }
+
+        int lowerRegions = regions / 2;
+        int middle = from + (int) ((long) (to - from) * lowerRegions / regions);
+        split(network, nodes, from, middle, firstRegion, lowerRegions, nodeRegions);
+        split(network, nodes, middle, to, firstRegion + lowerRegions, regions - lowerRegions, nodeRegions);
+    }
+
+    public int getRegionCount() {
+        return regionCount;
+    }
+
+    /**
+     * Işıklı kavşağın bölgesi; kapılar için anlamlı değildir.
+     */
+    public int getNodeRegion(int node) {
+        return nodeRegions[node];
+    }
+
+    public int getLinkRegion(int link) {
+        return linkRegions[link];
+    }
+}
@@ -4,24 +4,133 @@ import javafx.scene.shape.ArcTo;
 import javafx.scene.shape.LineTo;
 import javafx.scene.shape.MoveTo;
 import javafx.scene.shape.Path;
+import javafx.scene.shape.PathElement;
+import org.example.traf.util.Constants;
+
+import java.util.ArrayList;
 import java.util.List;
 
 public class PathService {
 
+    // --- Rota kimlikleri: önce yaklaşım başına ışığa giden rota, sonra yaklaşım x hareket çıkış rotaları ---
+    public static final int APPROACH_COUNT = Constants.DIRECTIONS_TURKISH.length;
+    public static final int ROUTE_COUNT = APPROACH_COUNT + APPROACH_COUNT * Constants.MOVEMENTS_PER_APPROACH;
+
+    private static final RoutePath[] ROUTES = buildRoutes();
+
     private PathService() {}
 
+    public static int toLightRouteId(int approach) {
+        return approach;
+    }
+
+    public static int afterLightRouteId(int approach, int movement) {
+        return APPROACH_COUNT + approach * Constants.MOVEMENTS_PER_APPROACH + movement;
+    }
+
+    public static boolean isToLightRoute(int routeId) {
+        return routeId < APPROACH_COUNT;
+    }
+
+    public static int approachOfRoute(int routeId) {
+        return isToLightRoute(routeId) ? routeId : (routeId - APPROACH_COUNT) / Constants.MOVEMENTS_PER_APPROACH;
+    }
+
+    /**
+     * Çıkış rotasının yaklaşım içindeki hareket indeksi; ışığa giden rotalar için tanımsızdır.
+     */
+    public static int movementOfRoute(int routeId) {
+        return (routeId - APPROACH_COUNT) % Constants.MOVEMENTS_PER_APPROACH;
+    }
+
+    /**
+     * Yaklaşımın ışığa giden rotasında durma çizgisinin başlangıçtan uzaklığı (piksel). Kuyruğun ilk
+     * aracı merkezi bu noktadayken durur.
+     */
+    public static double stopLineOf(int approach) {
+        return (1.0 - Constants.QUEUE_SPACING) * getGeometry(toLightRouteId(approach)).getLength();
+    }
+
+    public static RoutePath getRoute(int routeId) {
+        return ROUTES[routeId];
+    }
+
+    public static RouteGeometry getGeometry(int routeId) {
+        return ROUTES[routeId].getGeometry();
+    }
+
+    /**
+     * Rotanın yeni bir JavaFX yolu; önbellekteki rotayı değiştiremesin diye her çağrıda yeniden kurulur.
+     */
+    public static Path getPath(int routeId) {
+        return FxPaths.create(routeId);
+    }
+
     public static List<Path> getPathsToLight(String direction) {
-        return switch (direction.toLowerCase()) {
-            case "east" -> List.of(createEastPathToLight());
-            case "west" -> List.of(createWestPathToLight());
-            case "north" -> List.of(createNorthPathToLight());
-            case "south" -> List.of(createSouthPathToLight());
+        return List.of(FxPaths.create(toLightRouteId(approachOf(direction))));
+    }
+
+    public static List<Path> getPathsAfterLight(String direction) {
+        int approach = approachOf(direction);
+        List<Path> paths = new ArrayList<>(Constants.MOVEMENTS_PER_APPROACH);
+        for (int movement = 0; movement < Constants.MOVEMENTS_PER_APPROACH; movement++) {
+            paths.add(FxPaths.create(afterLightRouteId(approach, movement)));
+        }
+        return List.copyOf(paths);
+    }
+
+    public static List<RoutePath> getRoutesToLight(String direction) {
+        return List.of(ROUTES[toLightRouteId(approachOf(direction))]);
+    }
+
+    public static List<RoutePath> getRoutesAfterLight(String direction) {
+        int approach = approachOf(direction);
+        List<RoutePath> routes = new ArrayList<>(Constants.MOVEMENTS_PER_APPROACH);
+        for (int movement = 0; movement < Constants.MOVEMENTS_PER_APPROACH; movement++) {
+            routes.add(ROUTES[afterLightRouteId(approach, movement)]);
+        }
+        return List.copyOf(routes);
+    }
+
+    private static int approachOf(String direction) {
+        for (int approach = 0; approach < APPROACH_COUNT; approach++) {
+            String english = Constants.DIRECTION_MAP_TURKISH_TO_ENGLISH.get(Constants.DIRECTIONS_TURKISH[approach]);
+            if (english.equalsIgnoreCase(direction)) {
+                return approach;
+            }
+        }
+        throw new IllegalArgumentException("Invalid direction: " + direction);
+    }
+
+    private static RoutePath[] buildRoutes() {
+        RoutePath[] routes = new RoutePath[ROUTE_COUNT];
+        for (int approach = 0; approach < APPROACH_COUNT; approach++) {
+            String english = Constants.DIRECTION_MAP_TURKISH_TO_ENGLISH.get(Constants.DIRECTIONS_TURKISH[approach]);
+            routes[toLightRouteId(approach)] = createRouteToLight(english);
+            List<RoutePath> afterLight = createRoutesAfterLight(english);
+            for (int movement = 0; movement < Constants.MOVEMENTS_PER_APPROACH; movement++) {
+                routes[afterLightRouteId(approach, movement)] = afterLight.get(movement);
+            }
+        }
+        for (RoutePath route : routes) {
+            route.freeze();
+            route.getGeometry();
+        }
+        return routes;
+    }
+
+    private static RoutePath createRouteToLight(String direction) {
+        return switch (direction) {
+            case "east" -> createEastPathToLight();
+            case "west" -> createWestPathToLight();
+            case "north" -> createNorthPathToLight();
+            case "south" -> createSouthPathToLight();
             default -> throw new IllegalArgumentException("Invalid direction: " + direction);
         };
     }
 
-    public static List<Path> getPathsAfterLight(String direction) {
-        return switch (direction.toLowerCase()) {
+    private static List<RoutePath> createRoutesAfterLight(String direction) {
+        return switch (direction) {
             case "east" -> List.of(createEastPathAfterLight1(), createEastPathAfterLight2(), createEastPathAfterLight3());
             case "west" -> List.of(createWestPathAfterLight1(), createWestPathAfterLight2(), createWestPathAfterLight3());
             case "north" -> List.of(createNorthPathAfterLight1(), createNorthPathAfterLight2(), createNorthPathAfterLight3());
@@ -30,135 +139,171 @@ public class PathService {
         };
     }
 
-    // --- Dogu ---
-    private static Path createEastPathToLight() {
-        Path path = new Path();
-        path.getElements().add(new MoveTo(1979, 490));
-        path.getElements().add(new LineTo(1160, 490));
-        return path;
+    /**
+     * JavaFX yolları yalnızca zaman çizelgesi tabanlı görünüm istediğinde oluşturulur; motor bu
+     * sınıfı hiç yüklemez. Her yol, uzunluğu yeniden hesaplanmasın diye kaynağı olan dondurulmuş
+     * rotayı özelliklerinde taşır.
+     */
+    private static final class FxPaths {
+        static final Object ROUTE_KEY = new Object();
+
+        static Path create(int routeId) {
+            Path path = toPath(ROUTES[routeId]);
+            path.getProperties().put(ROUTE_KEY, ROUTES[routeId]);
+            return path;
+        }
     }
 
-    private static Path createEastPathAfterLight1() {
-        Path path = new Path();
-        path.getElements().add(new MoveTo(1160, 490));
-        path.getElements().add(new LineTo(1060, 490));
-        path.getElements().add(new ArcTo(300, 300, 0, 910, 640, false, false));
-        path.getElements().add(new LineTo(910, 1139));
-        return path;
+    /**
+     * JavaFX yolunun gerçek yay uzunluğu; ArcTo kesimleri dahil.
+     */
+    public static double lengthOf(Path path) {
+        if (path.getProperties().get(FxPaths.ROUTE_KEY) instanceof RoutePath route) {
+            return route.getLength();
+        }
+        return toRoute(path).getLength();
     }
 
-    private static Path createEastPathAfterLight2() {
-        Path path = new Path();
-        path.getElements().add(new MoveTo(1160, 490));
-        path.getElements().add(new LineTo(-60, 490));
-        return path;
+    public static RoutePath toRoute(Path path) {
+        RoutePath route = null;
+        for (PathElement element : path.getElements()) {
+            if (element instanceof MoveTo moveTo) {
+                route = new RoutePath(moveTo.getX(), moveTo.getY());
+            } else if (route == null) {
+                throw new IllegalArgumentException("Path must start with MoveTo");
+            } else if (element instanceof LineTo lineTo) {
+                route.lineTo(lineTo.getX(), lineTo.getY());
+            } else if (element instanceof ArcTo arcTo) {
+                route.arcTo(arcTo.getRadiusX(), arcTo.getRadiusY(), arcTo.getX(), arcTo.getY(),
+                        arcTo.isLargeArcFlag(), arcTo.isSweepFlag());
+            } else {
+                throw new IllegalArgumentException("Unsupported path element: " + element);
+            }
+        }
+        if (route == null) {
+            throw new IllegalArgumentException("Empty path");
+        }
+        return route;
     }
 
-    private static Path createEastPathAfterLight3() {
+    private static Path toPath(RoutePath route) {
         Path path = new Path();
-        path.getElements().add(new MoveTo(1160, 490));
-        path.getElements().add(new LineTo(1060, 490));
-        path.getElements().add(new ArcTo(90, 90, 0, 1010, 440, false, true));
-        path.getElements().add(new LineTo(1010, -60));
+        route.accept(new RoutePath.ElementVisitor() {
+            @Override
+            public void moveTo(double x, double y) {
+                path.getElements().add(new MoveTo(x, y));
+            }
+
+            @Override
+            public void lineTo(double x, double y) {
+                path.getElements().add(new LineTo(x, y));
+            }
+
+            @Override
+            public void arcTo(double radiusX, double radiusY, double x, double y, boolean largeArc, boolean sweep) {
+                path.getElements().add(new ArcTo(radiusX, radiusY, 0, x, y, largeArc, sweep));
+            }
+        });
         return path;
     }
 
+    // --- Dogu ---
+    private static RoutePath createEastPathToLight() {
+        return new RoutePath(1979, 490)
+                .lineTo(1160, 490);
+    }
+
+    private static RoutePath createEastPathAfterLight1() {
+        return new RoutePath(1160, 490)
+                .lineTo(1060, 490)
+                .arcTo(300, 300, 910, 640, false, false)
+                .lineTo(910, 1139);
+    }
+
+    private static RoutePath createEastPathAfterLight2() {
+        return new RoutePath(1160, 490)
+                .lineTo(-60, 490);
+    }
+
+    private static RoutePath createEastPathAfterLight3() {
+        return new RoutePath(1160, 490)
+                .lineTo(1060, 490)
+                .arcTo(90, 90, 1010, 440, false, true)
+                .lineTo(1010, -60);
+    }
+
     // ---Batı ---
-    private static Path createWestPathToLight() {
-        Path path = new Path();
-        path.getElements().add(new MoveTo(-60, 590));
-        path.getElements().add(new LineTo(760, 590));
-        return path;
+    private static RoutePath createWestPathToLight() {
+        return new RoutePath(-60, 590)
+                .lineTo(760, 590);
     }
 
-    private static Path createWestPathAfterLight1() {
-        Path path = new Path();
-        path.getElements().add(new MoveTo(760, 590));
-        path.getElements().add(new LineTo(860, 590));
-        path.getElements().add(new ArcTo(90, 90, 0, 910, 640, false, true));
-        path.getElements().add(new LineTo(910, 1139));
-        return path;
+    private static RoutePath createWestPathAfterLight1() {
+        return new RoutePath(760, 590)
+                .lineTo(860, 590)
+                .arcTo(90, 90, 910, 640, false, true)
+                .lineTo(910, 1139);
     }
 
-    private static Path createWestPathAfterLight2() {
-        Path path = new Path();
-        path.getElements().add(new MoveTo(760, 590));
-        path.getElements().add(new LineTo(1979, 590));
-        return path;
+    private static RoutePath createWestPathAfterLight2() {
+        return new RoutePath(760, 590)
+                .lineTo(1979, 590);
     }
 
-    private static Path createWestPathAfterLight3() {
-        Path path = new Path();
-        path.getElements().add(new MoveTo(760, 590));
-        path.getElements().add(new LineTo(860, 590));
-        path.getElements().add(new ArcTo(300, 300, 0, 1010, 440, false, false));
-        path.getElements().add(new LineTo(1010, -60));
-        return path;
+    private static RoutePath createWestPathAfterLight3() {
+        return new RoutePath(760, 590)
+                .lineTo(860, 590)
+                .arcTo(300, 300, 1010, 440, false, false)
+                .lineTo(1010, -60);
     }
 
     // --- Kuzey ---
-    private static Path createNorthPathToLight() {
-        Path path = new Path();
-        path.getElements().add(new MoveTo(910, -60));
-        path.getElements().add(new LineTo(910, 340));
-        return path;
+    private static RoutePath createNorthPathToLight() {
+        return new RoutePath(910, -60)
+                .lineTo(910, 340);
     }
 
-    private static Path createNorthPathAfterLight1() {
-        Path path = new Path();
-        path.getElements().add(new MoveTo(910, 340));
-        path.getElements().add(new LineTo(910, 440));
-        path.getElements().add(new ArcTo(90, 90, 0, 860, 490, false, true));
-        path.getElements().add(new LineTo(-60, 490));
-        return path;
+    private static RoutePath createNorthPathAfterLight1() {
+        return new RoutePath(910, 340)
+                .lineTo(910, 440)
+                .arcTo(90, 90, 860, 490, false, true)
+                .lineTo(-60, 490);
     }
 
-    private static Path createNorthPathAfterLight2() {
-        Path path = new Path();
-        path.getElements().add(new MoveTo(910, 340));
-        path.getElements().add(new LineTo(910, 1139));
-        return path;
+    private static RoutePath createNorthPathAfterLight2() {
+        return new RoutePath(910, 340)
+                .lineTo(910, 1139);
     }
 
-    private static Path createNorthPathAfterLight3() {
-        Path path = new Path();
-        path.getElements().add(new MoveTo(910, 340));
-        path.getElements().add(new LineTo(910, 440));
-        path.getElements().add(new ArcTo(300, 300, 0, 1060, 590, false, false));
-        path.getElements().add(new LineTo(1979, 590));
-        return path;
+    private static RoutePath createNorthPathAfterLight3() {
+        return new RoutePath(910, 340)
+                .lineTo(910, 440)
+                .arcTo(300, 300, 1060, 590, false, false)
+                .lineTo(1979, 590);
     }
 
     // --- Guney ---
-    private static Path createSouthPathToLight() {
-        Path path = new Path();
-        path.getElements().add(new MoveTo(1010, 1139));
-        path.getElements().add(new LineTo(1010, 790));
-        return path;
+    private static RoutePath createSouthPathToLight() {
+        return new RoutePath(1010, 1139)
+                .lineTo(1010, 790);
     }
 
-    private static Path createSouthPathAfterLight1() {
-        Path path = new Path();
-        path.getElements().add(new MoveTo(1010, 790));
-        path.getElements().add(new LineTo(1010, 690));
-        path.getElements().add(new ArcTo(300, 300, 0, 860, 490, false, false));
-        path.getElements().add(new LineTo(-60, 490));
-        return path;
+    private static RoutePath createSouthPathAfterLight1() {
+        return new RoutePath(1010, 790)
+                .lineTo(1010, 690)
+                .arcTo(300, 300, 860, 490, false, false)
+                .lineTo(-60, 490);
     }
 
-    private static Path createSouthPathAfterLight2() {
-        Path path = new Path();
-        path.getElements().add(new MoveTo(1010, 790));
-        path.getElements().add(new LineTo(1010, -600));
-        return path;
+    private static RoutePath createSouthPathAfterLight2() {
+        return new RoutePath(1010, 790)
+                .lineTo(1010, -600);
     }
 
-    private static Path createSouthPathAfterLight3() {
-        Path path = new Path();
-        path.getElements().add(new MoveTo(1010, 790));
-        path.getElements().add(new LineTo(1010, 690));
-        path.getElements().add(new ArcTo(90, 90, 0, 1060, 590, false, true));
-        path.getElements().add(new LineTo(1979, 590));
-        return path;
+    private static RoutePath createSouthPathAfterLight3() {
+        return new RoutePath(1010, 790)
+                .lineTo(1010, 690)
+                .arcTo(90, 90, 1060, 590, false, true)
+                .lineTo(1979, 590);
     }
 }
@@ -0,0 +1,69 @@
+package org.example.traf.model;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Bir çalıştırmanın tek tohumdan türetilen rastgele sayı akışları. Her alt sistem kendi akışını
+ * kullanır; böylece örneğin araç renklerinin çekilme sırası faz sırasını değiştirmez ve aynı tohum
+ * aynı çalıştırmayı verir.
+ *
+ * <p>Akış tohumları ana tohumdan SplitMix64 ile ayrıştırılır. Örnek tek iş parçacığına aittir;
+ * iş parçacıkları arasında paylaşılacak akışlar için ayrı örnek {@link #forRun(int)} ile alınır.</p>
+ */
+public final class RandomStreams {
+
+    public enum Subsystem {
+        /** Faz sırasının karıştırılması. */
+        SIGNALS,
+        /** Araç düğümlerinin renkleri; yalnızca görünüm. */
+        VEHICLE_COLORS,
+        /** Giriş penceresindeki rastgele araç sayıları. */
+        INPUT,
+        /** Talep profilinden üretilen geliş akışları. */
+        DEMAND
+    }
+
+    private final long seed;
+    private final Map<Subsystem, Random> streams = new EnumMap<>(Subsystem.class);
+
+    public RandomStreams(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Saat ve nesne kimliğinden türetilen tohumla; tohum {@link #getSeed()} ile kaydedilebilir.
+     */
+    public static RandomStreams unseeded() {
+        return new RandomStreams(split(System.nanoTime(), System.identityHashCode(new Object())));
+    }
+
+    /**
+     * {@code seed}'den {@code index}'e özgü, ardışık indekslerde ilişkisiz bir tohum (SplitMix64).
+     */
+    public static long split(long seed, int index) {
+        long z = seed + (index + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Alt sistemin akışı; ilk çağrıda oluşturulur, sonraki çağrılar aynı akışı sürdürür.
+     */
+    public Random stream(Subsystem subsystem) {
+        return streams.computeIfAbsent(subsystem, key -> new Random(split(seed, key.ordinal())));
+    }
+
+    /**
+     * Aynı oturumdaki {@code run}. çalıştırmanın akışları; her çalıştırma kendi tohumuyla kaydedilir.
+     */
+    public RandomStreams forRun(int run) {
+        return new RandomStreams(split(seed, Subsystem.values().length + run));
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+}
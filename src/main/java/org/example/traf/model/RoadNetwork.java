@@ -0,0 +1,363 @@
+package org.example.traf.model;
+
+import org.example.traf.util.Constants;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Çok kavşaklı yol ağının değişmez tanımı. Düğümler ışıklı kavşaklar ya da ağın kenarındaki
+ * giriş/çıkış kapılarıdır; bağlantılar iki düğüm arasındaki tek yönlü, bir ya da daha çok şeritli
+ * düz yol kesimleridir. Kapıdan çıkan bağlantılar araç üretir, kapıya giren bağlantılarda araçlar
+ * ağdan ayrılır.
+ *
+ * <p>Tüm tablolar düğüm ya da bağlantı indeksiyle erişilen düz dizilerdir; bir düğümün gelen
+ * bağlantıları ve bir bağlantının dönüş seçenekleri CSR biçiminde (başlangıç indeksi + düz liste)
+ * tutulur. Kavşak başına nesne ağacı yoktur, böylece yüzlerce kavşaklı ağlar da tek geçişte
+ * dolaşılır.</p>
+ */
+public final class RoadNetwork {
+
+    // Düz devam eden harekete verilen pay; kalan pay diğer çıkışlar arasında eşit bölünür
+    private static final double STRAIGHT_SHARE = 0.6;
+    private static final double STRAIGHT_TOLERANCE_DEGREES = 45.0;
+
+    private final double[] nodeXs;
+    private final double[] nodeYs;
+    private final boolean[] signalized;
+    private final int[] nodeInStart;
+    private final int[] nodeInLinks;
+
+    private final int[] linkFrom;
+    private final int[] linkTo;
+    private final double[] linkLengths;
+    private final double[] linkHeadings;
+    private final int[] linkLaneCounts;
+    private final int[] linkLaneStart;
+    private final int[] linkPhaseIndex;
+    private final int[] linkTurnStart;
+    private final int[] linkTurnTargets;
+    private final double[] linkTurnRatios;
+    private final int[] entryLinks;
+
+    private RoadNetwork(Builder builder) {
+        int nodeCount = builder.nodeXs.size();
+        int linkCount = builder.linkFrom.size();
+        if (linkCount == 0) {
+            throw new IllegalArgumentException("Network has no links");
+        }
+
+        nodeXs = new double[nodeCount];
+        nodeYs = new double[nodeCount];
+        signalized = new boolean[nodeCount];
+        for (int node = 0; node < nodeCount; node++) {
+            nodeXs[node] = builder.nodeXs.get(node);
+            nodeYs[node] = builder.nodeYs.get(node);
+            signalized[node] = builder.signalized.get(node);
+        }
+
+        linkFrom = new int[linkCount];
+        linkTo = new int[linkCount];
+        linkLengths = new double[linkCount];
+        linkHeadings = new double[linkCount];
+        linkLaneCounts = new int[linkCount];
+        linkLaneStart = new int[linkCount + 1];
+        for (int link = 0; link < linkCount; link++) {
+            linkFrom[link] = builder.linkFrom.get(link);
+            linkTo[link] = builder.linkTo.get(link);
+            linkLaneCounts[link] = builder.linkLanes.get(link);
+            double dx = nodeXs[linkTo[link]] - nodeXs[linkFrom[link]];
+            double dy = nodeYs[linkTo[link]] - nodeYs[linkFrom[link]];
+            linkLengths[link] = Math.hypot(dx, dy);
+            linkHeadings[link] = Math.toDegrees(Math.atan2(dy, dx));
+            linkLaneStart[link + 1] = linkLaneStart[link] + linkLaneCounts[link];
+            if (signalized[linkTo[link]] && linkLengths[link] <= Constants.STREET_WIDTH + Constants.CAR_LENGTH) {
+                throw new IllegalArgumentException("Link " + link + " is too short to hold a vehicle before its stop line");
+            }
+        }
+
+        // Gelen bağlantılar (CSR); bir bağlantının düğümündeki sırası aynı zamanda faz indeksidir
+        nodeInStart = new int[nodeCount + 1];
+        for (int link = 0; link < linkCount; link++) {
+            nodeInStart[linkTo[link] + 1]++;
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            nodeInStart[node + 1] += nodeInStart[node];
+        }
+        nodeInLinks = new int[linkCount];
+        linkPhaseIndex = new int[linkCount];
+        int[] fill = Arrays.copyOf(nodeInStart, nodeCount);
+        for (int link = 0; link < linkCount; link++) {
+            int to = linkTo[link];
+            linkPhaseIndex[link] = fill[to] - nodeInStart[to];
+            nodeInLinks[fill[to]++] = link;
+        }
+
+        List<Integer> entries = new ArrayList<>();
+        List<Integer> targets = new ArrayList<>();
+        List<Double> ratios = new ArrayList<>();
+        linkTurnStart = new int[linkCount + 1];
+        for (int link = 0; link < linkCount; link++) {
+            if (!signalized[linkFrom[link]]) {
+                entries.add(link);
+            }
+            if (signalized[linkTo[link]]) {
+                addTurns(link, targets, ratios);
+            }
+            linkTurnStart[link + 1] = targets.size();
+        }
+        linkTurnTargets = targets.stream().mapToInt(Integer::intValue).toArray();
+        linkTurnRatios = ratios.stream().mapToDouble(Double::doubleValue).toArray();
+        entryLinks = entries.stream().mapToInt(Integer::intValue).toArray();
+        if (entryLinks.length == 0) {
+            throw new IllegalArgumentException("Network has no entry links from a boundary node");
+        }
+    }
+
+    /**
+     * Kavşakta geri dönüş dışındaki tüm çıkışlar seçenektir; başlığı en az değişen çıkış
+     * {@link #STRAIGHT_TOLERANCE_DEGREES} içindeyse düz devam sayılır ve daha büyük pay alır.
+     */
+    private void addTurns(int link, List<Integer> targets, List<Double> ratios) {
+        int node = linkTo[link];
+        List<Integer> options = new ArrayList<>();
+        for (int out = 0; out < linkFrom.length; out++) {
+            if (linkFrom[out] == node && linkTo[out] != linkFrom[link]) {
+                options.add(out);
+            }
+        }
+        if (options.isEmpty()) {
+            throw new IllegalArgumentException("Intersection " + node + " has no exit for link " + link);
+        }
+
+        int straight = -1;
+        double straightTurn = STRAIGHT_TOLERANCE_DEGREES;
+        for (int out : options) {
+            double turn = Math.abs(turnAngle(linkHeadings[link], linkHeadings[out]));
+            if (turn <= straightTurn) {
+                straight = out;
+                straightTurn = turn;
+            }
+        }
+        for (int out : options) {
+            double ratio;
+            if (straight < 0) {
+                ratio = 1.0 / options.size();
+            } else if (options.size() == 1) {
+                ratio = 1.0;
+            } else {
+                ratio = out == straight ? STRAIGHT_SHARE : (1 - STRAIGHT_SHARE) / (options.size() - 1);
+            }
+            targets.add(out);
+            ratios.add(ratio);
+        }
+    }
+
+    private static double turnAngle(double fromHeading, double toHeading) {
+        double delta = toHeading - fromHeading;
+        while (delta > 180) delta -= 360;
+        while (delta < -180) delta += 360;
+        return delta;
+    }
+
+    /**
+     * {@code rows} x {@code columns} kavşaklı ızgara. Komşu kavşaklar iki yönlü bağlanır; kenardaki
+     * her sıra ve sütunun iki ucunda birer giriş/çıkış kapısı bulunur. Kavşaklar arası uzaklık
+     * {@code spacing} pikseldir.
+     */
+    public static RoadNetwork grid(int rows, int columns, double spacing, int lanesPerLink) {
+        if (rows < 1 || columns < 1) {
+            throw new IllegalArgumentException("Grid must have at least one intersection: " + rows + "x" + columns);
+        }
+        Builder builder = new Builder();
+        int[][] intersections = new int[rows][columns];
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                intersections[row][column] = builder.addIntersection((column + 1) * spacing, (row + 1) * spacing);
+            }
+        }
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                int node = intersections[row][column];
+                if (column + 1 < columns) {
+                    builder.addTwoWayLink(node, intersections[row][column + 1], lanesPerLink);
+                }
+                if (row + 1 < rows) {
+                    builder.addTwoWayLink(node, intersections[row + 1][column], lanesPerLink);
+                }
+            }
+        }
+        for (int row = 0; row < rows; row++) {
+            double y = (row + 1) * spacing;
+            builder.addTwoWayLink(builder.addBoundary(0, y), intersections[row][0], lanesPerLink);
+            builder.addTwoWayLink(builder.addBoundary((columns + 1) * spacing, y), intersections[row][columns - 1], lanesPerLink);
+        }
+        for (int column = 0; column < columns; column++) {
+            double x = (column + 1) * spacing;
+            builder.addTwoWayLink(builder.addBoundary(x, 0), intersections[0][column], lanesPerLink);
+            builder.addTwoWayLink(builder.addBoundary(x, (rows + 1) * spacing), intersections[rows - 1][column], lanesPerLink);
+        }
+        return builder.build();
+    }
+
+    public int getNodeCount() {
+        return nodeXs.length;
+    }
+
+    public int getLinkCount() {
+        return linkFrom.length;
+    }
+
+    public int getLaneCount() {
+        return linkLaneStart[linkFrom.length];
+    }
+
+    public int getSignalizedCount() {
+        int count = 0;
+        for (boolean value : signalized) {
+            if (value) count++;
+        }
+        return count;
+    }
+
+    public boolean isSignalized(int node) {
+        return signalized[node];
+    }
+
+    public double getNodeX(int node) {
+        return nodeXs[node];
+    }
+
+    public double getNodeY(int node) {
+        return nodeYs[node];
+    }
+
+    /**
+     * Düğüme gelen bağlantı sayısı; ışıklı kavşakta faz sayısıdır.
+     */
+    public int getIncomingCount(int node) {
+        return nodeInStart[node + 1] - nodeInStart[node];
+    }
+
+    public int getIncomingLink(int node, int phase) {
+        return nodeInLinks[nodeInStart[node] + phase];
+    }
+
+    public int getFrom(int link) {
+        return linkFrom[link];
+    }
+
+    public int getTo(int link) {
+        return linkTo[link];
+    }
+
+    public double getLength(int link) {
+        return linkLengths[link];
+    }
+
+    /**
+     * Bağlantının yönü, derece cinsinden; {@link RouteGeometry#headingAt(double)} ile aynı kural.
+     */
+    public double getHeading(int link) {
+        return linkHeadings[link];
+    }
+
+    public int getLaneCount(int link) {
+        return linkLaneCounts[link];
+    }
+
+    /**
+     * Bağlantının ilk şeridinin ağ genelindeki şerit indeksi; şeritler ardışık numaralanır.
+     */
+    public int getFirstLane(int link) {
+        return linkLaneStart[link];
+    }
+
+    /**
+     * Bağlantının bittiği kavşaktaki faz indeksi.
+     */
+    public int getPhaseIndex(int link) {
+        return linkPhaseIndex[link];
+    }
+
+    /**
+     * Işıklı kavşakta biten bağlantının durma çizgisi; kapıya giden bağlantılarda bağlantı sonu.
+     */
+    public double getStopLine(int link) {
+        return signalized[linkTo[link]] ? linkLengths[link] - Constants.STREET_WIDTH : linkLengths[link];
+    }
+
+    public int getTurnCount(int link) {
+        return linkTurnStart[link + 1] - linkTurnStart[link];
+    }
+
+    public int getTurnTarget(int link, int turn) {
+        return linkTurnTargets[linkTurnStart[link] + turn];
+    }
+
+    public double getTurnRatio(int link, int turn) {
+        return linkTurnRatios[linkTurnStart[link] + turn];
+    }
+
+    public int getEntryLinkCount() {
+        return entryLinks.length;
+    }
+
+    public int getEntryLink(int index) {
+        return entryLinks[index];
+    }
+
+    /**
+     * Rastgele çizgeler için düğüm ve bağlantı ekleyerek ağ kurar. Bağlantı uzunluğu düğüm
+     * koordinatlarından hesaplanır.
+     */
+    public static final class Builder {
+        private final List<Double> nodeXs = new ArrayList<>();
+        private final List<Double> nodeYs = new ArrayList<>();
+        private final List<Boolean> signalized = new ArrayList<>();
+        private final List<Integer> linkFrom = new ArrayList<>();
+        private final List<Integer> linkTo = new ArrayList<>();
+        private final List<Integer> linkLanes = new ArrayList<>();
+
+        public int addIntersection(double x, double y) {
+            return addNode(x, y, true);
+        }
+
+        public int addBoundary(double x, double y) {
+            return addNode(x, y, false);
+        }
+
+        private int addNode(double x, double y, boolean isSignalized) {
+            nodeXs.add(x);
+            nodeYs.add(y);
+            signalized.add(isSignalized);
+            return nodeXs.size() - 1;
+        }
+
+        public int addLink(int from, int to, int lanes) {
+            if (from < 0 || from >= nodeXs.size() || to < 0 || to >= nodeXs.size() || from == to) {
+                throw new IllegalArgumentException("Invalid link: " + from + " -> " + to);
+            }
+            if (lanes < 1) {
+                throw new IllegalArgumentException("Link must have at least one lane: " + lanes);
+            }
+            if (!signalized.get(from) && !signalized.get(to)) {
+                throw new IllegalArgumentException("Link cannot connect two boundary nodes: " + from + " -> " + to);
+            }
+            linkFrom.add(from);
+            linkTo.add(to);
+            linkLanes.add(lanes);
+            return linkFrom.size() - 1;
+        }
+
+        public void addTwoWayLink(int first, int second, int lanes) {
+            addLink(first, second, lanes);
+            addLink(second, first, lanes);
+        }
+
+        public RoadNetwork build() {
+            return new RoadNetwork(this);
+        }
+    }
+}
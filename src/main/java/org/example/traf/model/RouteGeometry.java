@@ -0,0 +1,97 @@
+package org.example.traf.model;
+
+/**
+ * Bir rotanın yay uzunluğuna göre eşit aralıklarla örneklenmiş, değişmez tablo hali.
+ * Konum, yön ve eğrilik sorguları indeks hesabı ve doğrusal ara değerleme ile O(1)'dir;
+ * kare başına geometri hesabı yapılmaz.
+ */
+public final class RouteGeometry {
+
+    private final double length;
+    private final double spacing;
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] headings;
+    private final double[] curvatures;
+
+    RouteGeometry(double length, double spacing, double[] xs, double[] ys, double[] headings, double[] curvatures) {
+        this.length = length;
+        this.spacing = spacing;
+        this.xs = xs;
+        this.ys = ys;
+        this.headings = headings;
+        this.curvatures = curvatures;
+    }
+
+    public double getLength() {
+        return length;
+    }
+
+    public int getSampleCount() {
+        return xs.length;
+    }
+
+    public double xAt(double distance) {
+        int index = indexOf(distance);
+        return lerp(xs, index, fractionOf(distance, index));
+    }
+
+    public double yAt(double distance) {
+        int index = indexOf(distance);
+        return lerp(ys, index, fractionOf(distance, index));
+    }
+
+    /**
+     * Hareket yönü, derece cinsinden; ekran koordinatlarında (y aşağı) saat yönü pozitiftir.
+     */
+    public double headingAt(double distance) {
+        int index = indexOf(distance);
+        if (index + 1 >= headings.length) {
+            return headings[index];
+        }
+        double from = headings[index];
+        double delta = headings[index + 1] - from;
+        if (delta > 180) {
+            delta -= 360;
+        } else if (delta < -180) {
+            delta += 360;
+        }
+        return from + delta * fractionOf(distance, index);
+    }
+
+    /**
+     * İşaretli eğrilik (1/piksel); düz kesimlerde 0, saat yönü dönüşlerde pozitif.
+     */
+    public double curvatureAt(double distance) {
+        return curvatures[indexOf(distance)];
+    }
+
+    /**
+     * out[0] = x, out[1] = y, out[2] = yön (derece).
+     */
+    public void positionAt(double distance, double[] out) {
+        int index = indexOf(distance);
+        double fraction = fractionOf(distance, index);
+        out[0] = lerp(xs, index, fraction);
+        out[1] = lerp(ys, index, fraction);
+        out[2] = headingAt(distance);
+    }
+
+    private int indexOf(double distance) {
+        if (distance <= 0) return 0;
+        int index = (int) (distance / spacing);
+        return Math.min(index, xs.length - 1);
+    }
+
+    private double fractionOf(double distance, int index) {
+        if (distance <= 0 || index + 1 >= xs.length) return 0;
+        return Math.min(1.0, distance / spacing - index);
+    }
+
+    private static double lerp(double[] values, int index, double fraction) {
+        if (fraction == 0 || index + 1 >= values.length) {
+            return values[index];
+        }
+        return values[index] + (values[index + 1] - values[index]) * fraction;
+    }
+}
@@ -0,0 +1,249 @@
+package org.example.traf.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JavaFX'e bağımlı olmayan rota geometrisi. MoveTo/LineTo/ArcTo elemanlarını saklar; uzunluk
+ * analitik olarak, konum ve yön sorguları ise bir kez oluşturulan {@link RouteGeometry}
+ * tablolarından hesaplanır.
+ *
+ * <p>{@link PathService} önbelleğindeki rotalar paylaşıldığından dondurulur; dondurulmuş rotaya
+ * kesim eklemek {@link IllegalStateException} fırlatır.</p>
+ */
+public class RoutePath {
+
+    public interface ElementVisitor {
+        void moveTo(double x, double y);
+
+        void lineTo(double x, double y);
+
+        void arcTo(double radiusX, double radiusY, double x, double y, boolean largeArc, boolean sweep);
+    }
+
+    private static final class Segment {
+        final boolean arc;
+        final double startX, startY, endX, endY;
+        final double radius, centerX, centerY, startAngle, sweepAngle;
+        final double radiusX, radiusY;
+        final boolean largeArc, sweep;
+        final double length;
+
+        Segment(double startX, double startY, double endX, double endY) {
+            this.arc = false;
+            this.startX = startX;
+            this.startY = startY;
+            this.endX = endX;
+            this.endY = endY;
+            this.radius = 0;
+            this.centerX = 0;
+            this.centerY = 0;
+            this.startAngle = 0;
+            this.sweepAngle = 0;
+            this.radiusX = 0;
+            this.radiusY = 0;
+            this.largeArc = false;
+            this.sweep = false;
+            this.length = Math.hypot(endX - startX, endY - startY);
+        }
+
+        Segment(double startX, double startY, double endX, double endY, double radius,
+                double centerX, double centerY, double startAngle, double sweepAngle,
+                double radiusX, double radiusY, boolean largeArc, boolean sweep) {
+            this.arc = true;
+            this.startX = startX;
+            this.startY = startY;
+            this.endX = endX;
+            this.endY = endY;
+            this.radius = radius;
+            this.centerX = centerX;
+            this.centerY = centerY;
+            this.startAngle = startAngle;
+            this.sweepAngle = sweepAngle;
+            this.radiusX = radiusX;
+            this.radiusY = radiusY;
+            this.largeArc = largeArc;
+            this.sweep = sweep;
+            this.length = radius * Math.abs(sweepAngle);
+        }
+    }
+
+    // Yay uzunluğu tablolarında ardışık örnekler arasındaki en büyük mesafe (piksel)
+    public static final double SAMPLE_SPACING = 2.0;
+
+    private final double startX;
+    private final double startY;
+    private final List<Segment> segments = new ArrayList<>();
+    private double currentX;
+    private double currentY;
+    private double length;
+    private volatile RouteGeometry geometry;
+    private boolean frozen;
+
+    public RoutePath(double startX, double startY) {
+        this.startX = startX;
+        this.startY = startY;
+        this.currentX = startX;
+        this.currentY = startY;
+    }
+
+    public RoutePath lineTo(double x, double y) {
+        checkMutable();
+        Segment segment = new Segment(currentX, currentY, x, y);
+        segments.add(segment);
+        length += segment.length;
+        currentX = x;
+        currentY = y;
+        geometry = null;
+        return this;
+    }
+
+    /**
+     * SVG/JavaFX ArcTo ile aynı uç nokta parametrelerini kullanır. Rotalardaki tüm yaylar
+     * çember yayı olduğundan geometri için radiusX kullanılır.
+     */
+    public RoutePath arcTo(double radiusX, double radiusY, double x, double y, boolean largeArc, boolean sweep) {
+        checkMutable();
+        double halfDx = (currentX - x) / 2;
+        double halfDy = (currentY - y) / 2;
+        double halfChordSq = halfDx * halfDx + halfDy * halfDy;
+        if (halfChordSq == 0) {
+            return this;
+        }
+
+        double radius = Math.max(radiusX, Math.sqrt(halfChordSq));
+        double coefficient = Math.sqrt(Math.max(0, (radius * radius - halfChordSq) / halfChordSq));
+        if (largeArc == sweep) {
+            coefficient = -coefficient;
+        }
+        double centerX = coefficient * halfDy + (currentX + x) / 2;
+        double centerY = -coefficient * halfDx + (currentY + y) / 2;
+
+        double startAngle = Math.atan2(currentY - centerY, currentX - centerX);
+        double sweepAngle = Math.atan2(y - centerY, x - centerX) - startAngle;
+        if (sweep && sweepAngle < 0) {
+            sweepAngle += 2 * Math.PI;
+        } else if (!sweep && sweepAngle > 0) {
+            sweepAngle -= 2 * Math.PI;
+        }
+
+        Segment segment = new Segment(currentX, currentY, x, y, radius, centerX, centerY,
+                startAngle, sweepAngle, radiusX, radiusY, largeArc, sweep);
+        segments.add(segment);
+        length += segment.length;
+        currentX = x;
+        currentY = y;
+        geometry = null;
+        return this;
+    }
+
+    /**
+     * Rotayı salt okunur yapar; önbelleğe alınan rotalar paylaşılmadan önce çağrılır.
+     */
+    void freeze() {
+        frozen = true;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    private void checkMutable() {
+        if (frozen) {
+            throw new IllegalStateException("Route is frozen and shared; build a new RoutePath instead");
+        }
+    }
+
+    public double getLength() {
+        return length;
+    }
+
+    /**
+     * Rotanın yay uzunluğu tablolarını döndürür; ilk çağrıda bir kez oluşturulur.
+     */
+    public RouteGeometry getGeometry() {
+        RouteGeometry result = geometry;
+        if (result == null) {
+            result = flatten();
+            geometry = result;
+        }
+        return result;
+    }
+
+    public void positionAt(double distance, double[] out) {
+        getGeometry().positionAt(distance, out);
+    }
+
+    public double headingAt(double distance) {
+        return getGeometry().headingAt(distance);
+    }
+
+    private RouteGeometry flatten() {
+        int intervals = Math.max(1, (int) Math.ceil(length / SAMPLE_SPACING));
+        double spacing = length > 0 ? length / intervals : 1.0;
+        double[] xs = new double[intervals + 1];
+        double[] ys = new double[intervals + 1];
+        double[] headings = new double[intervals + 1];
+        double[] curvatures = new double[intervals + 1];
+        double[] sample = new double[4];
+
+        for (int i = 0; i <= intervals; i++) {
+            evaluate(Math.min(length, i * spacing), sample);
+            xs[i] = sample[0];
+            ys[i] = sample[1];
+            headings[i] = sample[2];
+            curvatures[i] = sample[3];
+        }
+        return new RouteGeometry(length, spacing, xs, ys, headings, curvatures);
+    }
+
+    /**
+     * Kesimler üzerinden tam hesap; yalnızca tablolar oluşturulurken kullanılır.
+     * out[0] = x, out[1] = y, out[2] = yön (derece), out[3] = işaretli eğrilik.
+     */
+    private void evaluate(double distance, double[] out) {
+        if (segments.isEmpty()) {
+            out[0] = startX;
+            out[1] = startY;
+            out[2] = 0;
+            out[3] = 0;
+            return;
+        }
+
+        double remaining = Math.max(0, distance);
+        Segment segment = segments.get(segments.size() - 1);
+        for (Segment candidate : segments) {
+            if (remaining <= candidate.length) {
+                segment = candidate;
+                break;
+            }
+            remaining -= candidate.length;
+        }
+        double t = segment.length > 0 ? Math.min(1.0, remaining / segment.length) : 1.0;
+
+        if (segment.arc) {
+            double angle = segment.startAngle + segment.sweepAngle * t;
+            double direction = Math.signum(segment.sweepAngle);
+            out[0] = segment.centerX + segment.radius * Math.cos(angle);
+            out[1] = segment.centerY + segment.radius * Math.sin(angle);
+            out[2] = Math.toDegrees(Math.atan2(Math.cos(angle) * direction, -Math.sin(angle) * direction));
+            out[3] = direction / segment.radius;
+        } else {
+            out[0] = segment.startX + (segment.endX - segment.startX) * t;
+            out[1] = segment.startY + (segment.endY - segment.startY) * t;
+            out[2] = Math.toDegrees(Math.atan2(segment.endY - segment.startY, segment.endX - segment.startX));
+            out[3] = 0;
+        }
+    }
+
+    public void accept(ElementVisitor visitor) {
+        visitor.moveTo(startX, startY);
+        for (Segment segment : segments) {
+            if (segment.arc) {
+                visitor.arcTo(segment.radiusX, segment.radiusY, segment.endX, segment.endY, segment.largeArc, segment.sweep);
+            } else {
+                visitor.lineTo(segment.endX, segment.endY);
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package org.example.traf.model;
+
+import org.example.traf.util.Constants;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Işık kontrol stratejisinin türü: sabit süreli plan, dedektörlere göre uyarmalı kontrol ya da
+ * kuyruk sayaçlarına göre max-pressure.
+ */
+public enum SignalControlMode {
+    FIXED_TIME, ACTUATED, MAX_PRESSURE;
+
+    /**
+     * {@code -Dtraf.control=actuated} gibi bir değeri çözer; boş ya da bilinmeyen değer sabit süredir.
+     */
+    public static SignalControlMode fromProperty(String value) {
+        if (value == null) return FIXED_TIME;
+        for (SignalControlMode mode : values()) {
+            if (mode.name().replace("_", "").equalsIgnoreCase(value.replace("-", "").replace("_", ""))) {
+                return mode;
+            }
+        }
+        return FIXED_TIME;
+    }
+
+    /**
+     * Faz sırası {@code random} ile karıştırılır; aynı tohum aynı sırayı verir.
+     *
+     * @param greenDurations sabit sürede yeşil süreler, uyarmalı kontrolde max-out süreleri
+     */
+    public SignalControlStrategy createStrategy(Map<String, Integer> greenDurations, LoopDetector[] detectors,
+                                                ApproachCounters counters, Random random) {
+        int approachCount = Constants.DIRECTIONS_TURKISH.length;
+        int[] greens = new int[approachCount];
+        List<Integer> order = new ArrayList<>();
+        for (int approach = 0; approach < approachCount; approach++) {
+            greens[approach] = greenDurations.getOrDefault(Constants.DIRECTIONS_TURKISH[approach],
+                    Constants.MIN_GREEN_DURATION);
+            order.add(approach);
+        }
+        Collections.shuffle(order, random);
+        int[] phaseOrder = new int[approachCount];
+        for (int i = 0; i < approachCount; i++) {
+            phaseOrder[i] = order.get(i);
+        }
+
+        return switch (this) {
+            case FIXED_TIME -> new FixedTimeControl(phaseOrder, greens);
+            case ACTUATED -> new ActuatedSignalControl(detectors, phaseOrder, greens);
+            case MAX_PRESSURE -> new MaxPressureControl(counters, phaseOrder);
+        };
+    }
+}
@@ -0,0 +1,47 @@
+package org.example.traf.model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Faz sırasını ve yeşil sürelerini belirleyen ışık kontrol stratejisi. {@link SimulationEngine} ve
+ * zaman çizelgesi tabanlı kontrolcü yalnızca bu arayüzü sürer: yeşil her simülasyon adımında
+ * {@link #shouldEndGreen(double)} ile yoklanır, bittiğinde sıradaki yaklaşım
+ * {@link #nextApproach(double)} ile seçilir. Sarı süre stratejiden bağımsızdır.
+ *
+ * <p>Her iki çağrı da kavşak başına sabit zamanda çalışmalıdır; zamanlar simülasyon saatindedir
+ * (saniye).</p>
+ */
+public interface SignalControlStrategy {
+
+    /**
+     * Simülasyonun ilk yeşilini alan yaklaşım.
+     */
+    int firstApproach();
+
+    void greenStarted(int approach, double time);
+
+    boolean shouldEndGreen(double now);
+
+    /**
+     * Mevcut yeşil bitti; sarıdan sonra yeşili alacak yaklaşım.
+     */
+    int nextApproach(double now);
+
+    /**
+     * Yaklaşımın yeşilinin en geç ne zaman biteceği (saniye); geri sayımda gösterilir.
+     */
+    double getGreenLimit(int approach);
+
+    default void reset() {
+    }
+
+    /**
+     * Faz sırası ve süren yeşil gibi çalışma durumunu {@link SimulationCheckpoint} için yazar; plan
+     * (yeşil süreler) durumun parçası değildir, geri yüklenen strateji kendi planıyla sürer.
+     */
+    void writeState(DataOutput out) throws IOException;
+
+    void readState(DataInput in) throws IOException;
+}
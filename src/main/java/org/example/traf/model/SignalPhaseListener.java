@@ -0,0 +1,13 @@
+package org.example.traf.model;
+
+/**
+ * Bir yaklaşımın ışık fazı değiştiğinde bilgilendirilir. Dinleyiciler yön başına kaydedilir,
+ * böylece bekleyen araçlar ışığı yoklamak yerine faz değişikliğinde tek seferde harekete geçer.
+ */
+public interface SignalPhaseListener {
+
+    void onPhaseEntered(String direction, SignalState state);
+
+    default void onPhaseExited(String direction, SignalState state) {
+    }
+}
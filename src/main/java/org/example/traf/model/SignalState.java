@@ -0,0 +1,5 @@
+package org.example.traf.model;
+
+public enum SignalState {
+    RED, YELLOW, GREEN
+}
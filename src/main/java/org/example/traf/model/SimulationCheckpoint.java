@@ -0,0 +1,198 @@
+package org.example.traf.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Bir {@link SimulationEngine}'in tüm durumunun ikili kontrol noktası: saat ve adım sayısı, araç
+ * slotları, şerit kuyrukları, dedektörler, ölçütler, bekleyen olaylar (sıradaki araç girişleri ve
+ * sarının bitişi), talep akışlarının rastgele sayı durumları, faz ve kalan süresi ile kontrol
+ * stratejisinin durumu.
+ *
+ * <p>Motorun {@link Random}'u yalnızca kurulumda kullanılır; faz sırası stratejinin durumuyla,
+ * talep akışlarının üreteç durumları da akışlarla birlikte yazılır. Bu yüzden geri yüklenen motor
+ * kaydedildiği andan itibaren asıl çalıştırmayla bit bit aynı ilerler. Isınma bir kez
+ * çalıştırılıp aynı kontrol noktasından {@link #restore(Map)} ile farklı yeşil sürelerle çok
+ * sayıda deney dallandırılabilir.</p>
+ *
+ * <p>Kontrol noktası değişmezdir; {@link #restore()} birden çok iş parçacığından aynı anda
+ * çağrılabilir. Biçim (büyük endian): {@code int} sihirli sayı, {@code short} sürüm, adım sayısı,
+ * simülasyon zamanı, kontrol modu ve yeşil süreler, ardından motorun durumu.</p>
+ */
+public final class SimulationCheckpoint {
+
+    // "TRFC"
+    private static final int MAGIC = 0x54524643;
+    private static final short VERSION = 2;
+
+    private final byte[] data;
+    private final long tickCount;
+    private final double simulationTime;
+    private final SignalControlMode controlMode;
+    private final Map<String, Integer> greenDurations;
+
+    private SimulationCheckpoint(byte[] data, long tickCount, double simulationTime, SignalControlMode controlMode,
+                                 Map<String, Integer> greenDurations) {
+        this.data = data;
+        this.tickCount = tickCount;
+        this.simulationTime = simulationTime;
+        this.controlMode = controlMode;
+        this.greenDurations = greenDurations;
+    }
+
+    /**
+     * Motorun şu anki durumunu kaydeder; motor değişmez ve çalışmaya devam edebilir.
+     */
+    public static SimulationCheckpoint capture(SimulationEngine engine) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeLong(engine.getTickCount());
+            out.writeDouble(engine.getSimulationTime());
+            out.writeUTF(engine.getControlMode().name());
+            writeMap(out, engine.getGreenDurations());
+            engine.writeState(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new SimulationCheckpoint(bytes.toByteArray(), engine.getTickCount(), engine.getSimulationTime(),
+                engine.getControlMode(), new LinkedHashMap<>(engine.getGreenDurations()));
+    }
+
+    /**
+     * Kaydedilen planla yeni bir motor kurar.
+     */
+    public SimulationEngine restore() {
+        return restore(greenDurations);
+    }
+
+    /**
+     * Kaydedilen andan {@code greenDurations} planıyla devam eden yeni bir motor kurar. Faz sırası
+     * ve süren faz kaydedildiği gibidir; yeni plan süren yeşilin üst sınırından itibaren geçerlidir.
+     */
+    public SimulationEngine restore(Map<String, Integer> greenDurations) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            readHeader(in);
+            SimulationEngine engine = new SimulationEngine(greenDurations, controlMode, new Random(0));
+            engine.readState(in);
+            return engine;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt simulation checkpoint", e);
+        }
+    }
+
+    public static SimulationCheckpoint fromBytes(byte[] bytes) throws IOException {
+        byte[] data = bytes.clone();
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            return readHeader(in).withData(data);
+        }
+    }
+
+    public static SimulationCheckpoint read(Path file) throws IOException {
+        byte[] data = Files.readAllBytes(file);
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            return readHeader(in).withData(data);
+        } catch (IOException e) {
+            throw new IOException(e.getMessage() + ": " + file, e);
+        }
+    }
+
+    public void write(Path file) throws IOException {
+        Files.write(file, data);
+    }
+
+    public byte[] toBytes() {
+        return data.clone();
+    }
+
+    private SimulationCheckpoint withData(byte[] bytes) {
+        return new SimulationCheckpoint(bytes, tickCount, simulationTime, controlMode, greenDurations);
+    }
+
+    private static SimulationCheckpoint readHeader(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a simulation checkpoint");
+        }
+        short version = in.readShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported checkpoint version " + version);
+        }
+        long tickCount = in.readLong();
+        double simulationTime = in.readDouble();
+        SignalControlMode controlMode = SignalControlMode.valueOf(in.readUTF());
+        Map<String, Integer> greenDurations = readMap(in);
+        return new SimulationCheckpoint(null, tickCount, simulationTime, controlMode, greenDurations);
+    }
+
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    public double getSimulationTime() {
+        return simulationTime;
+    }
+
+    public SignalControlMode getControlMode() {
+        return controlMode;
+    }
+
+    public Map<String, Integer> getGreenDurations() {
+        return new LinkedHashMap<>(greenDurations);
+    }
+
+    /**
+     * Kontrol noktasının bayt cinsinden boyutu.
+     */
+    public int size() {
+        return data.length;
+    }
+
+    static void writeInts(DataOutput out, int[] values) throws IOException {
+        out.writeInt(values.length);
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    /**
+     * {@code values} dizisinin yerine okur; uzunluk yazılanla aynı olmalıdır.
+     */
+    static void readInts(DataInput in, int[] values) throws IOException {
+        int length = in.readInt();
+        if (length != values.length) {
+            throw new IOException("Expected " + values.length + " values, found " + length);
+        }
+        for (int i = 0; i < length; i++) {
+            values[i] = in.readInt();
+        }
+    }
+
+    private static void writeMap(DataOutput out, Map<String, Integer> values) throws IOException {
+        out.writeInt(values.size());
+        for (Map.Entry<String, Integer> entry : values.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeInt(entry.getValue());
+        }
+    }
+
+    private static Map<String, Integer> readMap(DataInput in) throws IOException {
+        int size = in.readInt();
+        Map<String, Integer> values = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            values.put(in.readUTF(), in.readInt());
+        }
+        return values;
+    }
+}
@@ -0,0 +1,762 @@
+package org.example.traf.model;
+
+import org.example.traf.util.Constants;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * JavaFX'ten bağımsız, sabit adımlı simülasyon motoru. Araç konumlarını, bekleme kuyruklarını ve
+ * ışık fazlarını simülasyon zamanında {@link Constants#SIMULATION_STEP} adımlarla ilerletir;
+ * görünüm yalnızca bu durumu çizer. Ekran olmadan gerçek zamandan hızlı çalıştırılabilir.
+ */
+public class SimulationEngine implements ApproachCounters {
+
+    public interface VehicleVisitor {
+        void visit(int vehicleId, double x, double y, double heading);
+    }
+
+    /**
+     * Sinyal kararlarını adım numarasıyla bildirir; olay günlüğü kayıt ve tekrar oynatmada kullanır.
+     */
+    public interface PhaseObserver {
+        void phaseStarted(long tick, int approach, SignalState state);
+    }
+
+    public static final int MOVEMENT_COUNT = Constants.MOVEMENTS_PER_APPROACH;
+
+    // --- Zamanlayıcı olay türleri ---
+    private static final int EVENT_SPAWN = 0;
+    private static final int EVENT_PHASE_END = 1;
+    private static final int EVENT_ARRIVAL = 2;
+
+    // Adım zamanı kayan nokta çarpımıyla hesaplandığından tam saniyedeki olaylar kaçmasın
+    private static final double TIME_EPSILON = 1e-9;
+
+    // Bu hızın altında kırmızıda bekleyen araç kuyrukta sayılır (piksel/saniye)
+    private static final double STOPPED_SPEED = 1.0;
+
+    private static final SignalState[] SIGNAL_STATES = SignalState.values();
+
+    private final int approachCount = Constants.DIRECTIONS_TURKISH.length;
+    // PathService rota kimliğiyle indekslenir; tablolar tüm motorlar arasında paylaşılır
+    private final RouteGeometry[] routes = new RouteGeometry[PathService.ROUTE_COUNT];
+    private final VehicleStore vehicles = new VehicleStore();
+    private final CarFollowingModel carFollowing = CarFollowingModel.defaults();
+    private final double[] stopLines = new double[approachCount];
+    private final int[] waitingCounts = new int[approachCount];
+    private final LoopDetector[] detectors = LoopDetector.forAllApproaches();
+    private final SignalControlStrategy controlStrategy;
+    private final TrafficMetrics metrics = new TrafficMetrics();
+    private final Map<String, Integer> greenDurations;
+    private final SignalControlMode controlMode;
+
+    // Şerit başına (rota kimliğiyle) öndeki araçtan arkadakine sıralı slot kuyrukları
+    private final LaneQueue[] lanes = new LaneQueue[PathService.ROUTE_COUNT];
+    private final double[] positionBuffer = new double[3];
+    private final EventScheduler scheduler = new EventScheduler(this::handleEvent);
+
+    private double simulationTime;
+    private long tickCount;
+    private double accumulator;
+    private int currentApproach;
+    private SignalState phaseState;
+    private double phaseStartTime;
+    private double phaseEndTime;
+    private boolean finished;
+    private PhaseObserver phaseObserver;
+    // Talep profiliyle kurulan motorda gelişleri üretir; sabit araç sayılarıyla null
+    private DemandGenerator demand;
+    private double endTime = Constants.TOTAL_SIMULATION_TIME;
+    private TrajectoryRecorder trajectoryRecorder;
+
+    // --- Performans ölçütleri ---
+    private int completedCount;
+    private double totalDelay;
+    // Giriş noktasında yer bekleyen araçlar ve planlanan kalkış zamanlarının toplamı
+    private int blockedSpawns;
+    private double blockedSpawnTimeSum;
+
+    public SimulationEngine(Map<String, Integer> greenDurations, Map<String, Integer> vehicleCounts, Random random) {
+        this(greenDurations, vehicleCounts, random, SignalControlMode.FIXED_TIME);
+    }
+
+    /**
+     * Çalıştırmanın akışlarından {@link RandomStreams.Subsystem#SIGNALS} akışını kullanır; aynı tohum
+     * ve girdiler aynı çalıştırmayı verir.
+     */
+    public SimulationEngine(Map<String, Integer> greenDurations, Map<String, Integer> vehicleCounts,
+                            RandomStreams streams, SignalControlMode controlMode) {
+        this(greenDurations, vehicleCounts, streams.stream(RandomStreams.Subsystem.SIGNALS), controlMode);
+    }
+
+    public SimulationEngine(Map<String, Integer> greenDurations, Map<String, Integer> vehicleCounts, Random random,
+                            SignalControlMode controlMode) {
+        this(greenDurations, controlMode, random);
+        for (int approach = 0; approach < approachCount; approach++) {
+            int carCount = vehicleCounts.getOrDefault(Constants.DIRECTIONS_TURKISH[approach], 10);
+            for (int i = 0; i < carCount; i++) {
+                scheduler.scheduleAt(i * Constants.CAR_SPAWN_DELAY, EVENT_SPAWN, approach, i);
+            }
+        }
+
+        // İlk faz sarı beklemeden doğrudan yeşil başlar
+        currentApproach = controlStrategy.firstApproach();
+        startGreen();
+    }
+
+    /**
+     * Araçları sabit sayılar yerine {@code demand} profilinden, gelişleri zamanı geldikçe üreten
+     * motor; çalıştırma profilin sonunda biter. Bekleyen olaylar yalnızca akış başına sıradaki
+     * gelişten ibaret olduğundan bellek toplam talebe değil ağdaki araç sayısına bağlıdır.
+     */
+    public SimulationEngine(Map<String, Integer> greenDurations, DemandProfile demand, RandomStreams streams,
+                            SignalControlMode controlMode) {
+        this(greenDurations, demand, streams.stream(RandomStreams.Subsystem.SIGNALS),
+                streams.stream(RandomStreams.Subsystem.DEMAND).nextLong(), controlMode);
+    }
+
+    /**
+     * @param random     faz sırasının karıştırıldığı akış
+     * @param demandSeed geliş akışlarının tohumu; {@code random}'un çekim sayısından bağımsızdır
+     */
+    public SimulationEngine(Map<String, Integer> greenDurations, DemandProfile demand, Random random,
+                            long demandSeed, SignalControlMode controlMode) {
+        this(greenDurations, controlMode, random);
+        this.demand = new DemandGenerator(demand, demandSeed);
+        this.endTime = demand.getEndTime();
+        for (int stream = 0; stream < DemandProfile.STREAM_COUNT; stream++) {
+            scheduleArrival(stream, 0);
+        }
+
+        currentApproach = controlStrategy.firstApproach();
+        startGreen();
+    }
+
+    /**
+     * Aracı ve fazı olmayan motor; {@link SimulationCheckpoint} durumu bunun üzerine yükler.
+     */
+    SimulationEngine(Map<String, Integer> greenDurations, SignalControlMode controlMode, Random random) {
+        this.greenDurations = new LinkedHashMap<>(greenDurations);
+        this.controlMode = controlMode;
+        for (int routeId = 0; routeId < routes.length; routeId++) {
+            routes[routeId] = PathService.getGeometry(routeId);
+            lanes[routeId] = new LaneQueue();
+        }
+        for (int approach = 0; approach < approachCount; approach++) {
+            // İlk aracın legacy durma noktası şeridin durma çizgisidir; arkadakiler boşluğa göre durur
+            stopLines[approach] = PathService.stopLineOf(approach);
+        }
+        controlStrategy = controlMode.createStrategy(greenDurations, detectors, this, random);
+    }
+
+    /**
+     * Kuyruktaki sırasına göre aracın ışığa giden rotada duracağı ilerleme oranı (0-1).
+     * Yalnızca zaman çizelgesi tabanlı görünüm kullanır; motor araç takip modeliyle durur.
+     */
+    public static double stopPositionFor(int queueIndex) {
+        double stopPos;
+        if (queueIndex == 0) {
+            stopPos = 1.0 - Constants.QUEUE_SPACING;
+        } else if (queueIndex == 1) {
+            stopPos = 1.0 - (Constants.QUEUE_SPACING + Constants.SECOND_CAR_EXTRA_DISTANCE + Constants.QUEUE_SPACING);
+        } else {
+            stopPos = 1.0 - (Constants.QUEUE_SPACING + Constants.SECOND_CAR_EXTRA_DISTANCE + (queueIndex * Constants.QUEUE_SPACING));
+        }
+        return Math.max(0.1, stopPos);
+    }
+
+    public static int approachIndex(String direction) {
+        for (int i = 0; i < Constants.DIRECTIONS_TURKISH.length; i++) {
+            if (Constants.DIRECTIONS_TURKISH[i].equals(direction)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Invalid direction: " + direction);
+    }
+
+    /**
+     * Gerçek zamandan gelen süreyi biriktirir ve tamamlanan sabit adımları çalıştırır.
+     */
+    public int advance(double seconds) {
+        accumulator += seconds;
+        int steps = 0;
+        while (accumulator >= Constants.SIMULATION_STEP && !finished) {
+            accumulator -= Constants.SIMULATION_STEP;
+            step();
+            steps++;
+        }
+        return steps;
+    }
+
+    public void runToCompletion() {
+        while (!finished) {
+            step();
+        }
+    }
+
+    public void step() {
+        if (finished) return;
+
+        SimulationEvents.SimulationStep event = new SimulationEvents.SimulationStep();
+        event.begin();
+        double dt = Constants.SIMULATION_STEP;
+        tickCount++;
+        simulationTime = tickCount * dt;
+
+        scheduler.advanceTo(simulationTime + TIME_EPSILON);
+        if (demand != null) {
+            for (int approach = 0; approach < approachCount; approach++) {
+                admitArrivals(approach);
+            }
+        }
+        if (phaseState == SignalState.GREEN && controlStrategy.shouldEndGreen(simulationTime)) {
+            startYellow();
+        }
+        stepVehicles(dt);
+        for (int approach = 0; approach < approachCount; approach++) {
+            metrics.recordQueueLength(approach, waitingCounts[approach], dt);
+        }
+
+        if (simulationTime >= endTime) {
+            finished = true;
+        }
+        if (trajectoryRecorder != null) {
+            trajectoryRecorder.recordTick(tickCount, vehicles);
+        }
+
+        if (event.shouldCommit()) {
+            event.tick = tickCount;
+            event.activeVehicles = laneVehicleCount();
+            event.simulationTime = simulationTime;
+            event.commit();
+        }
+    }
+
+    private int laneVehicleCount() {
+        int count = 0;
+        for (LaneQueue lane : lanes) {
+            count += lane.size();
+        }
+        return count;
+    }
+
+    private void handleEvent(int type, int arg0, int arg1) {
+        switch (type) {
+            case EVENT_SPAWN -> spawn(arg0, arg1);
+            case EVENT_PHASE_END -> startGreen();
+            case EVENT_ARRIVAL -> arrive(arg0);
+            default -> throw new IllegalStateException("Unknown event type: " + type);
+        }
+    }
+
+    /**
+     * Yeşilin bitişi zamanlanmaz; strateji her adımda yoklanır ve {@link #phaseEndTime} yalnızca
+     * stratejinin üst sınırını gösterir. Sarı sabit sürelidir ve olay olarak zamanlanır.
+     */
+    private void startGreen() {
+        if (phaseState != null) {
+            SimulationEvents.phaseEnded(currentApproach, phaseState, phaseStartTime, scheduler.getNow());
+        }
+        phaseState = SignalState.GREEN;
+        phaseStartTime = scheduler.getNow();
+        SimulationEvents.phaseStarted(currentApproach, phaseState, phaseStartTime);
+        phaseEndTime = phaseStartTime + controlStrategy.getGreenLimit(currentApproach);
+        controlStrategy.greenStarted(currentApproach, phaseStartTime);
+        if (phaseObserver != null) {
+            phaseObserver.phaseStarted(tickCount, currentApproach, phaseState);
+        }
+    }
+
+    private void startYellow() {
+        SimulationEvents.phaseEnded(currentApproach, phaseState, phaseStartTime, simulationTime);
+        currentApproach = controlStrategy.nextApproach(simulationTime);
+        phaseState = SignalState.YELLOW;
+        phaseStartTime = simulationTime;
+        SimulationEvents.phaseStarted(currentApproach, phaseState, phaseStartTime);
+        phaseEndTime = phaseStartTime + Constants.YELLOW_DURATION;
+        scheduler.scheduleAt(phaseEndTime, EVENT_PHASE_END, 0, 0);
+        if (phaseObserver != null) {
+            phaseObserver.phaseStarted(tickCount, currentApproach, phaseState);
+        }
+    }
+
+    private void spawn(int approach, int index) {
+        double scheduledTime = index * Constants.CAR_SPAWN_DELAY;
+        boolean retry = scheduler.getNow() > scheduledTime + TIME_EPSILON;
+        double speed = entrySpeed(approach);
+        if (speed < 0) {
+            if (!retry) {
+                blockedSpawns++;
+                blockedSpawnTimeSum += scheduledTime;
+            }
+            scheduler.schedule(Constants.SIMULATION_STEP, EVENT_SPAWN, approach, index);
+            return;
+        }
+        if (retry) {
+            blockedSpawns--;
+            blockedSpawnTimeSum -= scheduledTime;
+        }
+        enter(approach, index % MOVEMENT_COUNT, index, scheduledTime, speed);
+    }
+
+    private void scheduleArrival(int stream, double after) {
+        double time = demand.nextArrival(stream, after);
+        if (time < endTime) {
+            scheduler.scheduleAt(time, EVENT_ARRIVAL, stream, 0);
+        }
+    }
+
+    /**
+     * Talep akışından bir geliş: araç girişte sıraya girer ve yer varsa hemen girer. Girişte bekleyen
+     * araçların gecikmesi sabit sayılı girişlerdeki gibi geliş anından sayılır.
+     */
+    private void arrive(int stream) {
+        double now = scheduler.getNow();
+        demand.arrive(stream, now);
+        blockedSpawns++;
+        blockedSpawnTimeSum += now;
+        scheduleArrival(stream, now);
+        admitArrivals(DemandGenerator.approachOf(stream));
+    }
+
+    private void admitArrivals(int approach) {
+        while (demand.getWaitingCount(approach) > 0) {
+            double speed = entrySpeed(approach);
+            if (speed < 0) return;
+            double arrivalTime = demand.peekWaitingTime(approach);
+            int movement = demand.peekWaitingMovement(approach);
+            int ordinal = demand.removeWaiting(approach);
+            blockedSpawns--;
+            blockedSpawnTimeSum -= arrivalTime;
+            enter(approach, movement, ordinal, arrivalTime, speed);
+        }
+    }
+
+    /**
+     * Yaklaşımın girişine araç sığıyorsa giriş hızı, sığmıyorsa -1.
+     */
+    private double entrySpeed(int approach) {
+        LaneQueue lane = lanes[PathService.toLightRouteId(approach)];
+        if (lane.isEmpty()) {
+            return carFollowing.getDesiredSpeed();
+        }
+        int rear = lane.peekLast();
+        double gap = vehicles.getDistance(rear) - carFollowing.getVehicleLength();
+        if (gap < carFollowing.getMinimumGap()) {
+            // Kuyruk giriş noktasına kadar uzadı; araç yer açılınca girer
+            return -1;
+        }
+        return carFollowing.safeEntrySpeed(gap, vehicles.getSpeed(rear));
+    }
+
+    private void enter(int approach, int movement, int index, double entryTime, double speed) {
+        int slot = vehicles.allocate(approach, PathService.afterLightRouteId(approach, movement), index,
+                stopLines[approach], entryTime);
+        vehicles.setSpeed(slot, speed);
+        lanes[PathService.toLightRouteId(approach)].addLast(slot);
+        SimulationEvents.vehicleSpawned(approach, index, scheduler.getNow());
+    }
+
+    private void stepVehicles(double dt) {
+        // Çıkış şeritleri önce ilerler; ışığı bu adımda geçen araç aynı adımda iki kez ilerlemez
+        for (int lane = approachCount; lane < PathService.ROUTE_COUNT; lane++) {
+            stepLane(lane, Double.POSITIVE_INFINITY, 0, dt);
+        }
+        for (int approach = 0; approach < approachCount; approach++) {
+            int lane = PathService.toLightRouteId(approach);
+            double leaderDistance = Double.POSITIVE_INFINITY;
+            double leaderSpeed = 0;
+            if (!lanes[lane].isEmpty()) {
+                // Şeridin başındaki aracın öncüsü, gideceği çıkış şeridinin en arkasındaki araçtır
+                LaneQueue exitLane = lanes[vehicles.getPathId(lanes[lane].peekFirst())];
+                if (!exitLane.isEmpty()) {
+                    int rear = exitLane.peekLast();
+                    leaderDistance = routes[lane].getLength() + vehicles.getDistance(rear);
+                    leaderSpeed = vehicles.getSpeed(rear);
+                }
+            }
+            stepLane(lane, leaderDistance, leaderSpeed, dt);
+        }
+    }
+
+    /**
+     * Şeritteki araçları öndekinden başlayarak tek geçişte ilerletir. Her araç öncüsünün adım
+     * başındaki konum ve hızını görür; bunlar yerel değişkenlerde taşındığından geçiş nesne ayırmaz.
+     */
+    private void stepLane(int lane, double leaderDistance, double leaderSpeed, double dt) {
+        boolean toLight = PathService.isToLightRoute(lane);
+        int approach = PathService.approachOfRoute(lane);
+        boolean green = isGreen(approach);
+        boolean red = getSignalState(approach) == SignalState.RED;
+        double stopLine = stopLines[approach];
+        double vehicleLength = carFollowing.getVehicleLength();
+        int waiting = 0;
+
+        LaneQueue queue = lanes[lane];
+        int count = queue.size();
+        for (int i = 0; i < count; i++) {
+            int slot = queue.get(i);
+            double distance = vehicles.getDistance(slot);
+            double speed = vehicles.getSpeed(slot);
+
+            double acceleration = leaderDistance == Double.POSITIVE_INFINITY
+                    ? carFollowing.freeRoadAcceleration(speed)
+                    : carFollowing.acceleration(speed, leaderDistance - distance - vehicleLength, leaderSpeed);
+            if (toLight && !green && distance < stopLine && mustStopAtLine(slot, speed, stopLine - distance, red)) {
+                // Durma çizgisi hızı sıfır bir öncü gibi davranır; araç merkezi çizgide durur
+                acceleration = Math.min(acceleration,
+                        carFollowing.acceleration(speed, stopLine - distance + carFollowing.getMinimumGap(), 0));
+            }
+
+            double newSpeed = speed + acceleration * dt;
+            double newDistance;
+            if (newSpeed < 0) {
+                // Adım içinde durur; geri gitmeden durma noktasında kalır
+                newDistance = distance - speed * speed / (2 * acceleration);
+                newSpeed = 0;
+            } else {
+                newDistance = distance + (speed + newSpeed) * 0.5 * dt;
+            }
+            // Şerit sırası korunur: araç öncüsünün adım başındaki konumunu aşamaz
+            newDistance = Math.max(distance, Math.min(newDistance, leaderDistance - vehicleLength));
+
+            vehicles.setDistance(slot, newDistance);
+            vehicles.setSpeed(slot, newSpeed);
+            leaderDistance = distance;
+            leaderSpeed = speed;
+
+            if (toLight) {
+                detectors[approach].vehicleMoved(distance, newDistance, simulationTime);
+                int stage = vehicles.getStage(slot);
+                if (!green && newSpeed < STOPPED_SPEED && newDistance <= stopLine) {
+                    if (stage != VehicleStore.STAGE_WAITING) {
+                        vehicles.setStage(slot, VehicleStore.STAGE_WAITING);
+                        vehicles.setFlag(slot, VehicleStore.FLAG_REACHED_STOP, true);
+                        vehicles.setQueueEntryTime(slot, simulationTime);
+                        SimulationEvents.stoppedAtRed(approach, waiting + 1, simulationTime);
+                    }
+                    waiting++;
+                } else if (stage == VehicleStore.STAGE_WAITING) {
+                    vehicles.setStage(slot, VehicleStore.STAGE_TO_LIGHT);
+                    vehicles.setFlag(slot, VehicleStore.FLAG_EXITED_QUEUE, true);
+                    double stopDelay = simulationTime - vehicles.getQueueEntryTime(slot);
+                    vehicles.addStopDelay(slot, stopDelay);
+                    SimulationEvents.queueDischarged(approach, stopDelay, simulationTime);
+                }
+            }
+        }
+        if (toLight) {
+            waitingCounts[approach] = waiting;
+        }
+
+        // Rotanın sonuna ulaşan araçlar yalnızca şeridin başından çıkabilir
+        double routeLength = routes[lane].getLength();
+        while (!queue.isEmpty()) {
+            int slot = queue.peekFirst();
+            double overflow = vehicles.getDistance(slot) - routeLength;
+            if (overflow < 0) break;
+            queue.removeFirst();
+            if (toLight) {
+                // Işığı geçen araç kalan yolu çıkış rotasında sürdürür
+                vehicles.setDistance(slot, overflow);
+                vehicles.setStage(slot, VehicleStore.STAGE_AFTER_LIGHT);
+                lanes[vehicles.getPathId(slot)].addLast(slot);
+            } else {
+                recordCompletion(slot);
+                vehicles.release(slot);
+            }
+        }
+    }
+
+    /**
+     * Gecikme, serbest akış süresini aşan yolculuk süresidir; giriş anı planlanan kalkış zamanı
+     * olduğundan giriş noktasında yer beklemek de gecikmeye dahildir.
+     */
+    private void recordCompletion(int slot) {
+        int approach = vehicles.getApproach(slot);
+        int pathId = vehicles.getPathId(slot);
+        double freeFlowLength = routes[PathService.toLightRouteId(approach)].getLength() + routes[pathId].getLength();
+        double travelTime = simulationTime - vehicles.getEntryTime(slot);
+        double delay = Math.max(0, travelTime - freeFlowLength / carFollowing.getDesiredSpeed());
+        totalDelay += delay;
+        completedCount++;
+        metrics.recordCompletion(approach, PathService.movementOfRoute(pathId), travelTime, delay,
+                vehicles.getStopDelay(slot));
+    }
+
+    /**
+     * Sarı ışıkta konforlu frenle duramayacak araç geçmeye karar verir ve bu kararını korur.
+     */
+    private boolean mustStopAtLine(int slot, double speed, double gapToLine, boolean red) {
+        if (vehicles.hasFlag(slot, VehicleStore.FLAG_CHECKED_LIGHT)) {
+            return false;
+        }
+        if (!red && !carFollowing.canStopWithin(speed, gapToLine)) {
+            vehicles.setFlag(slot, VehicleStore.FLAG_CHECKED_LIGHT, true);
+            return false;
+        }
+        return true;
+    }
+
+    public void forEachVehicle(VehicleVisitor visitor) {
+        int highWater = vehicles.getHighWater();
+        for (int slot = 0; slot < highWater; slot++) {
+            if (!vehicles.isAlive(slot)) continue;
+
+            RouteGeometry route;
+            switch (vehicles.getStage(slot)) {
+                case VehicleStore.STAGE_TO_LIGHT, VehicleStore.STAGE_WAITING -> route = routes[PathService.toLightRouteId(vehicles.getApproach(slot))];
+                case VehicleStore.STAGE_AFTER_LIGHT -> route = routes[vehicles.getPathId(slot)];
+                default -> {
+                    continue;
+                }
+            }
+            route.positionAt(vehicles.getDistance(slot), positionBuffer);
+            visitor.visit(vehicles.getVehicleId(slot), positionBuffer[0], positionBuffer[1], positionBuffer[2]);
+        }
+    }
+
+    public boolean isGreen(int approach) {
+        return phaseState == SignalState.GREEN && currentApproach == approach;
+    }
+
+    public SignalState getSignalState(int approach) {
+        return currentApproach == approach ? phaseState : SignalState.RED;
+    }
+
+    public int getCurrentApproach() {
+        return currentApproach;
+    }
+
+    @Override
+    public int getUpstreamCount(int approach) {
+        return lanes[PathService.toLightRouteId(approach)].size();
+    }
+
+    @Override
+    public int getDownstreamCount(int approach) {
+        int count = 0;
+        for (int movement = 0; movement < MOVEMENT_COUNT; movement++) {
+            count += lanes[PathService.afterLightRouteId(approach, movement)].size();
+        }
+        return count;
+    }
+
+    public double getPhaseRemaining() {
+        return Math.max(0, phaseEndTime - simulationTime);
+    }
+
+    public LoopDetector getDetector(int approach) {
+        return detectors[approach];
+    }
+
+    public int getWaitingCount(int approach) {
+        return waitingCounts[approach];
+    }
+
+    public int getActiveVehicleCount() {
+        int count = 0;
+        int highWater = vehicles.getHighWater();
+        for (int slot = 0; slot < highWater; slot++) {
+            if (vehicles.isAlive(slot)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public VehicleStore getVehicleStore() {
+        return vehicles;
+    }
+
+    public double getSimulationTime() {
+        return simulationTime;
+    }
+
+    public double getTimeRemaining() {
+        return Math.max(0, endTime - simulationTime);
+    }
+
+    /**
+     * Çalıştırmanın bittiği simülasyon zamanı (saniye); talep profiliyle profilin sonu.
+     */
+    public double getEndTime() {
+        return endTime;
+    }
+
+    /**
+     * Talep profilinden şu ana kadar gelen araç sayısı; sabit araç sayılarıyla kurulan motorda 0.
+     */
+    public int getArrivalCount() {
+        if (demand == null) return 0;
+        int count = 0;
+        for (int approach = 0; approach < approachCount; approach++) {
+            count += demand.getArrivalCount(approach);
+        }
+        return count;
+    }
+
+    /**
+     * Çıkış rotasının sonuna ulaşıp simülasyondan ayrılan araç sayısı.
+     */
+    public int getCompletedCount() {
+        return completedCount;
+    }
+
+    public double getTotalDelay() {
+        return totalDelay;
+    }
+
+    /**
+     * Ayrılan araç başına ortalama gecikme (saniye); henüz ayrılan yoksa 0.
+     */
+    public double getAverageDelay() {
+        return completedCount == 0 ? 0 : totalDelay / completedCount;
+    }
+
+    /**
+     * Şu ana kadar biriken toplam gecikme (araç-saniye): ayrılan araçların gecikmesine ek olarak
+     * hâlâ yolda olanların ve girişte yer bekleyenlerin o ana kadarki gecikmesi. Bir yaklaşımı hiç
+     * boşaltmayan planlar da böylece cezalandırılır.
+     */
+    public double getCumulativeDelay() {
+        double delay = totalDelay + blockedSpawns * simulationTime - blockedSpawnTimeSum;
+        double desiredSpeed = carFollowing.getDesiredSpeed();
+        int highWater = vehicles.getHighWater();
+        for (int slot = 0; slot < highWater; slot++) {
+            if (!vehicles.isAlive(slot)) continue;
+
+            double travelled = vehicles.getDistance(slot);
+            if (vehicles.getStage(slot) == VehicleStore.STAGE_AFTER_LIGHT) {
+                travelled += routes[PathService.toLightRouteId(vehicles.getApproach(slot))].getLength();
+            }
+            delay += Math.max(0, simulationTime - vehicles.getEntryTime(slot) - travelled / desiredSpeed);
+        }
+        return delay;
+    }
+
+    /**
+     * Yaklaşım başına zaman ağırlıklı ortalama kuyruk uzunluğu (araç).
+     */
+    public double getAverageQueueLength() {
+        double sum = 0;
+        for (int approach = 0; approach < approachCount; approach++) {
+            sum += metrics.getAverageQueueLength(approach);
+        }
+        return sum / approachCount;
+    }
+
+    /**
+     * Kurulumda başlayan ilk yeşil bildirilmez; o an {@link #getCurrentApproach()} ile okunur.
+     */
+    public void setPhaseObserver(PhaseObserver phaseObserver) {
+        this.phaseObserver = phaseObserver;
+    }
+
+    /**
+     * Her adımın sonunda araç durumlarını kaydeder; kaydedici motorun iş parçacığına aittir ve
+     * çağıran tarafından kapatılır.
+     */
+    public void setTrajectoryRecorder(TrajectoryRecorder trajectoryRecorder) {
+        this.trajectoryRecorder = trajectoryRecorder;
+    }
+
+    /**
+     * Yaklaşım ve hareket başına ölçütler; motorla aynı iş parçacığından okunmalıdır.
+     */
+    public TrafficMetrics getMetrics() {
+        return metrics;
+    }
+
+    public Map<String, Integer> getGreenDurations() {
+        return Collections.unmodifiableMap(greenDurations);
+    }
+
+    public SignalControlMode getControlMode() {
+        return controlMode;
+    }
+
+    /**
+     * Araçları, şeritleri, dedektörleri, ölçütleri, bekleyen olayları, talep akışlarını ve
+     * stratejinin durumunu yazar. Gözlemci ve yörünge kaydedicisi durumun parçası değildir.
+     */
+    void writeState(DataOutput out) throws IOException {
+        out.writeDouble(simulationTime);
+        out.writeLong(tickCount);
+        out.writeDouble(accumulator);
+        out.writeInt(currentApproach);
+        out.writeByte(phaseState.ordinal());
+        out.writeDouble(phaseStartTime);
+        out.writeDouble(phaseEndTime);
+        out.writeBoolean(finished);
+        out.writeDouble(endTime);
+        out.writeBoolean(demand != null);
+        if (demand != null) {
+            demand.writeState(out);
+        }
+        out.writeInt(completedCount);
+        out.writeDouble(totalDelay);
+        out.writeInt(blockedSpawns);
+        out.writeDouble(blockedSpawnTimeSum);
+        SimulationCheckpoint.writeInts(out, waitingCounts);
+        vehicles.writeState(out);
+        for (LaneQueue lane : lanes) {
+            lane.writeState(out);
+        }
+        for (LoopDetector detector : detectors) {
+            detector.writeState(out);
+        }
+        metrics.writeState(out);
+        scheduler.writeState(out);
+        controlStrategy.writeState(out);
+    }
+
+    /**
+     * {@link #writeState} ile yazılan durumu yükler. Süren yeşilin üst sınırı bu motorun planından
+     * yeniden hesaplanır; böylece aynı andan farklı yeşil sürelerle devam edilebilir.
+     */
+    void readState(DataInput in) throws IOException {
+        simulationTime = in.readDouble();
+        tickCount = in.readLong();
+        accumulator = in.readDouble();
+        currentApproach = in.readInt();
+        phaseState = SIGNAL_STATES[in.readUnsignedByte()];
+        phaseStartTime = in.readDouble();
+        phaseEndTime = in.readDouble();
+        finished = in.readBoolean();
+        endTime = in.readDouble();
+        demand = in.readBoolean() ? DemandGenerator.readState(in) : null;
+        completedCount = in.readInt();
+        totalDelay = in.readDouble();
+        blockedSpawns = in.readInt();
+        blockedSpawnTimeSum = in.readDouble();
+        SimulationCheckpoint.readInts(in, waitingCounts);
+        vehicles.readState(in);
+        for (LaneQueue lane : lanes) {
+            lane.readState(in);
+        }
+        for (LoopDetector detector : detectors) {
+            detector.readState(in);
+        }
+        metrics.readState(in);
+        scheduler.readState(in);
+        controlStrategy.readState(in);
+        if (phaseState == SignalState.GREEN) {
+            phaseEndTime = phaseStartTime + controlStrategy.getGreenLimit(currentApproach);
+        }
+    }
+
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+}
@@ -0,0 +1,181 @@
+package org.example.traf.model;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+import org.example.traf.util.Constants;
+
+/**
+ * Simülasyonun Java Flight Recorder olayları. Kayıtta GC duraklamaları ve sıcak yöntemler bu
+ * olaylarla aynı zaman ekseninde görünür; böylece bir takılmanın hangi faz, kuyruk boşalması ya da
+ * adım sırasında olduğu okunabilir.
+ *
+ * <p>Olaylar kayıt ayarlarıyla (JMC, {@code jcmd JFR.configure} ya da {@code jfr configure} ile
+ * üretilen .jfc) çalışırken açılıp kapatılır. Kapalı bir olayın maliyeti {@link Event#isEnabled()}
+ * denetimidir; nesne kaçmadığından JIT ayırmayı da kaldırır. Alanlar yalnızca olay yazılacaksa
+ * doldurulur. Anlık olaylar yardımcı yöntemlerle, süreli olaylar çağıranda
+ * {@code begin()}/{@code shouldCommit()}/{@code commit()} ile yazılır.</p>
+ */
+public final class SimulationEvents {
+
+    private static final String CATEGORY = "Traffic Simulation";
+
+    private SimulationEvents() {
+    }
+
+    @Name("org.example.traf.VehicleSpawn")
+    @Label("Vehicle Spawn")
+    @Category({CATEGORY, "Vehicles"})
+    @StackTrace(false)
+    public static final class VehicleSpawn extends Event {
+        @Label("Approach")
+        public String approach;
+        @Label("Vehicle Index")
+        public int index;
+        @Label("Simulation Time (s)")
+        public double simulationTime;
+    }
+
+    @Name("org.example.traf.StopAtRed")
+    @Label("Stop At Red")
+    @Description("A vehicle joined the queue at a red or yellow light")
+    @Category({CATEGORY, "Vehicles"})
+    @StackTrace(false)
+    public static final class StopAtRed extends Event {
+        @Label("Approach")
+        public String approach;
+        @Label("Queue Length")
+        public int queueLength;
+        @Label("Simulation Time (s)")
+        public double simulationTime;
+    }
+
+    @Name("org.example.traf.QueueDischarge")
+    @Label("Queue Discharge")
+    @Description("A waiting vehicle left the queue on green")
+    @Category({CATEGORY, "Vehicles"})
+    @StackTrace(false)
+    public static final class QueueDischarge extends Event {
+        @Label("Approach")
+        public String approach;
+        @Label("Stop Delay")
+        @Timespan(Timespan.MILLISECONDS)
+        public long stopDelay;
+        @Label("Simulation Time (s)")
+        public double simulationTime;
+    }
+
+    @Name("org.example.traf.PhaseStart")
+    @Label("Signal Phase Start")
+    @Category({CATEGORY, "Signals"})
+    @StackTrace(false)
+    public static final class PhaseStart extends Event {
+        @Label("Approach")
+        public String approach;
+        @Label("State")
+        public String state;
+        @Label("Simulation Time (s)")
+        public double simulationTime;
+    }
+
+    @Name("org.example.traf.PhaseEnd")
+    @Label("Signal Phase End")
+    @Category({CATEGORY, "Signals"})
+    @StackTrace(false)
+    public static final class PhaseEnd extends Event {
+        @Label("Approach")
+        public String approach;
+        @Label("State")
+        public String state;
+        @Label("Phase Length")
+        @Timespan(Timespan.MILLISECONDS)
+        public long phaseLength;
+        @Label("Simulation Time (s)")
+        public double simulationTime;
+    }
+
+    /**
+     * Bir simülasyon ilerletmesinin gerçek süresi: motor adımı, ağ adımı ya da zaman çizelgesi
+     * modunda bir karede işlenen zamanlayıcı olayları.
+     */
+    @Name("org.example.traf.SimulationStep")
+    @Label("Simulation Step")
+    @Category({CATEGORY, "Engine"})
+    @StackTrace(false)
+    public static final class SimulationStep extends Event {
+        @Label("Tick")
+        public long tick;
+        @Label("Active Vehicles")
+        public int activeVehicles;
+        @Label("Simulation Time (s)")
+        public double simulationTime;
+    }
+
+    @Name("org.example.traf.RenderFrame")
+    @Label("Render Frame")
+    @Category({CATEGORY, "Rendering"})
+    @StackTrace(false)
+    public static final class RenderFrame extends Event {
+        @Label("Renderer")
+        public String renderer;
+        @Label("Vehicles")
+        public int vehicles;
+        @Label("Snapshot Sequence")
+        public long sequence;
+    }
+
+    static void vehicleSpawned(int approach, int index, double simulationTime) {
+        VehicleSpawn event = new VehicleSpawn();
+        if (event.isEnabled()) {
+            event.approach = Constants.DIRECTIONS_TURKISH[approach];
+            event.index = index;
+            event.simulationTime = simulationTime;
+            event.commit();
+        }
+    }
+
+    static void stoppedAtRed(int approach, int queueLength, double simulationTime) {
+        StopAtRed event = new StopAtRed();
+        if (event.isEnabled()) {
+            event.approach = Constants.DIRECTIONS_TURKISH[approach];
+            event.queueLength = queueLength;
+            event.simulationTime = simulationTime;
+            event.commit();
+        }
+    }
+
+    static void queueDischarged(int approach, double stopDelay, double simulationTime) {
+        QueueDischarge event = new QueueDischarge();
+        if (event.isEnabled()) {
+            event.approach = Constants.DIRECTIONS_TURKISH[approach];
+            event.stopDelay = Math.round(stopDelay * 1000);
+            event.simulationTime = simulationTime;
+            event.commit();
+        }
+    }
+
+    static void phaseStarted(int approach, SignalState state, double simulationTime) {
+        PhaseStart event = new PhaseStart();
+        if (event.isEnabled()) {
+            event.approach = Constants.DIRECTIONS_TURKISH[approach];
+            event.state = state.name();
+            event.simulationTime = simulationTime;
+            event.commit();
+        }
+    }
+
+    static void phaseEnded(int approach, SignalState state, double startTime, double simulationTime) {
+        PhaseEnd event = new PhaseEnd();
+        if (event.isEnabled()) {
+            event.approach = Constants.DIRECTIONS_TURKISH[approach];
+            event.state = state.name();
+            event.phaseLength = Math.round((simulationTime - startTime) * 1000);
+            event.simulationTime = simulationTime;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.traf.model;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Motor iş parçacığından görünüme durum aktaran kilitsiz tampon. Yazar arka kopyayı doldurur,
+ * okuyucu ön kopyayı çizer; ikisi arasında takas için tek bir ara kopya atomik olarak el
+ * değiştirir. Hiçbir taraf diğerini beklemez ve bir kopya aynı anda iki iş parçacığında olmaz.
+ *
+ * <p>{@link #publish(SimulationEngine)} yalnızca yazar, {@link #acquireLatest()} yalnızca okuyucu
+ * iş parçacığından çağrılmalıdır.</p>
+ */
+public final class SnapshotBuffer {
+
+    private final AtomicReference<EngineSnapshot> middle = new AtomicReference<>(new EngineSnapshot());
+    private EngineSnapshot back = new EngineSnapshot();
+    private EngineSnapshot front = new EngineSnapshot();
+    private long nextSequence = 1;
+
+    /**
+     * Motorun durumunu arka kopyaya yazar ve onu en yeni durum olarak yayınlar.
+     */
+    public void publish(SimulationEngine engine) {
+        back.capture(engine, nextSequence++);
+        back = middle.getAndSet(back);
+    }
+
+    /**
+     * Yayınlanmış daha yeni bir durum varsa onu alır; yoksa son alınan kopyayı döndürür.
+     * Dönen kopya bir sonraki çağrıya kadar okuyucuya aittir.
+     */
+    public EngineSnapshot acquireLatest() {
+        if (middle.get().getSequence() > front.getSequence()) {
+            front = middle.getAndSet(front);
+        }
+        return front;
+    }
+}
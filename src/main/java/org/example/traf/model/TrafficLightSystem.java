@@ -1,161 +1,216 @@
 package org.example.traf.model;
 
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
 import javafx.application.Platform;
 import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
-import javafx.util.Duration;
 import org.example.traf.view.DynamicTrafficLightsView;
 import org.example.traf.util.Constants;
 
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class TrafficLightSystem {
     private final DynamicTrafficLightsView dynamicTrafficLightsView;
-    private final Map<String, Integer> greenDurations;
-    private Timeline currentPhaseTimeline;
+    private final EventScheduler scheduler;
+    private long currentPhaseEvent = EventScheduler.INVALID_HANDLE;
     private Runnable onPhaseCompleteCallback;
-    private String currentLightDirection;
     private int currentLightRemainingDuration;
-
-    public TrafficLightSystem(Pane parentPane, double width, double height, Map<String, Integer> greenDurations) {
+    private final Map<String, List<SignalPhaseListener>> phaseListeners = new ConcurrentHashMap<>();
+    private String activePhaseDirection;
+    private SignalState activePhaseState;
+    private final LoopDetector[] detectors = LoopDetector.forAllApproaches();
+    private SignalControlStrategy controlStrategy;
+    private double greenLimitTime;
+    private double activePhaseStartTime;
+
+    public TrafficLightSystem(Pane parentPane, double width, double height, EventScheduler scheduler) {
         this.dynamicTrafficLightsView = new DynamicTrafficLightsView(parentPane, width, height);
-        this.greenDurations = greenDurations;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Yeşillerin ne zaman biteceğine karar veren strateji; faz sırasını süren kontrolcü ile aynı
+     * örnek olmalıdır.
+     */
+    public void setControlStrategy(SignalControlStrategy controlStrategy) {
+        this.controlStrategy = controlStrategy;
+    }
+
+    public void addPhaseListener(String direction, SignalPhaseListener listener) {
+        phaseListeners.computeIfAbsent(direction, key -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    public void removePhaseListener(String direction, SignalPhaseListener listener) {
+        List<SignalPhaseListener> listeners = phaseListeners.get(direction);
+        if (listeners != null) {
+            listeners.remove(listener);
+        }
+    }
+
+    /**
+     * Görünüm güncellendikten sonra FX iş parçacığında çağrılır; böylece dinleyiciler
+     * {@link #isGreen(String)} ile tutarlı bir durum görür.
+     */
+    private void changeActivePhase(String direction, SignalState state) {
+        String previousDirection = activePhaseDirection;
+        SignalState previousState = activePhaseState;
+        activePhaseDirection = direction;
+        activePhaseState = state;
+
+        double now = scheduler.getNow();
+        if (previousDirection != null) {
+            SimulationEvents.phaseEnded(SimulationEngine.approachIndex(previousDirection), previousState,
+                    activePhaseStartTime, now);
+            notifyPhaseExited(previousDirection, previousState);
+        }
+        if (direction != null) {
+            activePhaseStartTime = now;
+            SimulationEvents.phaseStarted(SimulationEngine.approachIndex(direction), state, now);
+            notifyPhaseEntered(direction, state);
+        }
+    }
+
+    private void notifyPhaseEntered(String direction, SignalState state) {
+        List<SignalPhaseListener> listeners = phaseListeners.get(direction);
+        if (listeners == null) return;
+        for (SignalPhaseListener listener : listeners) {
+            listener.onPhaseEntered(direction, state);
+        }
+    }
+
+    private void notifyPhaseExited(String direction, SignalState state) {
+        List<SignalPhaseListener> listeners = phaseListeners.get(direction);
+        if (listeners == null) return;
+        for (SignalPhaseListener listener : listeners) {
+            listener.onPhaseExited(direction, state);
+        }
     }
 
     public synchronized void startLightCycle(String direction, boolean isFirstPhase, Runnable onCompleteCallback) {
         this.onPhaseCompleteCallback = onCompleteCallback;
-        this.currentLightDirection = direction;
 
+        if (controlStrategy == null) {
+            throw new IllegalStateException("Control strategy is not set");
+        }
         if (isFirstPhase) {
-            runGreenPhase(direction, greenDurations.getOrDefault(direction, Constants.MIN_GREEN_DURATION));
+            runGreenPhase(direction);
         } else {
-            runYellowPhase(direction, () -> runGreenPhase(direction, greenDurations.getOrDefault(direction, Constants.MIN_GREEN_DURATION)));
+            runYellowPhase(direction, () -> runGreenPhase(direction));
         }
     }
 
     private void runYellowPhase(String direction, Runnable onComplete) {
-        stopCurrentPhaseTimeline();
+        stopCurrentPhase();
         Platform.runLater(() -> {
             dynamicTrafficLightsView.setAllRed();
             dynamicTrafficLightsView.setLightColor(direction, "yellow");
             dynamicTrafficLightsView.setCountdown(direction, Constants.YELLOW_DURATION);
             dynamicTrafficLightsView.setCountdownColor(direction, Color.ORANGE);
+            changeActivePhase(direction, SignalState.YELLOW);
         });
 
-        AtomicInteger countdown = new AtomicInteger(Constants.YELLOW_DURATION);
-        currentLightRemainingDuration = Constants.YELLOW_DURATION;
-
-        currentPhaseTimeline = new Timeline(new KeyFrame(Duration.seconds(1), e -> {
-            int remaining = countdown.decrementAndGet();
-            currentLightRemainingDuration = remaining;
-            Platform.runLater(() -> {
-                dynamicTrafficLightsView.setCountdown(direction, remaining);
-                if (remaining <= 0) {
-                    dynamicTrafficLightsView.clearCountdown(direction);
-                }
-            });
-        }));
-        currentPhaseTimeline.setCycleCount(Constants.YELLOW_DURATION);
-        currentPhaseTimeline.setOnFinished(e -> {
-            if (onComplete != null) {
-                Platform.runLater(onComplete);
-            }
-        });
-        currentPhaseTimeline.play();
+        startCountdown(direction, Constants.YELLOW_DURATION, onComplete);
     }
 
-    private void runGreenPhase(String direction, int duration) {
-        stopCurrentPhaseTimeline();
+    private void runGreenPhase(String direction) {
+        stopCurrentPhase();
+        double greenLimit = controlStrategy.getGreenLimit(SimulationEngine.approachIndex(direction));
+        int duration = (int) Math.ceil(greenLimit);
         Platform.runLater(() -> {
             dynamicTrafficLightsView.setAllRed();
             dynamicTrafficLightsView.setLightColor(direction, "green");
             dynamicTrafficLightsView.setCountdown(direction, duration);
             dynamicTrafficLightsView.setCountdownColor(direction, Color.GREEN);
+            changeActivePhase(direction, SignalState.GREEN);
         });
 
-        AtomicInteger countdown = new AtomicInteger(duration);
+        double now = scheduler.getNow();
+        controlStrategy.greenStarted(SimulationEngine.approachIndex(direction), now);
+        greenLimitTime = now + greenLimit;
         currentLightRemainingDuration = duration;
+        currentPhaseEvent = scheduler.schedule(Constants.SIMULATION_STEP, () -> greenTick(direction));
+    }
 
-        currentPhaseTimeline = new Timeline(new KeyFrame(Duration.seconds(1), e -> {
-            int remaining = countdown.decrementAndGet();
-            currentLightRemainingDuration = remaining;
+    /**
+     * Yeşil her simülasyon adımında stratejiye sorulur. Geri sayım stratejinin üst sınırına kalan
+     * süreyi gösterir; strateji yeşili uzatırsa sıfırda bekler.
+     */
+    private synchronized void greenTick(String direction) {
+        if (controlStrategy.shouldEndGreen(scheduler.getNow())) {
+            currentPhaseEvent = EventScheduler.INVALID_HANDLE;
+            currentLightRemainingDuration = 0;
             Platform.runLater(() -> {
-                dynamicTrafficLightsView.setCountdown(direction, remaining);
-                if (remaining <= 0) {
-                    dynamicTrafficLightsView.clearCountdown(direction);
+                dynamicTrafficLightsView.clearCountdown(direction);
+                if (onPhaseCompleteCallback != null) {
+                    onPhaseCompleteCallback.run();
                 }
             });
-        }));
-        currentPhaseTimeline.setCycleCount(duration);
-        currentPhaseTimeline.setOnFinished(e -> {
-            if (onPhaseCompleteCallback != null) {
-                Platform.runLater(onPhaseCompleteCallback);
-            }
-        });
-        currentPhaseTimeline.play();
-    }
+            return;
+        }
 
-    public synchronized void pauseCurrentPhaseTimeline() {
-        if (currentPhaseTimeline != null && currentPhaseTimeline.getStatus() == Timeline.Status.RUNNING) {
-            currentPhaseTimeline.pause();
+        int remaining = (int) Math.ceil(Math.max(0, greenLimitTime - scheduler.getNow()));
+        if (remaining != currentLightRemainingDuration) {
+            currentLightRemainingDuration = remaining;
+            Platform.runLater(() -> dynamicTrafficLightsView.setCountdown(direction, remaining));
         }
+        currentPhaseEvent = scheduler.schedule(Constants.SIMULATION_STEP, () -> greenTick(direction));
     }
 
-    public synchronized void resumeCurrentPhaseTimeline() {
-        if (currentPhaseTimeline != null && currentPhaseTimeline.getStatus() == Timeline.Status.PAUSED) {
-            currentPhaseTimeline.play();
-        } else if (currentPhaseTimeline == null || currentPhaseTimeline.getStatus() == Timeline.Status.STOPPED) {
-            if (currentLightDirection != null && currentLightRemainingDuration > 0) {
-                String color = dynamicTrafficLightsView.isGreen(currentLightDirection) ? "green" : "yellow";
-                AtomicInteger countdown = new AtomicInteger(currentLightRemainingDuration);
-                Platform.runLater(() -> {
-                    dynamicTrafficLightsView.setCountdown(currentLightDirection, currentLightRemainingDuration);
-                    dynamicTrafficLightsView.setCountdownColor(currentLightDirection,
-                            color.equals("green") ? Color.GREEN : Color.ORANGE);
-                });
-
-                currentPhaseTimeline = new Timeline(new KeyFrame(Duration.seconds(1), e -> {
-                    int remaining = countdown.decrementAndGet();
-                    currentLightRemainingDuration = remaining;
-                    Platform.runLater(() -> {
-                        dynamicTrafficLightsView.setCountdown(currentLightDirection, remaining);
-                        if (remaining <= 0) {
-                            dynamicTrafficLightsView.clearCountdown(currentLightDirection);
-                        }
-                    });
-                }));
-
-                currentPhaseTimeline.setCycleCount(currentLightRemainingDuration);
-                currentPhaseTimeline.setOnFinished(e -> {
-                    if (onPhaseCompleteCallback != null) {
-                        Platform.runLater(onPhaseCompleteCallback);
-                    }
-                });
-                currentPhaseTimeline.play();
+    private void startCountdown(String direction, int duration, Runnable onComplete) {
+        currentLightRemainingDuration = duration;
+        currentPhaseEvent = scheduler.schedule(1, () -> countdownTick(direction, onComplete));
+    }
+
+    private synchronized void countdownTick(String direction, Runnable onComplete) {
+        int remaining = --currentLightRemainingDuration;
+        Platform.runLater(() -> {
+            dynamicTrafficLightsView.setCountdown(direction, remaining);
+            if (remaining <= 0) {
+                dynamicTrafficLightsView.clearCountdown(direction);
+            }
+        });
+
+        if (remaining > 0) {
+            currentPhaseEvent = scheduler.schedule(1, () -> countdownTick(direction, onComplete));
+        } else {
+            currentPhaseEvent = EventScheduler.INVALID_HANDLE;
+            if (onComplete != null) {
+                Platform.runLater(onComplete);
             }
         }
     }
 
-    public synchronized void stopCurrentPhaseTimeline() {
-        if (currentPhaseTimeline != null) {
-            currentPhaseTimeline.stop();
-            currentPhaseTimeline = null;
-            currentLightDirection = null;
-            currentLightRemainingDuration = 0;
-        }
+    public synchronized void stopCurrentPhase() {
+        scheduler.cancel(currentPhaseEvent);
+        currentPhaseEvent = EventScheduler.INVALID_HANDLE;
+        currentLightRemainingDuration = 0;
     }
 
     public void resetLights() {
-        stopCurrentPhaseTimeline();
+        stopCurrentPhase();
+        for (LoopDetector detector : detectors) {
+            detector.reset();
+        }
+        if (controlStrategy != null) {
+            controlStrategy.reset();
+        }
         dynamicTrafficLightsView.setAllRed();
+        changeActivePhase(null, null);
         for (String direction : Constants.DIRECTIONS_TURKISH) {
             dynamicTrafficLightsView.clearCountdown(direction);
         }
     }
 
+    public LoopDetector getDetector(String direction) {
+        return detectors[SimulationEngine.approachIndex(direction)];
+    }
+
+    public LoopDetector[] getDetectors() {
+        return detectors;
+    }
+
     public boolean isGreen(String direction) {
         return dynamicTrafficLightsView.isGreen(direction);
     }
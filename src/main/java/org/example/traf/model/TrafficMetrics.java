@@ -0,0 +1,254 @@
+package org.example.traf.model;
+
+import org.example.traf.util.Constants;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Yaklaşım ve hareket başına trafik performans ölçütleri: geçen araç sayıları, gecikme, durma
+ * gecikmesi ve yolculuk süresi histogramları ile en büyük ve zaman ağırlıklı ortalama kuyruk
+ * uzunluğu. Süreler milisaniye çözünürlüğünde {@link LogHistogram}'lara yazılır.
+ *
+ * <p>Tüm diziler kurulumda ayrılır; kayıt yöntemleri nesne ayırmaz ve bellek koşu uzunluğundan
+ * bağımsızdır. Örnek tek iş parçacığından yazılmalıdır; tekrarlar {@link #add(TrafficMetrics)}
+ * ile birleştirilir.</p>
+ */
+public final class TrafficMetrics {
+
+    private static final double MILLIS_PER_SECOND = 1000.0;
+    // Bir saati aşan süreler son kovada sayılır
+    private static final long HIGHEST_TRACKABLE_MILLIS = 3_600_000L;
+
+    private final int approachCount;
+    private final int movementCount;
+
+    private final int[] throughputs;
+    private final int[] movementThroughputs;
+    private final LogHistogram[] delays;
+    private final LogHistogram[] stopDelays;
+    private final LogHistogram[] travelTimes;
+    private final LogHistogram[] movementDelays;
+
+    private final int[] maxQueueLengths;
+    private final double[] queueLengthIntegrals;
+    private final double[] queueObservedTimes;
+
+    public TrafficMetrics() {
+        this(Constants.DIRECTIONS_TURKISH.length, Constants.MOVEMENTS_PER_APPROACH);
+    }
+
+    public TrafficMetrics(int approachCount, int movementCount) {
+        this.approachCount = approachCount;
+        this.movementCount = movementCount;
+        throughputs = new int[approachCount];
+        movementThroughputs = new int[approachCount * movementCount];
+        delays = histograms(approachCount);
+        stopDelays = histograms(approachCount);
+        travelTimes = histograms(approachCount);
+        movementDelays = histograms(approachCount * movementCount);
+        maxQueueLengths = new int[approachCount];
+        queueLengthIntegrals = new double[approachCount];
+        queueObservedTimes = new double[approachCount];
+    }
+
+    private static LogHistogram[] histograms(int count) {
+        LogHistogram[] histograms = new LogHistogram[count];
+        for (int i = 0; i < count; i++) {
+            histograms[i] = new LogHistogram(HIGHEST_TRACKABLE_MILLIS);
+        }
+        return histograms;
+    }
+
+    private static long toMillis(double seconds) {
+        return Math.round(Math.max(0, seconds) * MILLIS_PER_SECOND);
+    }
+
+    /**
+     * Simülasyondan ayrılan bir aracı kaydeder.
+     *
+     * @param travelTime girişten (planlanan kalkıştan) ayrılışa kadar geçen süre (saniye)
+     * @param delay      yolculuk süresinin serbest akış süresini aşan kısmı (saniye)
+     * @param stopDelay  ışıkta kuyrukta durarak geçirilen toplam süre (saniye)
+     */
+    public void recordCompletion(int approach, int movement, double travelTime, double delay, double stopDelay) {
+        throughputs[approach]++;
+        movementThroughputs[approach * movementCount + movement]++;
+        long delayMillis = toMillis(delay);
+        delays[approach].record(delayMillis);
+        movementDelays[approach * movementCount + movement].record(delayMillis);
+        stopDelays[approach].record(toMillis(stopDelay));
+        travelTimes[approach].record(toMillis(travelTime));
+    }
+
+    /**
+     * Yaklaşımın kuyruk uzunluğunun {@code duration} saniye boyunca {@code length} olduğunu kaydeder.
+     */
+    public void recordQueueLength(int approach, int length, double duration) {
+        if (length > maxQueueLengths[approach]) {
+            maxQueueLengths[approach] = length;
+        }
+        queueLengthIntegrals[approach] += length * duration;
+        queueObservedTimes[approach] += duration;
+    }
+
+    public void add(TrafficMetrics other) {
+        if (other.approachCount != approachCount || other.movementCount != movementCount) {
+            throw new IllegalArgumentException("Metrics have different layouts");
+        }
+        for (int approach = 0; approach < approachCount; approach++) {
+            throughputs[approach] += other.throughputs[approach];
+            delays[approach].add(other.delays[approach]);
+            stopDelays[approach].add(other.stopDelays[approach]);
+            travelTimes[approach].add(other.travelTimes[approach]);
+            maxQueueLengths[approach] = Math.max(maxQueueLengths[approach], other.maxQueueLengths[approach]);
+            queueLengthIntegrals[approach] += other.queueLengthIntegrals[approach];
+            queueObservedTimes[approach] += other.queueObservedTimes[approach];
+        }
+        for (int i = 0; i < movementThroughputs.length; i++) {
+            movementThroughputs[i] += other.movementThroughputs[i];
+            movementDelays[i].add(other.movementDelays[i]);
+        }
+    }
+
+    public void reset() {
+        for (int approach = 0; approach < approachCount; approach++) {
+            throughputs[approach] = 0;
+            delays[approach].reset();
+            stopDelays[approach].reset();
+            travelTimes[approach].reset();
+            maxQueueLengths[approach] = 0;
+            queueLengthIntegrals[approach] = 0;
+            queueObservedTimes[approach] = 0;
+        }
+        for (int i = 0; i < movementThroughputs.length; i++) {
+            movementThroughputs[i] = 0;
+            movementDelays[i].reset();
+        }
+    }
+
+    void writeState(DataOutput out) throws IOException {
+        out.writeInt(approachCount);
+        out.writeInt(movementCount);
+        for (int approach = 0; approach < approachCount; approach++) {
+            out.writeInt(throughputs[approach]);
+            delays[approach].writeState(out);
+            stopDelays[approach].writeState(out);
+            travelTimes[approach].writeState(out);
+            out.writeInt(maxQueueLengths[approach]);
+            out.writeDouble(queueLengthIntegrals[approach]);
+            out.writeDouble(queueObservedTimes[approach]);
+        }
+        for (int i = 0; i < movementThroughputs.length; i++) {
+            out.writeInt(movementThroughputs[i]);
+            movementDelays[i].writeState(out);
+        }
+    }
+
+    void readState(DataInput in) throws IOException {
+        int savedApproaches = in.readInt();
+        int savedMovements = in.readInt();
+        if (savedApproaches != approachCount || savedMovements != movementCount) {
+            throw new IOException("Metrics have different layouts");
+        }
+        for (int approach = 0; approach < approachCount; approach++) {
+            throughputs[approach] = in.readInt();
+            delays[approach].readState(in);
+            stopDelays[approach].readState(in);
+            travelTimes[approach].readState(in);
+            maxQueueLengths[approach] = in.readInt();
+            queueLengthIntegrals[approach] = in.readDouble();
+            queueObservedTimes[approach] = in.readDouble();
+        }
+        for (int i = 0; i < movementThroughputs.length; i++) {
+            movementThroughputs[i] = in.readInt();
+            movementDelays[i].readState(in);
+        }
+    }
+
+    public int getApproachCount() {
+        return approachCount;
+    }
+
+    public int getMovementCount() {
+        return movementCount;
+    }
+
+    public int getThroughput(int approach) {
+        return throughputs[approach];
+    }
+
+    public int getThroughput(int approach, int movement) {
+        return movementThroughputs[approach * movementCount + movement];
+    }
+
+    public int getTotalThroughput() {
+        int total = 0;
+        for (int throughput : throughputs) {
+            total += throughput;
+        }
+        return total;
+    }
+
+    /**
+     * Yaklaşımın gecikme yüzdeliği (saniye), örneğin {@code getDelayPercentile(approach, 95)}.
+     */
+    public double getDelayPercentile(int approach, double percentile) {
+        return delays[approach].getValueAtPercentile(percentile) / MILLIS_PER_SECOND;
+    }
+
+    public double getStopDelayPercentile(int approach, double percentile) {
+        return stopDelays[approach].getValueAtPercentile(percentile) / MILLIS_PER_SECOND;
+    }
+
+    public double getTravelTimePercentile(int approach, double percentile) {
+        return travelTimes[approach].getValueAtPercentile(percentile) / MILLIS_PER_SECOND;
+    }
+
+    public double getDelayPercentile(int approach, int movement, double percentile) {
+        return movementDelays[approach * movementCount + movement].getValueAtPercentile(percentile) / MILLIS_PER_SECOND;
+    }
+
+    public double getAverageDelay(int approach) {
+        return delays[approach].getMean() / MILLIS_PER_SECOND;
+    }
+
+    public double getAverageStopDelay(int approach) {
+        return stopDelays[approach].getMean() / MILLIS_PER_SECOND;
+    }
+
+    public double getAverageTravelTime(int approach) {
+        return travelTimes[approach].getMean() / MILLIS_PER_SECOND;
+    }
+
+    /**
+     * Milisaniye birimli ham histogramlar; birleştirme ya da dışa aktarma içindir.
+     */
+    public LogHistogram getDelayHistogram(int approach) {
+        return delays[approach];
+    }
+
+    public LogHistogram getStopDelayHistogram(int approach) {
+        return stopDelays[approach];
+    }
+
+    public LogHistogram getTravelTimeHistogram(int approach) {
+        return travelTimes[approach];
+    }
+
+    public LogHistogram getDelayHistogram(int approach, int movement) {
+        return movementDelays[approach * movementCount + movement];
+    }
+
+    public int getMaxQueueLength(int approach) {
+        return maxQueueLengths[approach];
+    }
+
+    /**
+     * Yaklaşımın zaman ağırlıklı ortalama kuyruk uzunluğu (araç).
+     */
+    public double getAverageQueueLength(int approach) {
+        return queueObservedTimes[approach] == 0 ? 0 : queueLengthIntegrals[approach] / queueObservedTimes[approach];
+    }
+}
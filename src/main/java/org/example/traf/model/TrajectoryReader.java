@@ -0,0 +1,166 @@
+package org.example.traf.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * {@link TrajectoryRecorder} dosyalarını okur. Dosya salt okunur parçalar halinde eşlenir; bir adım
+ * aralığı istendiğinde dizinden aralığın başına en yakın önceki konum bulunur ve oradan ileri
+ * taranır.
+ */
+public final class TrajectoryReader implements Closeable {
+
+    public interface RecordVisitor {
+        void visit(long tick, int vehicleId, int routeId, int state, float distance, float speed);
+    }
+
+    private final FileChannel channel;
+    private final int chunkSize;
+    private final double stepSeconds;
+    private final long tickCount;
+    private final long dataEnd;
+    private final long[] indexTicks;
+    private final long[] indexOffsets;
+
+    private MappedByteBuffer chunk;
+    private long chunkStart = -1;
+
+    public TrajectoryReader(Path file) throws IOException {
+        this(file, TrajectoryRecorder.DEFAULT_CHUNK_SIZE);
+    }
+
+    public TrajectoryReader(Path file, int chunkSize) throws IOException {
+        if (chunkSize < TrajectoryRecorder.HEADER_SIZE || chunkSize % TrajectoryRecorder.UNIT_SIZE != 0) {
+            throw new IllegalArgumentException("Chunk size must be a multiple of " + TrajectoryRecorder.UNIT_SIZE
+                    + ": " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = read(0, TrajectoryRecorder.HEADER_SIZE);
+            if (header.getInt(0) != TrajectoryRecorder.MAGIC) {
+                throw new IOException("Not a trajectory file: " + file);
+            }
+            if (header.getInt(4) != TrajectoryRecorder.VERSION) {
+                throw new IOException("Unsupported trajectory file version " + header.getInt(4) + ": " + file);
+            }
+            stepSeconds = header.getDouble(16);
+            tickCount = header.getLong(TrajectoryRecorder.HEADER_TICK_COUNT);
+            dataEnd = header.getLong(TrajectoryRecorder.HEADER_DATA_END);
+            long indexOffset = header.getLong(TrajectoryRecorder.HEADER_INDEX_OFFSET);
+            int indexCount = header.getInt(TrajectoryRecorder.HEADER_INDEX_COUNT);
+            if (dataEnd < TrajectoryRecorder.HEADER_SIZE) {
+                throw new IOException("Trajectory file was not closed: " + file);
+            }
+
+            ByteBuffer index = read(indexOffset, indexCount * TrajectoryRecorder.UNIT_SIZE);
+            indexTicks = new long[indexCount];
+            indexOffsets = new long[indexCount];
+            for (int i = 0; i < indexCount; i++) {
+                indexTicks[i] = index.getLong();
+                indexOffsets[i] = index.getLong();
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private ByteBuffer read(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of trajectory file");
+            }
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * {@code [fromTick, toTick]} aralığındaki adımların tüm kayıtlarını sırayla ziyaret eder.
+     *
+     * @return ziyaret edilen adım sayısı
+     */
+    public long forEachRecord(long fromTick, long toTick, RecordVisitor visitor) throws IOException {
+        long position = seek(fromTick);
+        long visitedTicks = 0;
+        while (position < dataEnd) {
+            ByteBuffer buffer = chunkFor(position);
+            int offset = (int) (position - chunkStart);
+            long tick = buffer.getLong(offset);
+            int count = buffer.getInt(offset + 8);
+            position += TrajectoryRecorder.UNIT_SIZE;
+            if (tick > toTick) break;
+            if (tick < fromTick) {
+                position += (long) count * TrajectoryRecorder.UNIT_SIZE;
+                continue;
+            }
+            for (int i = 0; i < count; i++) {
+                buffer = chunkFor(position);
+                offset = (int) (position - chunkStart);
+                visitor.visit(tick, buffer.getInt(offset), buffer.getShort(offset + 4), buffer.getShort(offset + 6),
+                        buffer.getFloat(offset + 8), buffer.getFloat(offset + 12));
+                position += TrajectoryRecorder.UNIT_SIZE;
+            }
+            visitedTicks++;
+        }
+        return visitedTicks;
+    }
+
+    /**
+     * {@code tick} adımından önceki en yakın dizin girdisinin konumu.
+     */
+    private long seek(long tick) {
+        int low = 0;
+        int high = indexTicks.length - 1;
+        int found = -1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (indexTicks[middle] <= tick) {
+                found = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return found >= 0 ? indexOffsets[found] : TrajectoryRecorder.HEADER_SIZE;
+    }
+
+    private ByteBuffer chunkFor(long position) throws IOException {
+        long start = position - position % chunkSize;
+        if (start != chunkStart) {
+            long length = Math.min(chunkSize, dataEnd - start);
+            chunk = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+            chunk.order(ByteOrder.LITTLE_ENDIAN);
+            chunkStart = start;
+        }
+        return chunk;
+    }
+
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    public double getStepSeconds() {
+        return stepSeconds;
+    }
+
+    /**
+     * Simülasyon zamanına (saniye) karşılık gelen adım; aralık aramaları için.
+     */
+    public long tickAt(double simulationTime) {
+        return Math.round(simulationTime / stepSeconds);
+    }
+
+    @Override
+    public void close() throws IOException {
+        chunk = null;
+        channel.close();
+    }
+}
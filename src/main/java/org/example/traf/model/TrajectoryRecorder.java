@@ -0,0 +1,251 @@
+package org.example.traf.model;
+
+import org.example.traf.util.Constants;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Motorun her adımındaki araç durumlarını bellek eşlemli bir dosyaya sabit genişlikli, little-endian
+ * kayıtlar olarak ekler. Dosya {@value #DEFAULT_CHUNK_SIZE} baytlık parçalar halinde
+ * {@link FileChannel#map} ile eşlenir; bir sonraki parça arka planda önceden eşlendiğinden adım
+ * iş parçacığı yalnızca belleğe yazar, sistem çağrısı ve nesne ayırma yapmaz. Sayfalar işletim
+ * sistemi tarafından diske yazılır.
+ *
+ * <p>Biçim: {@value #HEADER_SIZE} baytlık başlık, ardından her adım için {@value #UNIT_SIZE}
+ * baytlık adım başlığı ({@code long} adım, {@code int} kayıt sayısı, {@code int} ayrılmış) ve o
+ * kadar araç kaydı ({@code int} araç kimliği, {@code short} rota kimliği, {@code short} durum
+ * bitleri, {@code float} mesafe, {@code float} hız). Tüm birimler {@value #UNIT_SIZE} bayt
+ * olduğundan hiçbiri parça sınırını aşmaz. Kapatınca verinin sonuna her
+ * {@value #INDEX_INTERVAL} adımda bir (adım, konum) çiftinden oluşan dizin yazılır;
+ * {@link TrajectoryReader} zaman aralığı aramasında bunu kullanır.</p>
+ *
+ * <p>Tek iş parçacığından (motorun) kullanılır. Yazma hatası motoru durdurmaz; kayıt kesilir ve
+ * hata {@link #close()} ile bildirilir.</p>
+ */
+public final class TrajectoryRecorder implements Closeable {
+
+    static final int MAGIC = 0x314A5254; // "TRJ1" little-endian
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    static final int UNIT_SIZE = 16;
+    static final int INDEX_INTERVAL = 20;
+    static final int DEFAULT_CHUNK_SIZE = 64 << 20;
+
+    // Başlık alanlarının konumları
+    static final int HEADER_TICK_COUNT = 24;
+    static final int HEADER_DATA_END = 32;
+    static final int HEADER_INDEX_OFFSET = 40;
+    static final int HEADER_INDEX_COUNT = 48;
+
+    private final FileChannel channel;
+    private final int chunkSize;
+    private final ExecutorService mapper;
+
+    private MappedByteBuffer firstChunk;
+    private MappedByteBuffer chunk;
+    private long chunkStart;
+    private CompletableFuture<MappedByteBuffer> nextChunk;
+    private long position;
+
+    private long tickCount;
+    private long[] indexTicks = new long[64];
+    private long[] indexOffsets = new long[64];
+    private int indexCount;
+
+    private IOException failure;
+    private boolean closed;
+
+    public TrajectoryRecorder(Path file) throws IOException {
+        this(file, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param chunkSize eşleme parçası; {@value #UNIT_SIZE}'nın katı olmalıdır
+     */
+    public TrajectoryRecorder(Path file, int chunkSize) throws IOException {
+        if (chunkSize < HEADER_SIZE || chunkSize % UNIT_SIZE != 0) {
+            throw new IllegalArgumentException("Chunk size must be a multiple of " + UNIT_SIZE + ": " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.mapper = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "traf-trajectory-mapper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            chunk = map(0);
+        } catch (IOException e) {
+            mapper.shutdown();
+            channel.close();
+            throw e;
+        }
+        firstChunk = chunk;
+        chunk.putInt(0, MAGIC);
+        chunk.putInt(4, VERSION);
+        chunk.putInt(8, UNIT_SIZE);
+        chunk.putInt(12, INDEX_INTERVAL);
+        chunk.putDouble(16, Constants.SIMULATION_STEP);
+        position = HEADER_SIZE;
+        prefetch(chunkSize);
+    }
+
+    private MappedByteBuffer map(long start) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, start, chunkSize);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    private void prefetch(long start) {
+        nextChunk = CompletableFuture.supplyAsync(() -> {
+            try {
+                return map(start);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, mapper);
+    }
+
+    /**
+     * Bir adımın tüm canlı araçlarını yazar.
+     */
+    public void recordTick(long tick, VehicleStore vehicles) {
+        if (closed || failure != null) return;
+        try {
+            if (tickCount % INDEX_INTERVAL == 0) {
+                addIndexEntry(tick, position);
+            }
+            ensureUnit();
+            MappedByteBuffer headerChunk = chunk;
+            int headerOffset = (int) (position - chunkStart);
+            headerChunk.putLong(headerOffset, tick);
+            headerChunk.putInt(headerOffset + 12, 0);
+            position += UNIT_SIZE;
+
+            int count = 0;
+            int highWater = vehicles.getHighWater();
+            for (int slot = 0; slot < highWater; slot++) {
+                if (!vehicles.isAlive(slot)) continue;
+                ensureUnit();
+                int offset = (int) (position - chunkStart);
+                int stage = vehicles.getStage(slot);
+                int routeId = stage == VehicleStore.STAGE_AFTER_LIGHT
+                        ? vehicles.getPathId(slot)
+                        : PathService.toLightRouteId(vehicles.getApproach(slot));
+                chunk.putInt(offset, vehicles.getVehicleId(slot));
+                chunk.putShort(offset + 4, (short) routeId);
+                chunk.putShort(offset + 6, (short) vehicles.getState(slot));
+                chunk.putFloat(offset + 8, (float) vehicles.getDistance(slot));
+                chunk.putFloat(offset + 12, (float) vehicles.getSpeed(slot));
+                position += UNIT_SIZE;
+                count++;
+            }
+            headerChunk.putInt(headerOffset + 8, count);
+            tickCount++;
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    /**
+     * Sıradaki birim için yer açar; parça dolduysa önceden eşlenmiş parçaya geçer.
+     */
+    private void ensureUnit() throws IOException {
+        if (position - chunkStart < chunkSize) return;
+        try {
+            chunk = nextChunk.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+        }
+        chunkStart += chunkSize;
+        prefetch(chunkStart + chunkSize);
+    }
+
+    private void addIndexEntry(long tick, long offset) {
+        if (indexCount == indexTicks.length) {
+            indexTicks = Arrays.copyOf(indexTicks, indexCount * 2);
+            indexOffsets = Arrays.copyOf(indexOffsets, indexCount * 2);
+        }
+        indexTicks[indexCount] = tick;
+        indexOffsets[indexCount] = offset;
+        indexCount++;
+    }
+
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    public long getBytesWritten() {
+        return position;
+    }
+
+    /**
+     * Dizini verinin sonuna yazar, başlığı tamamlar ve dosyayı gerçek boyutuna indirir.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            if (failure != null) throw failure;
+            return;
+        }
+        closed = true;
+        try {
+            // Önceden eşlenen fazladan parça bitene kadar beklenir; kesme ondan sonra yapılır
+            try {
+                nextChunk.join();
+            } catch (CompletionException ignored) {
+            }
+            if (failure == null) {
+                writeIndex();
+            }
+        } catch (IOException e) {
+            if (failure == null) failure = e;
+        } finally {
+            mapper.shutdown();
+            chunk = null;
+            firstChunk = null;
+            nextChunk = null;
+            channel.close();
+        }
+        if (failure != null) throw failure;
+    }
+
+    private void writeIndex() throws IOException {
+        long indexOffset = position;
+        ByteBuffer index = ByteBuffer.allocate(indexCount * UNIT_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < indexCount; i++) {
+            index.putLong(indexTicks[i]).putLong(indexOffsets[i]);
+        }
+        index.flip();
+        long writePosition = indexOffset;
+        while (index.hasRemaining()) {
+            writePosition += channel.write(index, writePosition);
+        }
+
+        firstChunk.putLong(HEADER_TICK_COUNT, tickCount);
+        firstChunk.putLong(HEADER_DATA_END, position);
+        firstChunk.putLong(HEADER_INDEX_OFFSET, indexOffset);
+        firstChunk.putInt(HEADER_INDEX_COUNT, indexCount);
+        firstChunk.force();
+        try {
+            channel.truncate(writePosition);
+        } catch (IOException ignored) {
+            // Eşlenmiş dosyanın kesilmesine izin vermeyen sistemlerde dosya parça boyunda kalır;
+            // okuyucu başlıktaki veri sonunu kullanır
+        }
+        channel.force(false);
+    }
+}
@@ -1,18 +1,13 @@
 package org.example.traf.model;
 
 import javafx.animation.Animation;
+import javafx.animation.Interpolator;
 import javafx.animation.PathTransition;
 import javafx.scene.Node;
-import javafx.scene.effect.ColorAdjust;
-import javafx.scene.image.Image;
-import javafx.scene.image.ImageView;
 import javafx.scene.layout.Pane;
-import javafx.scene.paint.Color;
 import javafx.scene.shape.Path;
-import javafx.scene.shape.Rectangle;
 import javafx.util.Duration;
 import org.example.traf.util.Constants;
-import java.util.Random;
 
 public class Vehicle {
     private final Node carNode;
@@ -26,18 +21,23 @@ public class Vehicle {
     private boolean hasExitedQueue;
     private boolean hasCheckedTrafficLight;
     private int queuePosition;
-    private long queueEntryTime;
+    private double entryTime;
+    private double queueEntryTime;
+    private double stopDelay;
     private final Pane rootPane;
+    private final VehicleNodePool nodePool;
     private double pathLength;
     private double currentPixelPosition;
+    private boolean nodeReleased;
 
-    public Vehicle(Pane rootPane, String direction, int position) {
+    public Vehicle(Pane rootPane, VehicleNodePool nodePool, String direction, int position) {
         this.rootPane = rootPane;
+        this.nodePool = nodePool;
         this.direction = direction;
-        this.carNode = createCarNode();
+        this.carNode = nodePool.acquire();
         this.currentProgress = 0.0;
         this.queuePosition = position;
-        this.stopPosition = calculateStopPosition(position);
+        this.stopPosition = SimulationEngine.stopPositionFor(position);
         this.isWaitingAtLight = false;
         this.hasReachedStopPoint = false;
         this.isMovingToSecondPath = false;
@@ -46,50 +46,6 @@ public class Vehicle {
         this.queueEntryTime = 0;
     }
 
-    private Node createCarNode() {
-        try {
-            Image image = new Image(getClass().getResourceAsStream("/araba.png"));
-            if (!image.isError()) {
-                ImageView car = new ImageView(image);
-                car.setFitWidth(60);
-                car.setFitHeight(60);
-                ColorAdjust colorAdjust = new ColorAdjust();
-                colorAdjust.setHue((Math.random() * 2) - 1);
-                colorAdjust.setSaturation((Math.random() * 1.5) - 0.5);
-                car.setEffect(colorAdjust);
-                return car;
-            }
-        } catch (Exception e) {
-            // silently fallback
-        }
-
-        Rectangle car = new Rectangle(60, 30);
-        car.setFill(getRandomCarColor());
-        car.setStroke(Color.BLACK);
-        car.setStrokeWidth(1.5);
-        car.setArcWidth(10);
-        car.setArcHeight(10);
-        return car;
-    }
-
-    private Color getRandomCarColor() {
-        Random random = new Random();
-        String hexColor = Constants.REALISTIC_CAR_COLORS[random.nextInt(Constants.REALISTIC_CAR_COLORS.length)];
-        return Color.web(hexColor);
-    }
-
-    private double calculateStopPosition(int position) {
-        double stopPos;
-        if (position == 0) {
-            stopPos = 1.0 - Constants.QUEUE_SPACING;
-        } else if (position == 1) {
-            stopPos = 1.0 - (Constants.QUEUE_SPACING + Constants.SECOND_CAR_EXTRA_DISTANCE + Constants.QUEUE_SPACING);
-        } else {
-            stopPos = 1.0 - (Constants.QUEUE_SPACING + Constants.SECOND_CAR_EXTRA_DISTANCE + (position * Constants.QUEUE_SPACING));
-        }
-        return Math.max(0.1, stopPos);
-    }
-
     public void startMovement(Path path, Runnable onFinished) {
         if (currentTransition != null) {
             currentTransition.stop();
@@ -99,13 +55,15 @@ public class Vehicle {
             rootPane.getChildren().add(carNode);
         }
 
-        PathTransition transition = new PathTransition(Duration.seconds(Constants.UNIFORM_SPEED), path, carNode);
+        this.pathLength = PathService.lengthOf(path);
+
+        PathTransition transition = new PathTransition(Duration.seconds(pathLength / Constants.VEHICLE_SPEED), path, carNode);
         transition.setOrientation(PathTransition.OrientationType.ORTHOGONAL_TO_TANGENT);
+        transition.setInterpolator(Interpolator.LINEAR);
         transition.setCycleCount(1);
         transition.setAutoReverse(false);
 
         this.currentTransition = transition;
-        this.pathLength = calculatePathLength(path);
 
         transition.currentTimeProperty().addListener((obs, oldTime, newTime) -> {
             if (transition.getTotalDuration().toMillis() > 0) {
@@ -127,18 +85,13 @@ public class Vehicle {
         if (currentTransition != null && currentTransition.getStatus() == Animation.Status.RUNNING) {
             currentTransition.pause();
             isWaitingAtLight = true;
-            queueEntryTime = System.currentTimeMillis();
         }
     }
 
-    private double calculatePathLength(Path path) {
-        double width = path.getBoundsInLocal().getWidth();
-        double height = path.getBoundsInLocal().getHeight();
-        return Math.sqrt(width * width + height * height);
-    }
-
     public void removeFromPane() {
-        rootPane.getChildren().remove(carNode);
+        if (nodeReleased) return;
+        nodeReleased = true;
+        nodePool.release(carNode);
     }
 
     public Node getCarNode() {
@@ -201,10 +154,39 @@ public class Vehicle {
         return queuePosition;
     }
 
-    public long getQueueEntryTime() {
+    /**
+     * Aracın yola çıktığı an (simülasyon saati, saniye).
+     */
+    public double getEntryTime() {
+        return entryTime;
+    }
+
+    public void setEntryTime(double entryTime) {
+        this.entryTime = entryTime;
+    }
+
+    /**
+     * Aracın ışıkta kuyruğa girdiği an (simülasyon saati, saniye).
+     */
+    public double getQueueEntryTime() {
         return queueEntryTime;
     }
 
+    /**
+     * Kuyrukta durarak geçen süre (saniye); kuyruktan çıkınca yazılır.
+     */
+    public double getStopDelay() {
+        return stopDelay;
+    }
+
+    public void setStopDelay(double stopDelay) {
+        this.stopDelay = stopDelay;
+    }
+
+    public double getPathLength() {
+        return pathLength;
+    }
+
     public double getCurrentPixelPosition() {
         return currentPixelPosition;
     }
@@ -221,7 +203,7 @@ public class Vehicle {
         this.currentProgress = progress;
     }
 
-    public void setQueueEntryTime(long time) {
+    public void setQueueEntryTime(double time) {
         this.queueEntryTime = time;
     }
 }
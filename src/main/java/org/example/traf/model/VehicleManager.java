@@ -1,44 +1,95 @@
 package org.example.traf.model;
 
 import javafx.animation.Animation;
-import javafx.animation.KeyFrame;
+import javafx.animation.Interpolator;
 import javafx.animation.PathTransition;
-import javafx.animation.PauseTransition;
-import javafx.animation.Timeline;
 import javafx.scene.layout.Pane;
 import javafx.scene.shape.Path;
 import javafx.util.Duration;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
 import org.example.traf.util.Constants;
 
-public class VehicleManager {
+/**
+ * Zaman çizelgesi tabanlı görünümün araçlarını yönetir. Yaklaşım başına ışığa giden ve çıkış
+ * rotalarındaki araç sayıları hareket olaylarında artımlı güncellenir ve {@link ApproachCounters}
+ * olarak stratejilere sunulur. Kuyruk ve yolculuk ölçütleri {@link TrafficMetrics}'e simülasyon
+ * saatiyle yazılır.
+ */
+public class VehicleManager implements ApproachCounters {
     private final Pane rootPane;
+    private final VehicleNodePool nodePool;
     private final TrafficLightSystem trafficLightSystem;
 
-    private final Map<String, List<Vehicle>> activeVehicles = new ConcurrentHashMap<>();
-    private final Map<String, List<Vehicle>> waitingQueues = new ConcurrentHashMap<>();
-
-    private final List<PauseTransition> backgroundTransitions = new ArrayList<>();
-    private final List<Timeline> backgroundTimelines = new ArrayList<>();
+    // Araçlar slot indeksiyle tutulur; bekleme kuyrukları yalnızca slot kimliği taşır.
+    // Tüm erişim JavaFX uygulama iş parçacığından yapılır.
+    private Vehicle[] vehicleSlots = new Vehicle[64];
+    private final LaneQueue freeSlots = new LaneQueue();
+    private int slotHighWater;
+    private final LaneQueue[] waitingQueues = new LaneQueue[Constants.DIRECTIONS_TURKISH.length];
+    private final int[] upstreamCounts = new int[Constants.DIRECTIONS_TURKISH.length];
+    private final int[] downstreamCounts = new int[Constants.DIRECTIONS_TURKISH.length];
+    private final TrafficMetrics metrics = new TrafficMetrics();
+    // Işıkta bekleyen araç sayısı ve bu sayının son değiştiği an; kuyruk uzunluğu olay anlarında kaydedilir
+    private final int[] waitingCounts = new int[Constants.DIRECTIONS_TURKISH.length];
+    private final double[] waitingChangeTimes = new double[Constants.DIRECTIONS_TURKISH.length];
+
+    private final EventScheduler scheduler;
     private volatile boolean backgroundProcessesPaused = false;
+    private final Set<String> pendingQueueReleases = ConcurrentHashMap.newKeySet();
 
-    public VehicleManager(Pane rootPane, TrafficLightSystem trafficLightSystem) {
+    public VehicleManager(Pane rootPane, VehicleNodePool nodePool, TrafficLightSystem trafficLightSystem,
+                          EventScheduler scheduler) {
         this.rootPane = rootPane;
+        this.nodePool = nodePool;
         this.trafficLightSystem = trafficLightSystem;
+        this.scheduler = scheduler;
         initializeVehicleLists();
+        subscribeToSignalPhases();
     }
 
-    private void initializeVehicleLists() {
+    private void subscribeToSignalPhases() {
+        SignalPhaseListener releaseOnGreen = (direction, state) -> {
+            if (state != SignalState.GREEN) return;
+            if (backgroundProcessesPaused) {
+                pendingQueueReleases.add(direction);
+                return;
+            }
+            processQueueMovement(direction);
+        };
         for (String direction : Constants.DIRECTIONS_TURKISH) {
-            activeVehicles.put(direction, new CopyOnWriteArrayList<>());
-            waitingQueues.put(direction, new CopyOnWriteArrayList<>());
+            trafficLightSystem.addPhaseListener(direction, releaseOnGreen);
         }
     }
 
+    private void initializeVehicleLists() {
+        for (int approach = 0; approach < waitingQueues.length; approach++) {
+            waitingQueues[approach] = new LaneQueue();
+        }
+    }
+
+    private int registerVehicle(Vehicle vehicle) {
+        int slot;
+        if (!freeSlots.isEmpty()) {
+            slot = freeSlots.removeFirst();
+        } else {
+            if (slotHighWater == vehicleSlots.length) {
+                vehicleSlots = Arrays.copyOf(vehicleSlots, vehicleSlots.length * 2);
+            }
+            slot = slotHighWater++;
+        }
+        vehicleSlots[slot] = vehicle;
+        return slot;
+    }
+
+    private void releaseVehicle(int slot) {
+        if (vehicleSlots[slot] == null) return;
+        vehicleSlots[slot] = null;
+        freeSlots.addLast(slot);
+    }
+
     public void spawnVehicles(String direction, int carCount) {
         List<Path> toLightPaths = PathService.getPathsToLight(Constants.DIRECTION_MAP_TURKISH_TO_ENGLISH.get(direction));
         List<Path> afterLightPaths = PathService.getPathsAfterLight(Constants.DIRECTION_MAP_TURKISH_TO_ENGLISH.get(direction));
@@ -47,265 +98,270 @@ public class VehicleManager {
             return;
         }
 
+        int approach = SimulationEngine.approachIndex(direction);
         for (int i = 0; i < carCount; i++) {
             final int carIndex = i;
             Path toLightPath = toLightPaths.get(i % toLightPaths.size());
             Path afterLightPath = afterLightPaths.get(i % afterLightPaths.size());
 
-            Vehicle vehicle = new Vehicle(rootPane, direction, carIndex);
-            activeVehicles.get(direction).add(vehicle);
+            Vehicle vehicle = new Vehicle(rootPane, nodePool, direction, carIndex);
+            int slot = registerVehicle(vehicle);
+            LoopDetector detector = trafficLightSystem.getDetector(direction);
+            double[] lastDistance = new double[1];
 
             double delay = carIndex * Constants.CAR_SPAWN_DELAY;
-            PauseTransition startDelay = new PauseTransition(Duration.seconds(delay));
-            backgroundTransitions.add(startDelay);
-
-            startDelay.setOnFinished(event -> {
-                backgroundTransitions.remove(startDelay);
-
-                if (backgroundProcessesPaused) return;
-
+            scheduler.schedule(delay, () -> {
+                upstreamCounts[approach]++;
+                vehicle.setEntryTime(scheduler.getNow());
+                SimulationEvents.vehicleSpawned(approach, carIndex, scheduler.getNow());
                 vehicle.startMovement(toLightPath, () -> {
                     if (!vehicle.isWaitingAtLight() && vehicle.hasCheckedTrafficLight()) {
-                        continueToAfterLight(vehicle, afterLightPath);
+                        continueToAfterLight(slot, vehicle, afterLightPath);
                     }
                 });
 
                 vehicle.getCurrentTransition().currentTimeProperty().addListener((obs, oldTime, newTime) -> {
                     if (vehicle.getCurrentTransition().getTotalDuration().toMillis() > 0) {
                         vehicle.setCurrentProgress(newTime.toMillis() / vehicle.getCurrentTransition().getTotalDuration().toMillis());
+                        double distance = vehicle.getCurrentProgress() * vehicle.getPathLength();
+                        detector.vehicleMoved(lastDistance[0], distance, scheduler.getNow());
+                        lastDistance[0] = distance;
 
                         if (vehicle.getCurrentProgress() >= vehicle.getStopPosition() && !vehicle.hasCheckedTrafficLight()) {
                             vehicle.setHasCheckedTrafficLight(true);
                             vehicle.setHasReachedStopPoint(true);
-                            checkTrafficLightAndAct(vehicle, toLightPath, afterLightPath);
+                            checkTrafficLightAndAct(slot, vehicle);
                         }
                     }
                 });
             });
-            startDelay.play();
         }
     }
 
-    private void checkTrafficLightAndAct(Vehicle vehicle, Path toLightPath, Path afterLightPath) {
+    private void checkTrafficLightAndAct(int slot, Vehicle vehicle) {
         boolean isGreen = trafficLightSystem.isGreen(vehicle.getDirection());
 
         if (!isGreen) {
             vehicle.pauseMovement();
             vehicle.setWaitingAtLight(true);
-            vehicle.setQueueEntryTime(System.currentTimeMillis());
-
-            List<Vehicle> queue = waitingQueues.get(vehicle.getDirection());
-            if (queue != null) {
-                queue.add(vehicle);
-            }
-
-            monitorTrafficLightForVehicle(vehicle, afterLightPath);
+            vehicle.setQueueEntryTime(scheduler.getNow());
+            int approach = SimulationEngine.approachIndex(vehicle.getDirection());
+            changeWaitingCount(approach, 1);
+            waitingQueues[approach].addLast(slot);
+            SimulationEvents.stoppedAtRed(approach, waitingCounts[approach], scheduler.getNow());
         }
     }
 
-    private void monitorTrafficLightForVehicle(Vehicle vehicle, Path afterLightPath) {
-        Timeline waitTimeline = new Timeline(
-                new KeyFrame(Duration.millis(100), waitEvent -> {
-                    if (backgroundProcessesPaused) return;
-
-                    if (trafficLightSystem.isGreen(vehicle.getDirection())) {
-                        processQueueMovement(vehicle.getDirection());
-
-                        Timeline currentWaitTimeline = (Timeline) waitEvent.getSource();
-                        currentWaitTimeline.stop();
-                        backgroundTimelines.remove(currentWaitTimeline);
-                    }
-                })
-        );
-        waitTimeline.setCycleCount(Timeline.INDEFINITE);
-        backgroundTimelines.add(waitTimeline);
-        waitTimeline.play();
+    private void changeWaitingCount(int approach, int delta) {
+        double now = scheduler.getNow();
+        metrics.recordQueueLength(approach, waitingCounts[approach], now - waitingChangeTimes[approach]);
+        waitingChangeTimes[approach] = now;
+        waitingCounts[approach] += delta;
     }
 
     public void processQueueMovement(String direction) {
-        List<Vehicle> queue = waitingQueues.get(direction);
-        if (queue == null || queue.isEmpty()) return;
+        LaneQueue queue = waitingQueues[SimulationEngine.approachIndex(direction)];
+        if (queue.isEmpty()) return;
 
-        List<Vehicle> queueCopy = new ArrayList<>(queue);
-        for (int i = 0; i < queueCopy.size(); i++) {
-            Vehicle vehicle = queueCopy.get(i);
-            if (vehicle.hasExitedQueue() || !vehicle.isWaitingAtLight()) continue;
+        int count = queue.size();
+        for (int i = 0; i < count; i++) {
+            int slot = queue.get(i);
+            Vehicle vehicle = vehicleSlots[slot];
+            if (vehicle == null || vehicle.hasExitedQueue() || !vehicle.isWaitingAtLight()) continue;
 
             double exitDelay = i * Constants.QUEUE_EXIT_DELAY;
-            PauseTransition queueExitDelay = new PauseTransition(Duration.seconds(exitDelay));
-            backgroundTransitions.add(queueExitDelay);
-
-            queueExitDelay.setOnFinished(exitEvent -> {
-                backgroundTransitions.remove(queueExitDelay);
-
-                if (backgroundProcessesPaused) return;
-
+            scheduler.schedule(exitDelay, () -> {
                 if (!vehicle.hasExitedQueue() && vehicle.isWaitingAtLight()) {
                     vehicle.setHasExitedQueue(true);
                     vehicle.setWaitingAtLight(false);
-                    resumeCarMovement(vehicle);
+                    vehicle.setStopDelay(scheduler.getNow() - vehicle.getQueueEntryTime());
+                    int approach = SimulationEngine.approachIndex(direction);
+                    changeWaitingCount(approach, -1);
+                    SimulationEvents.queueDischarged(approach, vehicle.getStopDelay(), scheduler.getNow());
+                    resumeCarMovement(slot, vehicle);
                 }
             });
-            queueExitDelay.play();
         }
         queue.clear();
     }
 
-    private void resumeCarMovement(Vehicle vehicle) {
+    private void resumeCarMovement(int slot, Vehicle vehicle) {
         double remainingProgress = 1.0 - vehicle.getCurrentProgress();
-        double remainingTime = Constants.UNIFORM_SPEED * remainingProgress;
+        double remainingTime = vehicle.getPathLength() * remainingProgress / Constants.VEHICLE_SPEED;
 
         if (remainingTime > 0.1) {
             PathTransition transition = vehicle.getCurrentTransition();
             if (transition != null) {
                 transition.setDuration(Duration.seconds(remainingTime));
-                transition.setOnFinished(e -> moveToSecondPath(vehicle));
+                transition.setOnFinished(e -> moveToSecondPath(slot, vehicle));
                 transition.play();
             }
         } else {
-            moveToSecondPath(vehicle);
+            moveToSecondPath(slot, vehicle);
         }
     }
 
-    private void moveToSecondPath(Vehicle vehicle) {
+    private void moveToSecondPath(int slot, Vehicle vehicle) {
         vehicle.setMovingToSecondPath(true);
-        List<Path> afterLightPaths = PathService.getPathsAfterLight(Constants.DIRECTION_MAP_TURKISH_TO_ENGLISH.get(vehicle.getDirection()));
-
-        if (afterLightPaths != null && !afterLightPaths.isEmpty()) {
-            Path afterLightPath = afterLightPaths.get(vehicle.getQueuePosition() % afterLightPaths.size());
-            continueToAfterLight(vehicle, afterLightPath);
-        }
+        int approach = SimulationEngine.approachIndex(vehicle.getDirection());
+        int movement = vehicle.getQueuePosition() % Constants.MOVEMENTS_PER_APPROACH;
+        continueToAfterLight(slot, vehicle, PathService.getPath(PathService.afterLightRouteId(approach, movement)));
     }
 
-    private void continueToAfterLight(Vehicle vehicle, Path afterLightPath) {
+    private void continueToAfterLight(int slot, Vehicle vehicle, Path afterLightPath) {
         if (vehicle.getCurrentTransition() != null) {
             vehicle.getCurrentTransition().stop();
         }
+        int approach = SimulationEngine.approachIndex(vehicle.getDirection());
+        upstreamCounts[approach]--;
+        downstreamCounts[approach]++;
 
         PathTransition afterLightTransition = new PathTransition(
-                Duration.seconds(Constants.UNIFORM_SPEED), afterLightPath, vehicle.getCarNode()
+                Duration.seconds(PathService.lengthOf(afterLightPath) / Constants.VEHICLE_SPEED), afterLightPath, vehicle.getCarNode()
         );
         afterLightTransition.setOrientation(PathTransition.OrientationType.ORTHOGONAL_TO_TANGENT);
+        afterLightTransition.setInterpolator(Interpolator.LINEAR);
         afterLightTransition.setOnFinished(e -> {
+            downstreamCounts[approach]--;
+            recordCompletion(vehicle, approach, PathService.lengthOf(afterLightPath));
             vehicle.removeFromPane();
-            activeVehicles.get(vehicle.getDirection()).remove(vehicle);
+            releaseVehicle(slot);
         });
 
         vehicle.setCurrentTransition(afterLightTransition);
         afterLightTransition.play();
     }
 
-    public void pauseAllVehiclesControlled() {
-        for (String direction : Constants.DIRECTIONS_TURKISH) {
-            List<Vehicle> vehicles = activeVehicles.get(direction);
-            if (vehicles != null) {
-                for (Vehicle vehicle : vehicles) {
-                    if (vehicle.getCurrentTransition() != null &&
-                            vehicle.getCurrentTransition().getStatus() == Animation.Status.RUNNING &&
-                            !vehicle.isWaitingAtLight()) {
-                        vehicle.getCurrentTransition().pause();
-                    }
-                }
+    /**
+     * Serbest akış süresi iki rotanın {@link Constants#VEHICLE_SPEED} ile geçilme süresidir; ışığa
+     * giden rotanın uzunluğu araçta kalır.
+     */
+    private void recordCompletion(Vehicle vehicle, int approach, double afterLightLength) {
+        double travelTime = scheduler.getNow() - vehicle.getEntryTime();
+        double freeFlowTime = (vehicle.getPathLength() + afterLightLength) / Constants.VEHICLE_SPEED;
+        metrics.recordCompletion(approach, vehicle.getQueuePosition() % Constants.MOVEMENTS_PER_APPROACH,
+                travelTime, Math.max(0, travelTime - freeFlowTime), vehicle.getStopDelay());
+    }
+
+    /**
+     * Son temizlemeden bu yana tamamlanan koşunun ölçütleri; FX uygulama iş parçacığından okunmalıdır.
+     */
+    public TrafficMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Kayıtlı araç sayısı; slotlar tarandığından yalnızca seyrek örnekleme için uygundur.
+     */
+    public int getVehicleCount() {
+        int count = 0;
+        for (int slot = 0; slot < slotHighWater; slot++) {
+            if (vehicleSlots[slot] != null) {
+                count++;
             }
         }
+        return count;
     }
 
-    public void resumeAllVehiclesControlled() {
-        for (String direction : Constants.DIRECTIONS_TURKISH) {
-            List<Vehicle> vehicles = activeVehicles.get(direction);
-            if (vehicles != null) {
-                for (Vehicle vehicle : vehicles) {
-                    if (vehicle.getCurrentTransition() != null &&
-                            vehicle.getCurrentTransition().getStatus() == Animation.Status.PAUSED &&
-                            !vehicle.isWaitingAtLight()) {
-                        vehicle.getCurrentTransition().play();
-                    }
-                }
+    public int getRunningAnimationCount() {
+        int count = 0;
+        for (int slot = 0; slot < slotHighWater; slot++) {
+            Vehicle vehicle = vehicleSlots[slot];
+            if (vehicle != null && vehicle.getCurrentTransition() != null &&
+                    vehicle.getCurrentTransition().getStatus() == Animation.Status.RUNNING) {
+                count++;
             }
         }
+        return count;
     }
 
-    public void pauseAllBackgroundProcesses() {
-        backgroundProcessesPaused = true;
+    @Override
+    public int getUpstreamCount(int approach) {
+        return upstreamCounts[approach];
+    }
+
+    @Override
+    public int getDownstreamCount(int approach) {
+        return downstreamCounts[approach];
+    }
 
-        for (PauseTransition transition : new ArrayList<>(backgroundTransitions)) {
-            if (transition != null && transition.getStatus() == Animation.Status.RUNNING) {
-                try {
-                    transition.pause();
-                } catch (Exception ignored) {}
+    public void pauseAllVehiclesControlled() {
+        for (int slot = 0; slot < slotHighWater; slot++) {
+            Vehicle vehicle = vehicleSlots[slot];
+            if (vehicle != null && vehicle.getCurrentTransition() != null &&
+                    vehicle.getCurrentTransition().getStatus() == Animation.Status.RUNNING &&
+                    !vehicle.isWaitingAtLight()) {
+                vehicle.getCurrentTransition().pause();
             }
         }
+    }
 
-        for (Timeline timeline : new ArrayList<>(backgroundTimelines)) {
-            if (timeline != null && timeline.getStatus() == Timeline.Status.RUNNING) {
-                try {
-                    timeline.pause();
-                } catch (Exception ignored) {}
+    public void resumeAllVehiclesControlled() {
+        for (int slot = 0; slot < slotHighWater; slot++) {
+            Vehicle vehicle = vehicleSlots[slot];
+            if (vehicle != null && vehicle.getCurrentTransition() != null &&
+                    vehicle.getCurrentTransition().getStatus() == Animation.Status.PAUSED &&
+                    !vehicle.isWaitingAtLight()) {
+                vehicle.getCurrentTransition().play();
             }
         }
     }
 
+    /**
+     * Zamanlanmış kalkış ve kuyruk çıkış olayları paylaşılan {@link EventScheduler} saati
+     * durdurulunca zaten bekler; burada yalnızca duraklama sırasında gelen yeşil ışıklar ertelenir.
+     */
+    public void pauseAllBackgroundProcesses() {
+        backgroundProcessesPaused = true;
+    }
+
     public void resumeAllBackgroundProcesses() {
         backgroundProcessesPaused = false;
 
-        for (PauseTransition transition : new ArrayList<>(backgroundTransitions)) {
-            if (transition != null && transition.getStatus() == Animation.Status.PAUSED) {
-                try {
-                    transition.play();
-                } catch (Exception ignored) {}
-            }
-        }
-
-        for (Timeline timeline : new ArrayList<>(backgroundTimelines)) {
-            if (timeline != null && timeline.getStatus() == Timeline.Status.PAUSED) {
-                try {
-                    timeline.play();
-                } catch (Exception ignored) {}
+        for (String direction : Constants.DIRECTIONS_TURKISH) {
+            if (pendingQueueReleases.remove(direction) && trafficLightSystem.isGreen(direction)) {
+                processQueueMovement(direction);
             }
         }
     }
 
     public void stopAllVehicles() {
-        for (String direction : Constants.DIRECTIONS_TURKISH) {
-            List<Vehicle> vehicles = activeVehicles.get(direction);
-            if (vehicles != null) {
-                for (Vehicle vehicle : vehicles) {
-                    if (vehicle.getCurrentTransition() != null) {
-                        vehicle.getCurrentTransition().stop();
-                    }
-                }
+        for (int slot = 0; slot < slotHighWater; slot++) {
+            Vehicle vehicle = vehicleSlots[slot];
+            if (vehicle != null && vehicle.getCurrentTransition() != null) {
+                vehicle.getCurrentTransition().stop();
             }
-            List<Vehicle> waiting = waitingQueues.get(direction);
-            if (waiting != null) {
-                waiting.clear();
-            }
-        }
-        for (PauseTransition pt : new ArrayList<>(backgroundTransitions)) {
-            pt.stop();
         }
-        backgroundTransitions.clear();
-        for (Timeline tl : new ArrayList<>(backgroundTimelines)) {
-            tl.stop();
+        for (LaneQueue queue : waitingQueues) {
+            queue.clear();
         }
-        backgroundTimelines.clear();
+        Arrays.fill(upstreamCounts, 0);
+        Arrays.fill(downstreamCounts, 0);
+        // Zamanlayıcı bu noktada temizlenmiş olabilir; kuyruklar ölçüt kaydetmeden sıfırlanır
+        Arrays.fill(waitingCounts, 0);
+        Arrays.fill(waitingChangeTimes, scheduler.getNow());
+        pendingQueueReleases.clear();
     }
 
     public void clearAllVehiclesFromScreen() {
-        for (String direction : Constants.DIRECTIONS_TURKISH) {
-            List<Vehicle> vehicles = activeVehicles.get(direction);
-            if (vehicles != null) {
-                for (Vehicle vehicle : new ArrayList<>(vehicles)) {
-                    vehicle.removeFromPane();
-                    vehicles.remove(vehicle);
-                }
-            }
-            List<Vehicle> waiting = waitingQueues.get(direction);
-            if (waiting != null) {
-                waiting.clear();
+        for (int slot = 0; slot < slotHighWater; slot++) {
+            Vehicle vehicle = vehicleSlots[slot];
+            if (vehicle != null) {
+                vehicle.removeFromPane();
+                vehicleSlots[slot] = null;
             }
         }
-        backgroundTransitions.clear();
-        backgroundTimelines.clear();
+        slotHighWater = 0;
+        freeSlots.clear();
+        for (LaneQueue queue : waitingQueues) {
+            queue.clear();
+        }
+        Arrays.fill(upstreamCounts, 0);
+        Arrays.fill(downstreamCounts, 0);
+        Arrays.fill(waitingCounts, 0);
+        Arrays.fill(waitingChangeTimes, scheduler.getNow());
+        metrics.reset();
+        pendingQueueReleases.clear();
         backgroundProcessesPaused = false;
     }
 }
@@ -0,0 +1,169 @@
+package org.example.traf.model;
+
+import javafx.scene.Node;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+import org.example.traf.util.Constants;
+import org.example.traf.util.SpriteCache;
+
+import java.util.ArrayDeque;
+import java.util.Random;
+
+/**
+ * Araç düğümlerini yeniden kullanan havuz. Araba görselinin farklı renklere boyanmış birkaç kopyası
+ * bir kez hesaplanır ve tüm havuzlarca paylaşılır; düğüm başına {@code ColorAdjust} efekti yerine
+ * paletten bir görsel atanır. Renkler havuza verilen akıştan seçilir, bu yüzden her çalıştırma kendi
+ * havuzunu kurar. Yalnızca JavaFX uygulama iş parçacığından kullanılır.
+ */
+public final class VehicleNodePool {
+
+    private static final double CAR_SIZE = 60;
+    // Dönen sprite'ın keskin kalması için gösterim boyutunun iki katında önbelleğe alınır
+    private static final double CAR_TEXTURE_SIZE = CAR_SIZE * 2;
+
+    private static final Image[] TINT_PALETTE = new Image[Constants.REALISTIC_CAR_COLORS.length];
+    private static int[] sourcePixels;
+    private static int sourceWidth;
+    private static int sourceHeight;
+
+    private final ArrayDeque<Node> freeNodes = new ArrayDeque<>();
+    private final Random random;
+
+    /**
+     * @param random renk seçimi için çalıştırmanın {@link RandomStreams.Subsystem#VEHICLE_COLORS} akışı
+     */
+    public VehicleNodePool(Random random) {
+        this.random = random;
+    }
+
+    /**
+     * Havuzdan bir düğüm alır (gerekirse oluşturur) ve paletten rastgele bir renge boyar.
+     * Düğüm sahneye eklenmiş olarak dönmez.
+     */
+    public Node acquire() {
+        Node node = freeNodes.poll();
+        if (node == null) {
+            node = createNode();
+        }
+        tint(node);
+        return node;
+    }
+
+    /**
+     * Düğümü sahneden çıkarır ve havuza geri bırakır; dönüşüm alanları sıfırlanır.
+     */
+    public void release(Node node) {
+        if (node == null) return;
+        if (node.getParent() instanceof Pane pane) {
+            pane.getChildren().remove(node);
+        }
+        node.setTranslateX(0);
+        node.setTranslateY(0);
+        node.setRotate(0);
+        freeNodes.push(node);
+    }
+
+    /**
+     * Renk paletindeki araba görseli; tuval tabanlı çizim düğüm yerine doğrudan bunu kullanır.
+     * Görsel yüklenemezse {@code null}.
+     */
+    public static Image getCarSprite(int colorIndex) {
+        return tintedCar(Math.floorMod(colorIndex, TINT_PALETTE.length));
+    }
+
+    public static int getPaletteSize() {
+        return TINT_PALETTE.length;
+    }
+
+    public static double getCarSize() {
+        return CAR_SIZE;
+    }
+
+    public int getFreeCount() {
+        return freeNodes.size();
+    }
+
+    private static Node createNode() {
+        if (SpriteCache.get(SpriteCache.CAR, CAR_TEXTURE_SIZE, CAR_TEXTURE_SIZE) != null) {
+            ImageView car = new ImageView();
+            car.setFitWidth(CAR_SIZE);
+            car.setFitHeight(CAR_SIZE);
+            return car;
+        }
+
+        Rectangle car = new Rectangle(CAR_SIZE, 30);
+        car.setStroke(Color.BLACK);
+        car.setStrokeWidth(1.5);
+        car.setArcWidth(10);
+        car.setArcHeight(10);
+        return car;
+    }
+
+    private void tint(Node node) {
+        int index = random.nextInt(Constants.REALISTIC_CAR_COLORS.length);
+        if (node instanceof ImageView car) {
+            car.setImage(tintedCar(index));
+        } else if (node instanceof Rectangle car) {
+            car.setFill(Color.web(Constants.REALISTIC_CAR_COLORS[index]));
+        }
+    }
+
+    /**
+     * Kaportası {@code index} numaralı gerçekçi araba rengine boyanmış araba görseli; her renk
+     * ilk kullanıldığında bir kez hesaplanır. Görsel yüklenemezse {@code null}.
+     */
+    private static Image tintedCar(int index) {
+        if (sourcePixels == null) {
+            Image source = SpriteCache.get(SpriteCache.CAR, CAR_TEXTURE_SIZE, CAR_TEXTURE_SIZE);
+            if (source == null) return null;
+            sourceWidth = (int) source.getWidth();
+            sourceHeight = (int) source.getHeight();
+            sourcePixels = new int[sourceWidth * sourceHeight];
+            source.getPixelReader().getPixels(0, 0, sourceWidth, sourceHeight,
+                    PixelFormat.getIntArgbInstance(), sourcePixels, 0, sourceWidth);
+        }
+        if (TINT_PALETTE[index] == null) {
+            int[] tinted = new int[sourcePixels.length];
+            recolor(sourcePixels, tinted, Color.web(Constants.REALISTIC_CAR_COLORS[index]));
+            WritableImage image = new WritableImage(sourceWidth, sourceHeight);
+            image.getPixelWriter().setPixels(0, 0, sourceWidth, sourceHeight,
+                    PixelFormat.getIntArgbInstance(), tinted, 0, sourceWidth);
+            TINT_PALETTE[index] = image;
+        }
+        return TINT_PALETTE[index];
+    }
+
+    /**
+     * Açık renkli ya da doygun kaporta pikselleri hedef renge boyanır, gölgelendirme kaynağın
+     * parlaklığından korunur; cam, lastik ve şeffaf alanlar olduğu gibi kalır.
+     */
+    private static void recolor(int[] source, int[] target, Color color) {
+        // Sabit ton ve doygunlukta HSB→RGB parlaklıkla doğrusal olduğundan birim renk ölçeklenir
+        Color unit = Color.hsb(color.getHue(), color.getSaturation(), 1.0);
+        double shade = 0.15 + 0.85 * color.getBrightness();
+        for (int i = 0; i < source.length; i++) {
+            int argb = source[i];
+            int alpha = argb >>> 24;
+            int r = (argb >> 16) & 0xFF;
+            int g = (argb >> 8) & 0xFF;
+            int b = argb & 0xFF;
+            int max = Math.max(r, Math.max(g, b));
+            int min = Math.min(r, Math.min(g, b));
+            boolean saturated = max > 0 && (max - min) >= 0.15 * max;
+            if (alpha == 0 || (!saturated && max < 0.6 * 255)) {
+                target[i] = argb;
+                continue;
+            }
+            double value = Math.min(1.0, max / 255.0 * shade) * 255;
+            target[i] = (alpha << 24)
+                    | ((int) Math.round(unit.getRed() * value) << 16)
+                    | ((int) Math.round(unit.getGreen() * value) << 8)
+                    | (int) Math.round(unit.getBlue() * value);
+        }
+    }
+}
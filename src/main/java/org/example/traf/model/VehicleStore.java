@@ -0,0 +1,302 @@
+package org.example.traf.model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Araç durumunu nesne başına değil, slot indeksiyle erişilen paralel ilkel dizilerde tutar.
+ * Boşalan slotlar yeniden kullanılır; diziler yalnızca kapasite aşıldığında büyür, böylece
+ * simülasyon adımı sırasında hiç nesne ayrılmaz.
+ */
+public final class VehicleStore {
+
+    // --- Durum bit alanı: alt 3 bit aşama, üst bitler bayraklar ---
+    public static final long STAGE_MASK = 0x7L;
+    public static final int STAGE_TO_LIGHT = 0;
+    public static final int STAGE_WAITING = 1;
+    public static final int STAGE_AFTER_LIGHT = 2;
+
+    public static final long FLAG_ALIVE = 1L << 3;
+    public static final long FLAG_CHECKED_LIGHT = 1L << 4;
+    public static final long FLAG_REACHED_STOP = 1L << 5;
+    public static final long FLAG_EXITED_QUEUE = 1L << 6;
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private int[] vehicleIds;
+    private int[] approaches;
+    private int[] pathIds;
+    private int[] queuePositions;
+    private double[] distances;
+    private double[] speeds;
+    private double[] stopPositions;
+    private double[] entryTimes;
+    private double[] queueEntryTimes;
+    private double[] stopDelays;
+    private long[] states;
+
+    private int[] freeSlots;
+    private int freeCount;
+    private int highWater;
+    private int size;
+    private int nextVehicleId;
+
+    public VehicleStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public VehicleStore(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        vehicleIds = new int[capacity];
+        approaches = new int[capacity];
+        pathIds = new int[capacity];
+        queuePositions = new int[capacity];
+        distances = new double[capacity];
+        speeds = new double[capacity];
+        stopPositions = new double[capacity];
+        entryTimes = new double[capacity];
+        queueEntryTimes = new double[capacity];
+        stopDelays = new double[capacity];
+        states = new long[capacity];
+        freeSlots = new int[capacity];
+    }
+
+    /**
+     * Yeni bir araç için slot ayırır. Önce serbest bırakılmış slotlar kullanılır.
+     */
+    public int allocate(int approach, int pathId, int queuePosition, double stopPosition, double entryTime) {
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (highWater == states.length) {
+                grow(states.length * 2);
+            }
+            slot = highWater++;
+        }
+
+        vehicleIds[slot] = nextVehicleId++;
+        approaches[slot] = approach;
+        pathIds[slot] = pathId;
+        queuePositions[slot] = queuePosition;
+        distances[slot] = 0.0;
+        speeds[slot] = 0.0;
+        stopPositions[slot] = stopPosition;
+        entryTimes[slot] = entryTime;
+        queueEntryTimes[slot] = 0.0;
+        stopDelays[slot] = 0.0;
+        states[slot] = FLAG_ALIVE | STAGE_TO_LIGHT;
+        size++;
+        return slot;
+    }
+
+    public void release(int slot) {
+        if ((states[slot] & FLAG_ALIVE) == 0) return;
+        states[slot] = 0L;
+        freeSlots[freeCount++] = slot;
+        size--;
+    }
+
+    public void clear() {
+        Arrays.fill(states, 0, highWater, 0L);
+        freeCount = 0;
+        highWater = 0;
+        size = 0;
+    }
+
+    /**
+     * Slotları ve serbest listeyi yazar; boş slotların yalnızca durum alanı yazılır.
+     */
+    void writeState(DataOutput out) throws IOException {
+        out.writeInt(highWater);
+        out.writeInt(size);
+        out.writeInt(nextVehicleId);
+        out.writeInt(freeCount);
+        for (int i = 0; i < freeCount; i++) {
+            out.writeInt(freeSlots[i]);
+        }
+        for (int slot = 0; slot < highWater; slot++) {
+            out.writeLong(states[slot]);
+            if ((states[slot] & FLAG_ALIVE) == 0) continue;
+            out.writeInt(vehicleIds[slot]);
+            out.writeInt(approaches[slot]);
+            out.writeInt(pathIds[slot]);
+            out.writeInt(queuePositions[slot]);
+            out.writeDouble(distances[slot]);
+            out.writeDouble(speeds[slot]);
+            out.writeDouble(stopPositions[slot]);
+            out.writeDouble(entryTimes[slot]);
+            out.writeDouble(queueEntryTimes[slot]);
+            out.writeDouble(stopDelays[slot]);
+        }
+    }
+
+    /**
+     * {@link #writeState} ile yazılan durumu yükler; slot numaraları korunur, bu yüzden şerit
+     * kuyruklarındaki slot kimlikleri geçerli kalır.
+     */
+    void readState(DataInput in) throws IOException {
+        clear();
+        int savedHighWater = in.readInt();
+        if (savedHighWater > states.length) {
+            grow(savedHighWater);
+        }
+        highWater = savedHighWater;
+        size = in.readInt();
+        nextVehicleId = in.readInt();
+        freeCount = in.readInt();
+        for (int i = 0; i < freeCount; i++) {
+            freeSlots[i] = in.readInt();
+        }
+        for (int slot = 0; slot < highWater; slot++) {
+            states[slot] = in.readLong();
+            if ((states[slot] & FLAG_ALIVE) == 0) continue;
+            vehicleIds[slot] = in.readInt();
+            approaches[slot] = in.readInt();
+            pathIds[slot] = in.readInt();
+            queuePositions[slot] = in.readInt();
+            distances[slot] = in.readDouble();
+            speeds[slot] = in.readDouble();
+            stopPositions[slot] = in.readDouble();
+            entryTimes[slot] = in.readDouble();
+            queueEntryTimes[slot] = in.readDouble();
+            stopDelays[slot] = in.readDouble();
+        }
+    }
+
+    private void grow(int capacity) {
+        vehicleIds = Arrays.copyOf(vehicleIds, capacity);
+        approaches = Arrays.copyOf(approaches, capacity);
+        pathIds = Arrays.copyOf(pathIds, capacity);
+        queuePositions = Arrays.copyOf(queuePositions, capacity);
+        distances = Arrays.copyOf(distances, capacity);
+        speeds = Arrays.copyOf(speeds, capacity);
+        stopPositions = Arrays.copyOf(stopPositions, capacity);
+        entryTimes = Arrays.copyOf(entryTimes, capacity);
+        queueEntryTimes = Arrays.copyOf(queueEntryTimes, capacity);
+        stopDelays = Arrays.copyOf(stopDelays, capacity);
+        states = Arrays.copyOf(states, capacity);
+        freeSlots = Arrays.copyOf(freeSlots, capacity);
+    }
+
+    /**
+     * Tarama döngüleri için üst sınır: [0, highWater) aralığındaki canlı slotlar geçerlidir.
+     */
+    public int getHighWater() {
+        return highWater;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return states.length;
+    }
+
+    public boolean isAlive(int slot) {
+        return (states[slot] & FLAG_ALIVE) != 0;
+    }
+
+    public int getStage(int slot) {
+        return (int) (states[slot] & STAGE_MASK);
+    }
+
+    public void setStage(int slot, int stage) {
+        states[slot] = (states[slot] & ~STAGE_MASK) | (stage & STAGE_MASK);
+    }
+
+    public boolean hasFlag(int slot, long flag) {
+        return (states[slot] & flag) != 0;
+    }
+
+    public void setFlag(int slot, long flag, boolean value) {
+        if (value) {
+            states[slot] |= flag;
+        } else {
+            states[slot] &= ~flag;
+        }
+    }
+
+    public long getState(int slot) {
+        return states[slot];
+    }
+
+    public int getVehicleId(int slot) {
+        return vehicleIds[slot];
+    }
+
+    public int getApproach(int slot) {
+        return approaches[slot];
+    }
+
+    public int getPathId(int slot) {
+        return pathIds[slot];
+    }
+
+    public void setPathId(int slot, int pathId) {
+        pathIds[slot] = pathId;
+    }
+
+    public int getQueuePosition(int slot) {
+        return queuePositions[slot];
+    }
+
+    public void setQueuePosition(int slot, int queuePosition) {
+        queuePositions[slot] = queuePosition;
+    }
+
+    /**
+     * Aracın bulunduğu rota üzerinde başlangıçtan itibaren aldığı yol (piksel).
+     */
+    public double getDistance(int slot) {
+        return distances[slot];
+    }
+
+    public void setDistance(int slot, double value) {
+        distances[slot] = value;
+    }
+
+    /**
+     * Rota boyunca anlık hız (piksel/saniye).
+     */
+    public double getSpeed(int slot) {
+        return speeds[slot];
+    }
+
+    public void setSpeed(int slot, double value) {
+        speeds[slot] = value;
+    }
+
+    /**
+     * Işığa giden rotada aracın durması gereken mesafe (piksel).
+     */
+    public double getStopPosition(int slot) {
+        return stopPositions[slot];
+    }
+
+    public double getEntryTime(int slot) {
+        return entryTimes[slot];
+    }
+
+    public double getQueueEntryTime(int slot) {
+        return queueEntryTimes[slot];
+    }
+
+    public void setQueueEntryTime(int slot, double time) {
+        queueEntryTimes[slot] = time;
+    }
+
+    /**
+     * Aracın ışıkta kuyrukta durarak geçirdiği toplam süre (saniye); her kuyruktan çıkışta artar.
+     */
+    public double getStopDelay(int slot) {
+        return stopDelays[slot];
+    }
+
+    public void addStopDelay(int slot, double seconds) {
+        stopDelays[slot] += seconds;
+    }
+}
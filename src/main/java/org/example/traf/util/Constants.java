@@ -10,20 +10,28 @@ public final class Constants {
     public static final int YELLOW_DURATION = 2;
     public static final int MIN_GREEN_DURATION = 10;
     public static final int MAX_GREEN_DURATION = 60;
+    // Uyarmalı kontrolde yeşil, dedektör bu kadar süre boş kalınca kesilir
+    public static final double PASSAGE_TIME = 2.0;
 
     // --- Simülasyon Ayarları ---
     public static final int TOTAL_SIMULATION_TIME = 120;
+    public static final double SIMULATION_STEP = 0.05;
 
     // --- Araç Davranış Parametreleri ---
     public static final double SAFE_DISTANCE = 100.0;
     public static final double CAR_LENGTH = 70.0;
     public static final double QUEUE_SPACING = 0.20;
-    public static final double UNIFORM_SPEED = 4.5;
+    public static final double VEHICLE_SPEED = 180.0; // piksel/saniye
     public static final double CAR_SPAWN_DELAY = 2.5;
+    // Talep üreticisinde aynı yaklaşım ve hareketteki iki gelişin en kısa arası (saniye)
+    public static final double MIN_HEADWAY = 1.0;
     public static final double QUEUE_EXIT_DELAY = 1.2;
     public static final double SECOND_CAR_EXTRA_DISTANCE = 0.1;
     public static final double SAFETY_BUFFER = 20.0;
     public static final double MAX_SPEED_DIFF = 0.5;
+    public static final double MAX_ACCELERATION = 240.0; // piksel/saniye²
+    public static final double COMFORTABLE_DECELERATION = 360.0; // piksel/saniye²
+    public static final double DETECTOR_LENGTH = 140.0; // durma çizgisinin gerisindeki algılama alanı (piksel)
 
     // --- Kullanıcı Arayüzü (UI) ---
     public static final double INTERSECTION_WIDTH = 1920;
@@ -43,6 +51,7 @@ public final class Constants {
     };
 
     public static final String[] DIRECTIONS_TURKISH = {"Doğu", "Batı", "Kuzey", "Güney"};
+    public static final int MOVEMENTS_PER_APPROACH = 3;
 
     public static final Map<String, String> DIRECTION_MAP_TURKISH_TO_ENGLISH = Map.of(
             "Doğu", "east",
@@ -0,0 +1,60 @@
+package org.example.traf.util;
+
+import javafx.scene.image.Image;
+
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Kaynak görsellerini bir kez çözümleyip paylaşan önbellek. {@link Image} değişmez olduğundan
+ * aynı örnek tüm araç ve ışık düğümlerinde kullanılabilir.
+ */
+public final class SpriteCache {
+
+    public static final String CAR = "/araba.png";
+    public static final String RED_LIGHT = "/kirmizi.png";
+    public static final String YELLOW_LIGHT = "/sari.png";
+    public static final String GREEN_LIGHT = "/yesil.png";
+
+    private static final Map<String, Image> IMAGES = new ConcurrentHashMap<>();
+
+    private SpriteCache() {} // Yardımcı sınıf, örneklenemez
+
+    /**
+     * Görseli ilk istekte yükler; kaynak bulunamaz ya da çözümlenemezse {@code null} döner
+     * ve sonraki isteklerde tekrar denenir.
+     */
+    public static Image get(String resource) {
+        return get(resource, 0, 0);
+    }
+
+    /**
+     * Görseli yüklerken en-boy oranını koruyarak verilen kutuya küçültür; 0 boyut kaynak boyutu
+     * demektir. Küçük gösterilen sprite'lar için doku belleğini ve piksel işlemlerini azaltır.
+     */
+    public static Image get(String resource, double width, double height) {
+        String key = width > 0 || height > 0 ? resource + "@" + width + "x" + height : resource;
+        Image image = IMAGES.get(key);
+        if (image == null) {
+            image = load(resource, width, height);
+            if (image != null) {
+                Image existing = IMAGES.putIfAbsent(key, image);
+                if (existing != null) {
+                    image = existing;
+                }
+            }
+        }
+        return image;
+    }
+
+    private static Image load(String resource, double width, double height) {
+        try (InputStream stream = SpriteCache.class.getResourceAsStream(resource)) {
+            if (stream == null) return null;
+            Image image = new Image(stream, width, height, true, true);
+            return image.isError() ? null : image;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
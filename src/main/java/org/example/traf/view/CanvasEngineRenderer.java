@@ -0,0 +1,79 @@
+package org.example.traf.view;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.Label;
+import javafx.scene.image.Image;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.transform.Affine;
+import org.example.traf.model.EngineSnapshot;
+import org.example.traf.model.SimulationEngine;
+import org.example.traf.model.VehicleNodePool;
+import org.example.traf.util.Constants;
+
+/**
+ * Tüm araçları her karede tek bir {@link Canvas} geçişinde çizen toplu çizici. Araç başına sahne
+ * düğümü, dönüşüm ya da efekt tutulmaz; yol çizimi önbelleğe alınmış tek bir arka plan görüntüsüdür.
+ * Işıklar ve geri sayımlar {@link EngineRenderer} ile aynı şekilde düğüm olarak kalır.
+ */
+public class CanvasEngineRenderer extends EngineRenderer {
+
+    private static final Affine IDENTITY = new Affine();
+
+    private final Canvas canvas = new Canvas(Constants.INTERSECTION_WIDTH, Constants.INTERSECTION_HEIGHT);
+    private final GraphicsContext graphics = canvas.getGraphicsContext2D();
+    private final Image background;
+    private final Image[] carSprites = new Image[VehicleNodePool.getPaletteSize()];
+    private final Color[] fallbackColors = new Color[Constants.REALISTIC_CAR_COLORS.length];
+    private final double carSize = VehicleNodePool.getCarSize();
+    private final SimulationEngine.VehicleVisitor drawVehicle = this::drawVehicle;
+
+    public CanvasEngineRenderer(Pane rootPane, UIBuilder uiBuilder, Label totalCountdownLabel) {
+        super(rootPane, totalCountdownLabel);
+        this.background = uiBuilder.snapshotIntersection();
+        uiBuilder.replaceIntersectionLayer(canvas);
+
+        for (int i = 0; i < carSprites.length; i++) {
+            carSprites[i] = VehicleNodePool.getCarSprite(i);
+        }
+        for (int i = 0; i < fallbackColors.length; i++) {
+            fallbackColors[i] = Color.web(Constants.REALISTIC_CAR_COLORS[i]);
+        }
+        drawBackground();
+    }
+
+    @Override
+    protected void renderVehicles(EngineSnapshot snapshot) {
+        drawBackground();
+        snapshot.forEachVehicle(drawVehicle);
+        graphics.setTransform(IDENTITY);
+    }
+
+    private void drawVehicle(int vehicleId, double x, double y, double heading) {
+        // Döndürme ve öteleme tek bir afin matrisle verilir; save/restore yığını kullanılmaz
+        double radians = Math.toRadians(heading);
+        double cos = Math.cos(radians);
+        double sin = Math.sin(radians);
+        graphics.setTransform(cos, sin, -sin, cos, x, y);
+
+        int colorIndex = Math.floorMod(vehicleId, carSprites.length);
+        Image sprite = carSprites[colorIndex];
+        if (sprite != null) {
+            graphics.drawImage(sprite, -carSize / 2, -carSize / 2, carSize, carSize);
+        } else {
+            graphics.setFill(fallbackColors[colorIndex]);
+            graphics.fillRoundRect(-carSize / 2, -15, carSize, 30, 10, 10);
+        }
+    }
+
+    private void drawBackground() {
+        graphics.setTransform(IDENTITY);
+        graphics.drawImage(background, 0, 0);
+    }
+
+    @Override
+    protected void clearVehicles() {
+        drawBackground();
+    }
+}
@@ -0,0 +1,188 @@
+package org.example.traf.view;
+
+import javafx.animation.AnimationTimer;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.control.Label;
+import javafx.scene.layout.Pane;
+import org.example.traf.controller.SimulationSession;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Kare süresi ve sahne yükünü gösteren açılıp kapanabilir tanılama katmanı. Her JavaFX darbesinde
+ * yalnızca iki darbe arasındaki süre toplanır; düğüm sayımı, oturum sorguları ve etiket
+ * güncellemesi saniyede bir yapılır. Katman kapalı ve günlük dosyası yoksa zamanlayıcı durur.
+ *
+ * <p>Günlük dosyası verilirse her saniyelik örnek CSV satırı olarak yazılır; takılmalar bu
+ * satırlarla zaman damgası üzerinden eşleştirilebilir.</p>
+ */
+public class DiagnosticsOverlay {
+
+    private static final long SAMPLE_NANOS = 1_000_000_000L;
+    private static final String LOG_HEADER =
+            "epochMillis,frames,avgFrameMs,maxFrameMs,nodes,animations,stepMs,vehicles";
+
+    private final Pane root;
+    private final Supplier<SimulationSession> session;
+    private final Label label = new Label();
+    private BufferedWriter log;
+
+    private long lastPulseNanos;
+    private long windowStartNanos;
+    private int frames;
+    private long frameNanosSum;
+    private long frameNanosMax;
+
+    private final AnimationTimer pulseTimer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            onPulse(now);
+        }
+    };
+
+    public DiagnosticsOverlay(Pane root, Supplier<SimulationSession> session) {
+        this.root = root;
+        this.session = session;
+        label.setStyle(
+                "-fx-font-family: monospace;" +
+                        "-fx-font-size: 12px;" +
+                        "-fx-text-fill: white;" +
+                        "-fx-background-color: rgba(0, 0, 0, 0.7);" +
+                        "-fx-padding: 6px;"
+        );
+        label.setLayoutX(10);
+        label.setLayoutY(110);
+        label.setMouseTransparent(true);
+        label.setVisible(false);
+        root.getChildren().add(label);
+    }
+
+    /**
+     * Örnekleri {@code file} dosyasına ekler; dosya yoksa başlık satırıyla oluşturulur.
+     */
+    public void enableLog(Path file) throws IOException {
+        boolean exists = Files.exists(file);
+        log = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        if (!exists) {
+            log.write(LOG_HEADER);
+            log.newLine();
+        }
+        startSampling();
+    }
+
+    public void toggle() {
+        setVisible(!label.isVisible());
+    }
+
+    public void setVisible(boolean visible) {
+        label.setVisible(visible);
+        if (visible) {
+            // Katman diğer düğümlerin üstünde kalır
+            label.toFront();
+            startSampling();
+        } else if (log == null) {
+            pulseTimer.stop();
+        }
+    }
+
+    public void close() {
+        pulseTimer.stop();
+        if (log != null) {
+            try {
+                log.close();
+            } catch (IOException ignored) {
+            }
+            log = null;
+        }
+    }
+
+    private void startSampling() {
+        lastPulseNanos = 0;
+        resetWindow(0);
+        pulseTimer.start();
+    }
+
+    private void onPulse(long now) {
+        if (lastPulseNanos != 0) {
+            long frameNanos = now - lastPulseNanos;
+            frames++;
+            frameNanosSum += frameNanos;
+            frameNanosMax = Math.max(frameNanosMax, frameNanos);
+        } else {
+            windowStartNanos = now;
+        }
+        lastPulseNanos = now;
+
+        long elapsed = now - windowStartNanos;
+        if (elapsed >= SAMPLE_NANOS) {
+            publishSample(elapsed);
+            resetWindow(now);
+        }
+    }
+
+    private void resetWindow(long now) {
+        windowStartNanos = now;
+        frames = 0;
+        frameNanosSum = 0;
+        frameNanosMax = 0;
+    }
+
+    private void publishSample(long elapsedNanos) {
+        double avgFrameMs = frames == 0 ? 0 : frameNanosSum / 1e6 / frames;
+        double maxFrameMs = frameNanosMax / 1e6;
+        double pulseRate = frames * 1e9 / elapsedNanos;
+        int nodes = countNodes(root);
+        SimulationSession current = session.get();
+        int animations = current != null ? current.getRunningAnimationCount() : 0;
+        double stepMs = current != null ? current.getLastStepNanos() / 1e6 : 0;
+        int vehicles = current != null ? current.getVehicleCount() : 0;
+
+        if (label.isVisible()) {
+            // Sonradan eklenen araç düğümlerinin altında kalmaması için
+            label.toFront();
+            label.setText(String.format(
+                    "kare  ort %.1f ms  en çok %.1f ms%n" +
+                            "darbe %.0f Hz%n" +
+                            "düğüm %d  animasyon %d%n" +
+                            "adım  %.2f ms  araç %d",
+                    avgFrameMs, maxFrameMs, pulseRate, nodes, animations, stepMs, vehicles));
+        }
+        if (log != null) {
+            try {
+                log.write(String.format(Locale.ROOT, "%d,%d,%.3f,%.3f,%d,%d,%.3f,%d",
+                        System.currentTimeMillis(), frames, avgFrameMs, maxFrameMs, nodes, animations, stepMs,
+                        vehicles));
+                log.newLine();
+                log.flush();
+            } catch (IOException e) {
+                // Yazılamayan günlük kapatılır; katman çalışmaya devam eder
+                close();
+                if (label.isVisible()) {
+                    pulseTimer.start();
+                }
+            }
+        }
+    }
+
+    /**
+     * Katmanın kendi etiketi dahil, sahne ağacındaki tüm düğümler.
+     */
+    private static int countNodes(Node node) {
+        int count = 1;
+        if (node instanceof Parent) {
+            for (Node child : ((Parent) node).getChildrenUnmodifiable()) {
+                count += countNodes(child);
+            }
+        }
+        return count;
+    }
+}
@@ -8,14 +8,15 @@ import javafx.scene.paint.Color;
 import java.util.HashMap;
 import java.util.Map;
 import org.example.traf.util.Constants;
+import org.example.traf.util.SpriteCache;
 
 public class DynamicTrafficLightsView {
 
     private final Map<String, String> lightStates = new HashMap<>();
     private final Pane parentPane;
-    private static final Image redLightImg = new Image(DynamicTrafficLightsView.class.getResourceAsStream("/kirmizi.png"));
-    private static final Image greenLightImg = new Image(DynamicTrafficLightsView.class.getResourceAsStream("/yesil.png"));
-    private static final Image yellowLightImg = new Image(DynamicTrafficLightsView.class.getResourceAsStream("/sari.png"));
+    private static final Image redLightImg = SpriteCache.get(SpriteCache.RED_LIGHT);
+    private static final Image greenLightImg = SpriteCache.get(SpriteCache.GREEN_LIGHT);
+    private static final Image yellowLightImg = SpriteCache.get(SpriteCache.YELLOW_LIGHT);
     private final Map<String, ImageView> lightViews = new HashMap<>();
     private final Map<String, Label> countdownLabels = new HashMap<>();
 
@@ -0,0 +1,143 @@
+package org.example.traf.view;
+
+import javafx.geometry.Bounds;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import org.example.traf.model.SignalState;
+import org.example.traf.model.EngineSnapshot;
+import org.example.traf.model.SimulationEngine;
+import org.example.traf.model.SimulationEvents;
+import org.example.traf.model.VehicleNodePool;
+import org.example.traf.util.Constants;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * {@link SimulationEngine} durumunu sahne grafiğine aktarır: araç düğümlerini konumlandırır,
+ * ışıkları ve geri sayımları günceller. Kendi başına hiçbir simülasyon mantığı içermez.
+ */
+public class EngineRenderer implements Consumer<EngineSnapshot> {
+
+    private final Pane rootPane;
+    private final DynamicTrafficLightsView lightsView;
+    private final Label totalCountdownLabel;
+    private final Map<Integer, Node> carNodes = new HashMap<>();
+    private VehicleNodePool nodePool;
+    private final Set<Integer> visibleVehicles = new HashSet<>();
+    private final SignalState[] lastSignalStates = new SignalState[Constants.DIRECTIONS_TURKISH.length];
+    private final int[] lastCountdowns = new int[Constants.DIRECTIONS_TURKISH.length];
+    private int lastTotalRemaining = -1;
+
+    public EngineRenderer(Pane rootPane, Label totalCountdownLabel) {
+        this.rootPane = rootPane;
+        this.totalCountdownLabel = totalCountdownLabel;
+        this.lightsView = new DynamicTrafficLightsView(rootPane, Constants.INTERSECTION_WIDTH, Constants.INTERSECTION_HEIGHT);
+    }
+
+    /**
+     * Çalıştırmanın düğüm havuzu; çizici çalıştırmalar arasında yeniden kullanıldığından her
+     * çalıştırmanın başında verilir.
+     */
+    public void setNodePool(VehicleNodePool nodePool) {
+        this.nodePool = nodePool;
+    }
+
+    @Override
+    public void accept(EngineSnapshot snapshot) {
+        SimulationEvents.RenderFrame event = new SimulationEvents.RenderFrame();
+        event.begin();
+        renderVehicles(snapshot);
+        renderSignals(snapshot);
+
+        int totalRemaining = (int) Math.ceil(snapshot.getTimeRemaining());
+        if (totalRemaining != lastTotalRemaining) {
+            lastTotalRemaining = totalRemaining;
+            totalCountdownLabel.setText(String.valueOf(totalRemaining));
+        }
+
+        if (event.shouldCommit()) {
+            event.renderer = getClass().getSimpleName();
+            event.vehicles = snapshot.getVehicleCount();
+            event.sequence = snapshot.getSequence();
+            event.commit();
+        }
+    }
+
+    protected void renderVehicles(EngineSnapshot snapshot) {
+        visibleVehicles.clear();
+        snapshot.forEachVehicle((vehicleId, x, y, heading) -> {
+            Node node = carNodes.get(vehicleId);
+            if (node == null) {
+                node = nodePool.acquire();
+                carNodes.put(vehicleId, node);
+                rootPane.getChildren().add(node);
+            }
+            Bounds bounds = node.getLayoutBounds();
+            node.setTranslateX(x - (bounds.getMinX() + bounds.getWidth() / 2));
+            node.setTranslateY(y - (bounds.getMinY() + bounds.getHeight() / 2));
+            node.setRotate(heading);
+            visibleVehicles.add(vehicleId);
+        });
+
+        Iterator<Map.Entry<Integer, Node>> iterator = carNodes.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Integer, Node> entry = iterator.next();
+            if (!visibleVehicles.contains(entry.getKey())) {
+                nodePool.release(entry.getValue());
+                iterator.remove();
+            }
+        }
+    }
+
+    private void renderSignals(EngineSnapshot snapshot) {
+        for (int approach = 0; approach < lastSignalStates.length; approach++) {
+            String direction = Constants.DIRECTIONS_TURKISH[approach];
+            SignalState state = snapshot.getSignalState(approach);
+            int countdown = state == SignalState.RED ? 0 : (int) Math.ceil(snapshot.getPhaseRemaining());
+
+            if (state != lastSignalStates[approach]) {
+                lastSignalStates[approach] = state;
+                lightsView.setLightColor(direction, state.name());
+                if (state != SignalState.RED) {
+                    lightsView.setCountdownColor(direction,
+                            state == SignalState.GREEN ? Color.GREEN : Color.ORANGE);
+                }
+                lastCountdowns[approach] = -1;
+            }
+
+            if (countdown != lastCountdowns[approach]) {
+                lastCountdowns[approach] = countdown;
+                if (countdown > 0) {
+                    lightsView.setCountdown(direction, countdown);
+                } else {
+                    lightsView.clearCountdown(direction);
+                }
+            }
+        }
+    }
+
+    protected void clearVehicles() {
+        for (Node node : carNodes.values()) {
+            nodePool.release(node);
+        }
+        carNodes.clear();
+    }
+
+    public void clear() {
+        clearVehicles();
+        lightsView.setAllRed();
+        for (int approach = 0; approach < lastSignalStates.length; approach++) {
+            lastSignalStates[approach] = null;
+            lastCountdowns[approach] = 0;
+        }
+        lastTotalRemaining = -1;
+        totalCountdownLabel.setText("0");
+    }
+}
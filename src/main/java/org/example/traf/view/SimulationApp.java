@@ -3,20 +3,58 @@ package org.example.traf.view;
 import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.scene.Scene;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.Pane;
 import javafx.stage.Stage;
+import org.example.traf.controller.EngineController;
 import org.example.traf.controller.SimulationButtonManager;
 import org.example.traf.controller.SimulationController;
+import org.example.traf.controller.SimulationSession;
 import org.example.traf.controller.TrafficController;
 import org.example.traf.controller.VehicleInputHandler;
+import org.example.traf.model.DemandProfile;
+import org.example.traf.model.EventLog;
+import org.example.traf.model.EventScheduler;
+import org.example.traf.model.GreenSplitOptimizer;
+import org.example.traf.model.RandomStreams;
+import org.example.traf.model.SignalControlMode;
+import org.example.traf.model.SignalControlStrategy;
+import org.example.traf.model.SimulationEngine;
 import org.example.traf.model.TrafficLightSystem;
 import org.example.traf.model.VehicleManager;
+import org.example.traf.model.VehicleNodePool;
 import org.example.traf.util.Constants;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 public class SimulationApp extends Application implements SimulationController {
 
+    // -Dtraf.engine=true ile araçlar zaman çizelgeleri yerine SimulationEngine ile hareket eder
+    private static final boolean ENGINE_MODE = Boolean.getBoolean("traf.engine");
+    // -Dtraf.canvas=true motor modunda araçları düğümler yerine tek bir tuvale çizer
+    private static final boolean CANVAS_MODE = Boolean.getBoolean("traf.canvas");
+    // -Dtraf.control=actuated|max-pressure ile ışıklar sabit süre yerine uyarlamalı çalışır
+    private static final SignalControlMode CONTROL_MODE = SignalControlMode.fromProperty(System.getProperty("traf.control"));
+    // -Dtraf.diagnostics=true tanılama katmanını açık başlatır; F3 her zaman açıp kapatır
+    private static final boolean DIAGNOSTICS_VISIBLE = Boolean.getBoolean("traf.diagnostics");
+    // -Dtraf.diagnostics.log=dosya saniyelik tanılama örneklerini CSV olarak dosyaya ekler
+    private static final String DIAGNOSTICS_LOG = System.getProperty("traf.diagnostics.log");
+    // -Dtraf.seed=sayı oturumun tüm rastgele akışlarını sabitler; verilmezse tohum başlangıçta yazdırılır
+    private static final Long SEED = Long.getLong("traf.seed");
+    // -Dtraf.record=dosya motor modundaki son çalıştırmanın girdilerini ve kararlarını kaydeder
+    private static final String RECORD_FILE = System.getProperty("traf.record");
+    // -Dtraf.trajectory=dosya motor modunda her adımın araç konum ve hızlarını bellek eşlemli dosyaya yazar
+    private static final String TRAJECTORY_FILE = System.getProperty("traf.trajectory");
+    // -Dtraf.replay=dosya arayüzü açmadan kaydı oynatır ve kararların aynı çıkıp çıkmadığını yazdırır
+    private static final String REPLAY_FILE = System.getProperty("traf.replay");
+    // -Dtraf.demand=dosya arayüzü açmadan günün saatine göre talep profilini motorla sonuna kadar çalıştırır
+    private static final String DEMAND_FILE = System.getProperty("traf.demand");
+
     // UI bileşenleri
     private Pane root;
     private UIBuilder uiBuilder;
@@ -26,11 +64,15 @@ public class SimulationApp extends Application implements SimulationController {
     private VehicleInputHandler vehicleInputHandler;
     private TrafficLightSystem trafficLightSystem;
     private VehicleManager vehicleManager;
-    private TrafficController trafficController;
+    private SimulationSession trafficController;
     private SimulationButtonManager buttonManager;
+    private EngineRenderer engineRenderer;
+    private DiagnosticsOverlay diagnosticsOverlay;
 
     // Durum değişkenleri
     private Map<String, Integer> currentVehicleCounts;
+    private RandomStreams sessionStreams;
+    private int runCount;
 
     @Override
     public void start(Stage stage) {
@@ -53,11 +95,34 @@ public class SimulationApp extends Application implements SimulationController {
         stage.setTitle("Kavşak Simülasyonu");
         stage.setResizable(false);
         stage.setOnCloseRequest(event -> cleanupAndExit());
+        setupDiagnostics(scene);
         stage.show();
     }
 
+    private void setupDiagnostics(Scene scene) {
+        diagnosticsOverlay = new DiagnosticsOverlay(root, () -> trafficController);
+        scene.addEventHandler(KeyEvent.KEY_PRESSED, event -> {
+            if (event.getCode() == KeyCode.F3) {
+                diagnosticsOverlay.toggle();
+            }
+        });
+        if (DIAGNOSTICS_LOG != null && !DIAGNOSTICS_LOG.isBlank()) {
+            try {
+                diagnosticsOverlay.enableLog(Paths.get(DIAGNOSTICS_LOG));
+            } catch (IOException e) {
+                System.err.println("Diagnostics log could not be opened: " + e.getMessage());
+            }
+        }
+        diagnosticsOverlay.setVisible(DIAGNOSTICS_VISIBLE);
+    }
+
     private void initializeComponents() {
-        vehicleInputHandler = new VehicleInputHandler(primaryStage, this::onInputResultReceived);
+        sessionStreams = SEED != null ? new RandomStreams(SEED) : RandomStreams.unseeded();
+        if (SEED == null) {
+            System.out.println("Simulation seed: " + sessionStreams.getSeed());
+        }
+        vehicleInputHandler = new VehicleInputHandler(primaryStage, this::onInputResultReceived,
+                sessionStreams.stream(RandomStreams.Subsystem.INPUT), CONTROL_MODE);
         buttonManager = new SimulationButtonManager(
                 uiBuilder.getStartButton(),
                 uiBuilder.getStopButton(),
@@ -105,24 +170,52 @@ public class SimulationApp extends Application implements SimulationController {
 
     private void initializeSimulationComponents(Map<String, Integer> greenDurations,
                                                 Map<String, Integer> vehicleCounts) {
+        // Her çalıştırma oturum tohumundan türetilen kendi akışlarıyla başlar
+        RandomStreams runStreams = sessionStreams.forRun(runCount++);
+        VehicleNodePool nodePool = new VehicleNodePool(runStreams.stream(RandomStreams.Subsystem.VEHICLE_COLORS));
+
+        if (ENGINE_MODE || CANVAS_MODE) {
+            // Çizici ve ışık görünümü simülasyonlar arasında yeniden kullanılır
+            if (engineRenderer == null) {
+                engineRenderer = CANVAS_MODE
+                        ? new CanvasEngineRenderer(root, uiBuilder, uiBuilder.getTotalCountdownLabel())
+                        : new EngineRenderer(root, uiBuilder.getTotalCountdownLabel());
+            }
+            engineRenderer.setNodePool(nodePool);
+            trafficController = new EngineController(greenDurations, vehicleCounts, CONTROL_MODE,
+                    runStreams.getSeed(), pathOf(RECORD_FILE), pathOf(TRAJECTORY_FILE), engineRenderer,
+                    engineRenderer::clear);
+            return;
+        }
+
+        EventScheduler scheduler = new EventScheduler();
+
         trafficLightSystem = new TrafficLightSystem(
                 root,
                 Constants.INTERSECTION_WIDTH,
                 Constants.INTERSECTION_HEIGHT,
-                greenDurations
+                scheduler
         );
 
-        vehicleManager = new VehicleManager(root, trafficLightSystem);
+        vehicleManager = new VehicleManager(root, nodePool, trafficLightSystem, scheduler);
+        SignalControlStrategy controlStrategy = CONTROL_MODE.createStrategy(
+                greenDurations, trafficLightSystem.getDetectors(), vehicleManager,
+                runStreams.stream(RandomStreams.Subsystem.SIGNALS));
 
         trafficController = new TrafficController(
                 trafficLightSystem,
                 vehicleManager,
+                scheduler,
                 uiBuilder.getTotalCountdownLabel(),
-                greenDurations,
+                controlStrategy,
                 vehicleCounts
         );
     }
 
+    private static Path pathOf(String property) {
+        return property != null && !property.isBlank() ? Paths.get(property) : null;
+    }
+
     private void startSimulation() {
         if (trafficController != null) {
             trafficController.startSimulation();
@@ -214,6 +307,9 @@ public class SimulationApp extends Application implements SimulationController {
             if (trafficController != null) {
                 trafficController.stopSimulationCompletely();
             }
+            if (diagnosticsOverlay != null) {
+                diagnosticsOverlay.close();
+            }
         } catch (Exception ignored) {
         } finally {
             Platform.exit();
@@ -222,6 +318,67 @@ public class SimulationApp extends Application implements SimulationController {
     }
 
     public static void main(String[] args) {
+        if (REPLAY_FILE != null && !REPLAY_FILE.isBlank()) {
+            System.exit(replay(Paths.get(REPLAY_FILE)) ? 0 : 1);
+        }
+        if (DEMAND_FILE != null && !DEMAND_FILE.isBlank()) {
+            System.exit(runDemand(Paths.get(DEMAND_FILE)) ? 0 : 1);
+        }
         launch(args);
     }
+
+    private static boolean replay(Path file) {
+        try {
+            EventLog.ReplayResult result = EventLog.replay(file);
+            System.out.printf("Replayed %d ticks (%.1f s simulated) in %.1f ms, seed %d, %s control%n",
+                    result.ticks, result.ticks * Constants.SIMULATION_STEP, result.elapsedNanos / 1e6,
+                    result.header.seed, result.header.controlMode);
+            System.out.printf("%d decisions matched, %d vehicles completed, average delay %.3f s%n",
+                    result.decisions, result.completedCount, result.averageDelay);
+            if (!result.identical) {
+                System.out.println("Diverged at tick " + result.divergenceTick + ": " + result.divergence);
+            }
+            return result.identical;
+        } catch (IOException e) {
+            System.err.println("Event log could not be read: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Talep profilini ekransız çalıştırır. Yeşil süreler yaklaşımların beklenen günlük araç
+     * sayılarına orantılı bölünür.
+     */
+    private static boolean runDemand(Path file) {
+        DemandProfile profile;
+        try {
+            profile = DemandProfile.parse(file);
+        } catch (IOException e) {
+            System.err.println("Demand profile could not be read: " + e.getMessage());
+            return false;
+        }
+        Map<String, Integer> expectedVehicles = new LinkedHashMap<>();
+        for (int approach = 0; approach < Constants.DIRECTIONS_TURKISH.length; approach++) {
+            expectedVehicles.put(Constants.DIRECTIONS_TURKISH[approach],
+                    (int) Math.round(profile.getExpectedVehicles(approach)));
+        }
+        RandomStreams streams = SEED != null ? new RandomStreams(SEED) : RandomStreams.unseeded();
+        SimulationEngine engine = new SimulationEngine(GreenSplitOptimizer.proportionalSplit(expectedVehicles),
+                profile, streams, CONTROL_MODE);
+
+        long start = System.nanoTime();
+        int peakVehicles = 0;
+        while (!engine.isFinished()) {
+            engine.step();
+            peakVehicles = Math.max(peakVehicles, engine.getVehicleStore().size());
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("Simulated %.1f h of demand in %.1f s, seed %d, %s control%n",
+                engine.getSimulationTime() / 3600, elapsed / 1e9, streams.getSeed(), CONTROL_MODE);
+        System.out.printf("%d arrivals (%.0f expected), %d vehicles completed, average delay %.3f s, "
+                        + "at most %d vehicles in the network%n",
+                engine.getArrivalCount(), profile.getExpectedVehicles(), engine.getCompletedCount(),
+                engine.getAverageDelay(), peakVehicles);
+        return true;
+    }
 }
@@ -1,7 +1,11 @@
 package org.example.traf.view;
 
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.SnapshotParameters;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
+import javafx.scene.image.Image;
 import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Line;
@@ -10,7 +14,10 @@ import org.example.traf.util.Constants;
 
 public class UIBuilder {
 
+    private static final Color BACKGROUND_COLOR = Color.web("#D3D3D3");
+
     private final Pane root;
+    private final Group intersectionLayer = new Group();
     private Label totalCountdownLabel;
     private Button startButton;
     private Button stopButton;
@@ -19,6 +26,7 @@ public class UIBuilder {
     public UIBuilder(Pane root) {
         this.root = root;
         root.setStyle("-fx-background-color: #D3D3D3;");
+        root.getChildren().add(intersectionLayer);
         drawIntersection();
         setupCountdownDisplay();
         setupControlButtons();
@@ -44,7 +52,28 @@ public class UIBuilder {
         horizontalLine.setStrokeWidth(2);
         horizontalLine.getStrokeDashArray().addAll(15.0, 10.0);
 
-        root.getChildren().addAll(verticalRoad, horizontalRoad, verticalLine, horizontalLine);
+        intersectionLayer.getChildren().addAll(verticalRoad, horizontalRoad, verticalLine, horizontalLine);
+    }
+
+    /**
+     * Yol çizimini arka plan rengiyle birlikte tek bir görüntüye dönüştürür; tuval tabanlı
+     * çizim her karede sahne düğümleri yerine bu görüntüyü kullanır.
+     */
+    public Image snapshotIntersection() {
+        SnapshotParameters parameters = new SnapshotParameters();
+        parameters.setFill(BACKGROUND_COLOR);
+        return intersectionLayer.snapshot(parameters, null);
+    }
+
+    /**
+     * Yol katmanını sahnede aynı yığın sırasında verilen düğümle değiştirir; ışıklar, etiketler
+     * ve butonlar yeni düğümün üstünde kalır.
+     */
+    public void replaceIntersectionLayer(Node replacement) {
+        int index = root.getChildren().indexOf(intersectionLayer);
+        if (index >= 0) {
+            root.getChildren().set(index, replacement);
+        }
     }
 
     private void setupCountdownDisplay() {
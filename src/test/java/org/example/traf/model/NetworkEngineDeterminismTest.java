@@ -0,0 +1,97 @@
+package org.example.traf.model;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Ağ motorunun sonuçları bölge ve iş parçacığı sayısından bağımsız olmalıdır: sınır geçişleri
+ * hangi bölgede ve hangi sırayla işlenirse işlensin aynı tohum aynı çalıştırmayı verir.
+ */
+class NetworkEngineDeterminismTest {
+
+    private static final long SEED = 7L;
+    private static final double RUN_SECONDS = 600;
+    private static final int[] REGION_COUNTS = {1, 2, 5, 16};
+
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    static void startPool() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void stopPool() {
+        pool.shutdown();
+    }
+
+    @Test
+    void resultsDoNotDependOnRegionOrThreadCount() {
+        RoadNetwork network = RoadNetwork.grid(8, 8, 600, 2);
+        for (SignalControlMode mode : SignalControlMode.values()) {
+            // Tek bölge, çağıran iş parçacığı: bölüşümsüz sıralı çalıştırma
+            Outcome reference = run(network, mode, NetworkPartition.single(network), null);
+            for (int regions : REGION_COUNTS) {
+                NetworkPartition partition = NetworkPartition.bisect(network, regions);
+                String label = mode + " regions=" + regions;
+                if (regions > 1) {
+                    reference.assertSame(run(network, mode, partition, null), label + " threads=1");
+                }
+                reference.assertSame(run(network, mode, partition, pool), label + " threads=4");
+            }
+        }
+    }
+
+    private static Outcome run(RoadNetwork network, SignalControlMode mode, NetworkPartition partition,
+                               ForkJoinPool pool) {
+        NetworkEngine engine = new NetworkEngine(network, mode, 30, 4.0, new Random(SEED), partition, pool);
+        engine.runFor(RUN_SECONDS);
+        return new Outcome(engine);
+    }
+
+    /**
+     * Karşılaştırılan sonuçlar. Araçlar bölge sırasıyla gezildiğinden konumlar sıradan bağımsız
+     * bir özetle (araç başına özetlerin toplamı) birleştirilir.
+     */
+    private static final class Outcome {
+        final long tickCount;
+        final int completed;
+        final int active;
+        final double totalDelay;
+        final long positions;
+
+        Outcome(NetworkEngine engine) {
+            tickCount = engine.getTickCount();
+            completed = engine.getCompletedCount();
+            active = engine.getActiveVehicleCount();
+            totalDelay = engine.getTotalDelay();
+            long[] sum = {0};
+            engine.forEachVehicle((vehicleId, x, y, heading) -> sum[0] += mix(vehicleId,
+                    Double.doubleToLongBits(x), Double.doubleToLongBits(y), Double.doubleToLongBits(heading)));
+            positions = sum[0];
+        }
+
+        private static long mix(long... values) {
+            long hash = 17;
+            for (long value : values) {
+                hash = 31 * hash + value;
+                hash ^= hash >>> 29;
+            }
+            return hash * 0xBF58476D1CE4E5B9L;
+        }
+
+        void assertSame(Outcome other, String label) {
+            assertEquals(tickCount, other.tickCount, label);
+            assertEquals(completed, other.completed, label);
+            assertEquals(active, other.active, label);
+            assertEquals(totalDelay, other.totalDelay, 0.0, label);
+            assertEquals(positions, other.positions, label);
+        }
+    }
+}
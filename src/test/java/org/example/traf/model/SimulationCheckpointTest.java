@@ -0,0 +1,83 @@
+package org.example.traf.model;
+
+import org.example.traf.util.Constants;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Çalıştırmanın ortasında alınan kontrol noktasından geri yüklenen motor, asıl motorla aynı sonuca
+ * ulaşmalıdır.
+ */
+class SimulationCheckpointTest {
+
+    private static final long SEED = 7L;
+    private static final int CHECKPOINT_TICKS = 1000;
+
+    @Test
+    void restoredEngineFinishesLikeTheOriginalInEveryControlMode() throws IOException {
+        for (SignalControlMode mode : SignalControlMode.values()) {
+            SimulationEngine original = new SimulationEngine(greens(), counts(), new Random(SEED), mode);
+            assertRoundTrip(original);
+        }
+    }
+
+    @Test
+    void restoredEngineContinuesTheDemandStreams() throws IOException {
+        Map<String, Integer> vehiclesPerHour = new LinkedHashMap<>();
+        for (String direction : Constants.DIRECTIONS_TURKISH) {
+            vehiclesPerHour.put(direction, 400);
+        }
+        SimulationEngine original = new SimulationEngine(greens(), DemandProfile.constant(vehiclesPerHour, 600),
+                new RandomStreams(SEED), SignalControlMode.ACTUATED);
+        assertRoundTrip(original);
+    }
+
+    @Test
+    void rejectsForeignBytes() {
+        assertThrows(IOException.class, () -> SimulationCheckpoint.fromBytes(new byte[]{1, 2, 3, 4, 5, 6}));
+    }
+
+    private static void assertRoundTrip(SimulationEngine original) throws IOException {
+        for (int tick = 0; tick < CHECKPOINT_TICKS; tick++) {
+            original.step();
+        }
+        // Baytlara yazılıp okunan kontrol noktası da aynı motoru vermeli
+        SimulationCheckpoint checkpoint = SimulationCheckpoint.fromBytes(SimulationCheckpoint.capture(original).toBytes());
+        SimulationEngine restored = checkpoint.restore();
+        assertEquals(original.getTickCount(), restored.getTickCount());
+
+        original.runToCompletion();
+        restored.runToCompletion();
+
+        String mode = original.getControlMode().name();
+        assertEquals(original.getCompletedCount(), restored.getCompletedCount(), mode);
+        assertEquals(original.getCumulativeDelay(), restored.getCumulativeDelay(), 0.0, mode);
+        assertEquals(original.getAverageQueueLength(), restored.getAverageQueueLength(), 0.0, mode);
+        assertEquals(original.getTickCount(), restored.getTickCount(), mode);
+    }
+
+    private static Map<String, Integer> greens() {
+        Map<String, Integer> greens = new LinkedHashMap<>();
+        int[] seconds = {20, 12, 25, 15};
+        for (int approach = 0; approach < seconds.length; approach++) {
+            greens.put(Constants.DIRECTIONS_TURKISH[approach], seconds[approach]);
+        }
+        return greens;
+    }
+
+    private static Map<String, Integer> counts() {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        int[] vehicles = {30, 12, 24, 18};
+        for (int approach = 0; approach < vehicles.length; approach++) {
+            counts.put(Constants.DIRECTIONS_TURKISH[approach], vehicles[approach]);
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,77 @@
+package org.example.traf.bench;
+
+import org.example.traf.model.SignalState;
+import org.example.traf.model.SimulationCheckpoint;
+import org.example.traf.model.SimulationEngine;
+import org.example.traf.util.Constants;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kırmızıda birikmiş kuyruğun yeşil yandığı andan itibaren en kısa yeşil süresi boyunca boşalması.
+ * Kurulum, kuyruğun olduğu yaklaşıma yeşil yanana kadar motoru bir kez ilerletip kontrol noktasına
+ * alır; her yinelemeden önce {@link #BATCH} kopya geri yüklenir ve çağrı hepsini boşaltır. Sonuç
+ * boşalma başına süredir.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QueueDischargeBenchmark {
+
+    private static final int QUEUED_APPROACH = 0;
+    private static final int BATCH = 32;
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int vehicleCount;
+
+    private SimulationCheckpoint greenStart;
+    private final SimulationEngine[] engines = new SimulationEngine[BATCH];
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SimulationEngine engine = Scenarios.engine(Scenarios.uniformGreens(Constants.MIN_GREEN_DURATION),
+                Scenarios.singleApproachCounts(QUEUED_APPROACH, vehicleCount));
+        // Önce kırmızıda kuyruk oluşsun, sonra yeşilin ilk adımına gelinsin
+        while (!engine.isFinished()
+                && (engine.getSignalState(QUEUED_APPROACH) == SignalState.GREEN || engine.getWaitingCount(QUEUED_APPROACH) == 0)) {
+            engine.step();
+        }
+        while (!engine.isFinished() && engine.getSignalState(QUEUED_APPROACH) != SignalState.GREEN) {
+            engine.step();
+        }
+        greenStart = SimulationCheckpoint.capture(engine);
+    }
+
+    @Setup(Level.Iteration)
+    public void restoreQueues() {
+        for (int i = 0; i < BATCH; i++) {
+            engines[i] = greenStart.restore();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int dischargeQueue() {
+        int steps = 0;
+        for (SimulationEngine engine : engines) {
+            steps += engine.advance(Constants.MIN_GREEN_DURATION);
+        }
+        return steps;
+    }
+}
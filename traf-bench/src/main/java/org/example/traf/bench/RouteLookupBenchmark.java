@@ -0,0 +1,59 @@
+package org.example.traf.bench;
+
+import org.example.traf.model.PathService;
+import org.example.traf.model.RouteGeometry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Her araç için bir adımda yapılan rota sorguları: rota kimliğinden geometri, mesafeden konum ve
+ * başlık. Sorgu noktaları tüm rotalara ve rota boylarına rastgele (sabit tohumla) dağılır.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RouteLookupBenchmark {
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int vehicleCount;
+
+    private int[] routeIds;
+    private double[] fractions;
+    private final double[] position = new double[3];
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(Scenarios.SEED);
+        routeIds = new int[vehicleCount];
+        fractions = new double[vehicleCount];
+        for (int i = 0; i < vehicleCount; i++) {
+            routeIds[i] = random.nextInt(PathService.ROUTE_COUNT);
+            fractions[i] = random.nextDouble();
+        }
+    }
+
+    @Benchmark
+    public void lookupRoutes(Blackhole blackhole) {
+        for (int i = 0; i < routeIds.length; i++) {
+            RouteGeometry route = PathService.getGeometry(routeIds[i]);
+            route.positionAt(fractions[i] * route.getLength(), position);
+            blackhole.consume(position[0] + position[1] + position[2]);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package org.example.traf.bench;
+
+import org.example.traf.model.SimulationCheckpoint;
+import org.example.traf.model.SimulationEngine;
+import org.example.traf.util.Constants;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tüm talebin tek yaklaşımda olduğu, girişe kadar dolu bir şeridin bir saniyelik (sabit sayıda)
+ * adımlanması. Kurulum motoru bir kez doygunluğa getirip kontrol noktasına alır; her yinelemeden
+ * önce {@link #BATCH} kopya geri yüklenir ve çağrı her birini {@link #WINDOW_SECONDS} saniye
+ * ilerletir. Sonuç kopya başına süredir.
+ *
+ * <p>Tek kavşakta aynı anda şeritte bulunabilecek araç sayısı şerit uzunluğuyla sınırlıdır; büyük
+ * {@code vehicleCount} değerleri giriş kuyruğunu ve zamanlayıcıyı büyütür.</p>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SaturatedApproachBenchmark {
+
+    private static final double WINDOW_SECONDS = 1.0;
+    private static final double WARM_UP_SECONDS = 60.0;
+    private static final int SATURATED_APPROACH = 0;
+    private static final int BATCH = 32;
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int vehicleCount;
+
+    private SimulationCheckpoint saturated;
+    private final SimulationEngine[] engines = new SimulationEngine[BATCH];
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Doygun yaklaşıma en kısa, diğerlerine en uzun yeşil: kuyruk kırmızıda birikir
+        Map<String, Integer> greens = Scenarios.uniformGreens(Constants.MAX_GREEN_DURATION);
+        greens.put(Constants.DIRECTIONS_TURKISH[SATURATED_APPROACH], Constants.MIN_GREEN_DURATION);
+        SimulationEngine engine = Scenarios.engine(greens, Scenarios.singleApproachCounts(SATURATED_APPROACH, vehicleCount));
+        engine.advance(WARM_UP_SECONDS);
+        saturated = SimulationCheckpoint.capture(engine);
+    }
+
+    @Setup(Level.Iteration)
+    public void restoreEngines() {
+        for (int i = 0; i < BATCH; i++) {
+            engines[i] = saturated.restore();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int stepSaturatedApproach() {
+        int steps = 0;
+        for (SimulationEngine engine : engines) {
+            steps += engine.advance(WINDOW_SECONDS);
+        }
+        return steps;
+    }
+}
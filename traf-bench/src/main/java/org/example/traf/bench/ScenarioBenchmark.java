@@ -0,0 +1,56 @@
+package org.example.traf.bench;
+
+import org.example.traf.model.DemandProfile;
+import org.example.traf.model.SimulationEngine;
+import org.example.traf.util.Constants;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code vehicleCount} aracın kavşaktan geçtiği tam senaryonun ekransız koşusu: motorun kurulumu ve
+ * sona kadar adımlanması. Talep her yaklaşımda doygunluğun altında sabittir ve çalıştırma süresi
+ * beklenen geliş sayısı {@code vehicleCount} olacak kadar uzatılır; böylece gelen araçların hemen
+ * hepsi yola girer ve çıkar, maliyet araç sayısıyla doğrusal büyür.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScenarioBenchmark {
+
+    // 30 saniyelik eşit yeşillerle yaklaşım başına doygunluğun altında kalan talep
+    private static final int VEHICLES_PER_HOUR = 300;
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int vehicleCount;
+
+    private final Map<String, Integer> greens = Scenarios.uniformGreens(30);
+    private DemandProfile demand;
+
+    @Setup
+    public void setUp() {
+        double duration = vehicleCount * 3600.0 / (VEHICLES_PER_HOUR * Constants.DIRECTIONS_TURKISH.length);
+        demand = Scenarios.uniformDemand(VEHICLES_PER_HOUR, duration);
+    }
+
+    @Benchmark
+    public double runScenario() {
+        SimulationEngine engine = Scenarios.engine(greens, demand);
+        engine.runToCompletion();
+        return engine.getCumulativeDelay();
+    }
+}
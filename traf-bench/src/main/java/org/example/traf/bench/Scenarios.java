@@ -0,0 +1,74 @@
+package org.example.traf.bench;
+
+import org.example.traf.model.DemandProfile;
+import org.example.traf.model.RandomStreams;
+import org.example.traf.model.SignalControlMode;
+import org.example.traf.model.SimulationEngine;
+import org.example.traf.util.Constants;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Karşılaştırmaların paylaştığı senaryo kurulumları. Tüm motorlar sabit tohumla kurulur; böylece
+ * iki sürümün sonuçları aynı trafik üzerinde ölçülür.
+ */
+final class Scenarios {
+
+    static final long SEED = 42L;
+
+    private Scenarios() {
+    }
+
+    static Map<String, Integer> uniformGreens(int seconds) {
+        Map<String, Integer> greens = new LinkedHashMap<>();
+        for (String direction : Constants.DIRECTIONS_TURKISH) {
+            greens.put(direction, seconds);
+        }
+        return greens;
+    }
+
+    /**
+     * Her yaklaşımda {@code duration} saniye boyunca saatte {@code vehiclesPerHour} araçlık sabit talep.
+     */
+    static DemandProfile uniformDemand(int vehiclesPerHour, double duration) {
+        Map<String, Integer> rates = new LinkedHashMap<>();
+        for (String direction : Constants.DIRECTIONS_TURKISH) {
+            rates.put(direction, vehiclesPerHour);
+        }
+        return DemandProfile.constant(rates, duration);
+    }
+
+    /**
+     * {@code vehicleCount} aracı yaklaşımlara eşit böler; kalan araçlar ilk yaklaşımlara eklenir.
+     */
+    static Map<String, Integer> evenCounts(int vehicleCount) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        int approachCount = Constants.DIRECTIONS_TURKISH.length;
+        for (int approach = 0; approach < approachCount; approach++) {
+            int share = vehicleCount / approachCount + (approach < vehicleCount % approachCount ? 1 : 0);
+            counts.put(Constants.DIRECTIONS_TURKISH[approach], share);
+        }
+        return counts;
+    }
+
+    /**
+     * Tüm araçlar tek yaklaşımda; diğer yaklaşımlar boştur.
+     */
+    static Map<String, Integer> singleApproachCounts(int approach, int vehicleCount) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (int i = 0; i < Constants.DIRECTIONS_TURKISH.length; i++) {
+            counts.put(Constants.DIRECTIONS_TURKISH[i], i == approach ? vehicleCount : 0);
+        }
+        return counts;
+    }
+
+    static SimulationEngine engine(Map<String, Integer> greens, Map<String, Integer> counts) {
+        return new SimulationEngine(greens, counts, new Random(SEED));
+    }
+
+    static SimulationEngine engine(Map<String, Integer> greens, DemandProfile demand) {
+        return new SimulationEngine(greens, demand, new RandomStreams(SEED), SignalControlMode.FIXED_TIME);
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.traf.bench;
+
+import org.example.traf.model.SimulationEngine;
+import org.example.traf.util.Constants;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Motorun doğuş yolu: kurulumda {@code scheduledSpawns} doğuş olayının zamanlayıcıya kuyruklanması
+ * ve ilk {@link Constants#CAR_SPAWN_DELAY} aralığında sırası gelen olayların motorun kendi doğuş
+ * işleyicisiyle işlenmesi (giriş hızı, slot ayrılması, şeride ekleme). Yaklaşım başına bu aralıkta iki
+ * araç girer; büyük {@code scheduledSpawns} değerleri kuyruklamanın ve zamanlayıcı yığınının
+ * maliyetini ölçer.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SpawnBenchmark {
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int scheduledSpawns;
+
+    private final Map<String, Integer> greens = Scenarios.uniformGreens(30);
+
+    @Benchmark
+    public int spawnVehicles() {
+        SimulationEngine engine = Scenarios.engine(greens, Scenarios.evenCounts(scheduledSpawns));
+        engine.advance(Constants.CAR_SPAWN_DELAY);
+        return engine.getActiveVehicleCount();
+    }
+}